@@ -23,7 +23,13 @@ public final class GuavaMapTest extends TestCase {
     public static Test suite() {
         var suite = new TestSuite();
         suite.addTest(mapTest("SwissMap", generator(SwissMap::new)));
+        suite.addTest(mapTest("SwissMap(SLOT_PROBING)", generator(() -> new SwissMap<>(16, 0.875, SwissMap.SLOT_PROBING))));
+        suite.addTest(mapTest("SwissMap(STORE_HASHES)", generator(() -> new SwissMap<>(16, 0.875, SwissMap.STORE_HASHES))));
+        suite.addTest(mapTest("SwissMap(INTERLEAVED)", generator(() -> new SwissMap<>(16, 0.875, SwissMap.INTERLEAVED))));
+        suite.addTest(mapTest("SwissMap(TINY_LINEAR_SCAN)", generator(() -> new SwissMap<>(16, 0.875, SwissMap.TINY_LINEAR_SCAN))));
         suite.addTest(mapTest("SwissSimdMap", generator(SwissSimdMap::new)));
+        suite.addTest(mapTest("ChunkedSwissMap", generator(ChunkedSwissMap::new)));
+        suite.addTest(mapTest("BigSwissMap", generator(BigSwissMap::new)));
         suite.addTest(mapTest("RobinHoodMap", generator(RobinHoodMap::new)));
         suite.addTest(concurrentMapTest(
             "ConcurrentSwissMap",
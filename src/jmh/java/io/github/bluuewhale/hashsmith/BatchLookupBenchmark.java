@@ -0,0 +1,90 @@
+package io.github.bluuewhale.hashsmith;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Random-key lookups one at a time ({@code get} in a loop) vs batched ({@code getAll}) on tables larger than the
+ * last-level cache, where nearly every probe misses. Each invocation looks up {@link #QUERY} random present keys;
+ * scores are per invocation.
+ *
+ * <p>The 100M-entry tables need a large heap; the fork asks for {@code -Xmx24g}.
+ */
+@Fork(value = 1, jvmArgsAppend = { "--add-modules=jdk.incubator.vector", "-Xmx24g" })
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class BatchLookupBenchmark {
+
+	static final int QUERY = 1024;
+	static final int ROUNDS = 64; // distinct query arrays, so successive invocations touch different slots
+
+	@Param({ "1000000", "16000000", "100000000" })
+	int size;
+
+	SwissMap<Integer, Integer> swiss;
+	SwissSimdMap<Integer, Integer> swissSimd;
+	Integer[][] queries;
+	Integer[] out;
+	boolean[] present;
+	int round;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Random rnd = new Random(123);
+		Integer[] keys = new Integer[size];
+		swiss = new SwissMap<>(size);
+		swissSimd = new SwissSimdMap<>(size);
+		for (int i = 0; i < size; i++) {
+			Integer k = rnd.nextInt();
+			keys[i] = k;
+			swiss.put(k, i);
+			swissSimd.put(k, i);
+		}
+		queries = new Integer[ROUNDS][QUERY];
+		for (Integer[] q : queries) {
+			for (int i = 0; i < QUERY; i++) q[i] = keys[rnd.nextInt(size)];
+		}
+		out = new Integer[QUERY];
+		present = new boolean[QUERY];
+	}
+
+	private Integer[] nextQuery() {
+		return queries[round++ & (ROUNDS - 1)];
+	}
+
+	@Benchmark
+	public void swissGetLoop(Blackhole bh) {
+		Integer[] q = nextQuery();
+		for (Integer k : q) bh.consume(swiss.get(k));
+	}
+
+	@Benchmark
+	public void swissGetAll(Blackhole bh) {
+		swiss.getAll(nextQuery(), out);
+		bh.consume(out);
+	}
+
+	@Benchmark
+	public void swissContainsAll(Blackhole bh) {
+		swiss.containsAll(nextQuery(), present);
+		bh.consume(present);
+	}
+
+	@Benchmark
+	public void swissSimdGetLoop(Blackhole bh) {
+		Integer[] q = nextQuery();
+		for (Integer k : q) bh.consume(swissSimd.get(k));
+	}
+
+	@Benchmark
+	public void swissSimdGetAll(Blackhole bh) {
+		swissSimd.getAll(nextQuery(), out);
+		bh.consume(out);
+	}
+}
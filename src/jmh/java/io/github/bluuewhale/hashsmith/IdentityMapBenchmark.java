@@ -0,0 +1,141 @@
+package io.github.bluuewhale.hashsmith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Visited-set workloads, {@link IdentitySwissSet}/{@link IdentitySwissMap} vs {@link IdentityHashMap}. The
+ * {@code visit*} benchmarks replay the {@code add} calls of a depth-first walk over a random graph of
+ * {@link #size} nodes with 3 edges each (about 3 attempts per node, the first one new) into a fresh set, growth
+ * included; {@code contains*} probe a full set with half present, half absent objects in random order. Scores
+ * are per invocation.
+ */
+@Fork(value = 1, jvmArgsAppend = { "--add-modules=jdk.incubator.vector", "-Xmx8g" })
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class IdentityMapBenchmark {
+
+	@Param({ "10000", "1000000", "4000000" })
+	int size;
+
+	Object[] visits;   // node per add() call of the walk, in walk order
+	Object[] queries;  // present and absent nodes, shuffled
+	Set<Object> jdkSet;
+	IdentitySwissSet<Object> swissSet;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Random rnd = new Random(42);
+		Object[] nodes = new Object[size];
+		int[][] edges = new int[size][3];
+		for (int i = 0; i < size; i++) {
+			nodes[i] = new Object();
+			for (int j = 0; j < 3; j++) edges[i][j] = rnd.nextInt(size);
+		}
+		// Record the walk once: every node pushed is one add() attempt.
+		ArrayList<Object> walk = new ArrayList<>();
+		boolean[] seen = new boolean[size];
+		int[] stack = new int[3 * size + 1];
+		for (int root = 0; root < size; root++) {
+			if (seen[root]) continue;
+			int top = 0;
+			stack[top++] = root;
+			while (top > 0) {
+				int n = stack[--top];
+				walk.add(nodes[n]);
+				if (seen[n]) continue;
+				seen[n] = true;
+				for (int c : edges[n]) stack[top++] = c;
+			}
+		}
+		visits = walk.toArray();
+
+		jdkSet = Collections.newSetFromMap(new IdentityHashMap<>());
+		swissSet = new IdentitySwissSet<>();
+		for (Object o : nodes) {
+			jdkSet.add(o);
+			swissSet.add(o);
+		}
+		queries = new Object[2 * size];
+		for (int i = 0; i < size; i++) {
+			queries[2 * i] = nodes[i];
+			queries[2 * i + 1] = new Object();
+		}
+		for (int i = queries.length - 1; i > 0; i--) {
+			int j = rnd.nextInt(i + 1);
+			Object t = queries[i];
+			queries[i] = queries[j];
+			queries[j] = t;
+		}
+	}
+
+	private int replay(Set<Object> visited) {
+		int fresh = 0;
+		for (Object o : visits) {
+			if (visited.add(o)) fresh++;
+		}
+		return fresh;
+	}
+
+	private int countPresent(Set<Object> set) {
+		int found = 0;
+		for (Object o : queries) {
+			if (set.contains(o)) found++;
+		}
+		return found;
+	}
+
+	@Benchmark
+	public int visitIdentityHashMap() {
+		return replay(Collections.newSetFromMap(new IdentityHashMap<>()));
+	}
+
+	@Benchmark
+	public int visitIdentitySwissSet() {
+		return replay(new IdentitySwissSet<>());
+	}
+
+	@Benchmark
+	public int visitIdentitySwissSetInterleaved() {
+		return replay(new IdentitySwissSet<>(16, 0.875, SwissMap.INTERLEAVED));
+	}
+
+	@Benchmark
+	public int visitIdentitySwissMapPutIfAbsent() {
+		IdentitySwissMap<Object, Integer> ids = new IdentitySwissMap<>();
+		int fresh = 0;
+		for (Object o : visits) {
+			if (ids.putIfAbsent(o, fresh) == null) fresh++; // object -> id, as a serializer's back-reference table
+		}
+		return fresh;
+	}
+
+	@Benchmark
+	public int visitIdentityHashMapPutIfAbsent() {
+		IdentityHashMap<Object, Integer> ids = new IdentityHashMap<>();
+		int fresh = 0;
+		for (Object o : visits) {
+			if (ids.putIfAbsent(o, fresh) == null) fresh++;
+		}
+		return fresh;
+	}
+
+	@Benchmark
+	public int containsIdentityHashMap() {
+		return countPresent(jdkSet);
+	}
+
+	@Benchmark
+	public int containsIdentitySwissSet() {
+		return countPresent(swissSet);
+	}
+}
@@ -0,0 +1,64 @@
+package io.github.bluuewhale.hashsmith;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Latency of single {@code put}s into a growing map, default resize vs {@link SwissMap#INCREMENTAL_RESIZE}.
+ * Each invocation inserts the next key; once {@link #size} keys are in, the map starts over empty, so every
+ * doubling up to {@code size} is sampled again and again. The averages are close; the difference is in the
+ * upper percentiles ({@code p0.9999}, {@code p1.0}), where the default mode pays a whole rehash inside one put
+ * and the incremental mode only the allocation of the larger table.
+ *
+ * <p>The {@code jmh} block in {@code build.gradle} forces {@code avgt} on every benchmark; to get the percentiles,
+ * run this one from the benchmark jar ({@code ./gradlew jmhJar}, then
+ * {@code java -jar build/libs/*-jmh.jar IncrementalResizeBenchmark}). The fork asks for an 8 GB heap.
+ */
+@Fork(value = 1, jvmArgsAppend = { "--add-modules=jdk.incubator.vector", "-Xms8g", "-Xmx8g" })
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class IncrementalResizeBenchmark {
+
+	@Param({ "1000000", "20000000" })
+	int size;
+
+	Integer[] keys;
+	SwissMap<Integer, Integer> plain;
+	SwissMap<Integer, Integer> incremental;
+	int nextPlain;
+	int nextIncremental;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Random rnd = new Random(123);
+		keys = new Integer[size];
+		for (int i = 0; i < size; i++) keys[i] = rnd.nextInt();
+		plain = new SwissMap<>();
+		incremental = new SwissMap<>(16, 0.875, SwissMap.INCREMENTAL_RESIZE);
+	}
+
+	@Benchmark
+	public Integer swissPut() {
+		if (nextPlain == size) {
+			plain = new SwissMap<>(); // tables are allocated lazily: starting over is cheap
+			nextPlain = 0;
+		}
+		Integer k = keys[nextPlain++];
+		return plain.put(k, k);
+	}
+
+	@Benchmark
+	public Integer swissIncrementalPut() {
+		if (nextIncremental == size) {
+			incremental = new SwissMap<>(16, 0.875, SwissMap.INCREMENTAL_RESIZE);
+			nextIncremental = 0;
+		}
+		Integer k = keys[nextIncremental++];
+		return incremental.put(k, k);
+	}
+}
@@ -65,6 +65,7 @@ public class MapBenchmark {
 
 		SwissSimdMap<String, Object> swissSimd;
 		SwissMap<String, Object> swiss;
+		SwissMap<String, Object> swissSlot; // SLOT_PROBING
 		Object2ObjectOpenHashMap<String, Object> fastutil;
 		UnifiedMap<String, Object> unified;
 		HashMap<String, Object> jdk;
@@ -94,12 +95,14 @@ public class MapBenchmark {
 			nextKeyIndex = 0;
 			nextMissIndex = 0;
 			swiss = new SwissMap<>();
+			swissSlot = new SwissMap<>(16, 0.875, SwissMap.SLOT_PROBING);
 			swissSimd = new SwissSimdMap<>();
 			fastutil = new Object2ObjectOpenHashMap<>();
 			unified = new UnifiedMap<>();
 			jdk = new HashMap<>();
 			for (int i = 0; i < size; i++) {
 				swiss.put(keys[i], "dummy");
+				swissSlot.put(keys[i], "dummy");
 				swissSimd.put(keys[i], "dummy");
 				fastutil.put(keys[i], "dummy");
 				unified.put(keys[i], "dummy");
@@ -119,6 +122,44 @@ public class MapBenchmark {
 		}
 	}
 
+	/** Split vs INTERLEAVED key/value layout, only at sizes where the tables no longer fit in L2. */
+	@State(Scope.Benchmark)
+	public static class LayoutState {
+		@Param({ "196000", "784000" })
+		int size;
+
+		SwissMap<String, Object> split;
+		SwissMap<String, Object> interleaved; // INTERLEAVED
+		String[] keys;
+		String[] misses;
+		int nextKeyIndex;
+		int nextMissIndex;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			keys = new String[size];
+			misses = new String[size];
+			generateKeysAndMisses(new Random(123), keys, misses);
+			split = new SwissMap<>();
+			interleaved = new SwissMap<>(16, 0.875, SwissMap.INTERLEAVED);
+			for (int i = 0; i < size; i++) {
+				split.put(keys[i], "dummy");
+				interleaved.put(keys[i], "dummy");
+			}
+		}
+
+		String nextHitKey() {
+			var k = keys[nextKeyIndex];
+			nextKeyIndex = (nextKeyIndex + 1) % keys.length;
+			return k;
+		}
+		String nextMissingKey() {
+			var k = misses[nextMissIndex];
+			nextMissIndex = (nextMissIndex + 1) % misses.length;
+			return k;
+		}
+	}
+
 	@State(Scope.Thread)
 	public static class PutHitState {
         @Param({ "12000", "48000", "196000", "784000" }) // load factor equals to 74.x% (right before resizing)
@@ -248,6 +289,27 @@ public class MapBenchmark {
 		String nextValue() { return "dummy"; }
 	}
 
+	// ------- key/value layout (split vs interleaved) -------
+//	@Benchmark
+	public void layoutSplitGetHit(LayoutState s, Blackhole bh) {
+		bh.consume(s.split.get(s.nextHitKey()));
+	}
+
+//	@Benchmark
+	public void layoutInterleavedGetHit(LayoutState s, Blackhole bh) {
+		bh.consume(s.interleaved.get(s.nextHitKey()));
+	}
+
+//	@Benchmark
+	public void layoutSplitGetMiss(LayoutState s, Blackhole bh) {
+		bh.consume(s.split.get(s.nextMissingKey()));
+	}
+
+//	@Benchmark
+	public void layoutInterleavedGetMiss(LayoutState s, Blackhole bh) {
+		bh.consume(s.interleaved.get(s.nextMissingKey()));
+	}
+
 	// ------- get hit/miss -------
 //	@Benchmark
 	public void swissSimdGetHit(ReadState s, Blackhole bh) {
@@ -259,6 +321,11 @@ public class MapBenchmark {
 		bh.consume(s.swiss.get(s.nextHitKey()));
 	}
 
+//	@Benchmark
+	public void swissSlotGetHit(ReadState s, Blackhole bh) {
+		bh.consume(s.swissSlot.get(s.nextHitKey()));
+	}
+
 //	@Benchmark
 	public void fastutilGetHit(ReadState s, Blackhole bh) {
         bh.consume(s.fastutil.get(s.nextHitKey()));
@@ -284,6 +351,11 @@ public class MapBenchmark {
 		bh.consume(s.swiss.get(s.nextMissingKey()));
 	}
 
+//	@Benchmark
+	public void swissSlotGetMiss(ReadState s, Blackhole bh) {
+		bh.consume(s.swissSlot.get(s.nextMissingKey()));
+	}
+
 //	@Benchmark
 	public void fastutilGetMiss(ReadState s, Blackhole bh) {
         bh.consume(s.fastutil.get(s.nextMissingKey()));
@@ -0,0 +1,100 @@
+package io.github.bluuewhale.hashsmith;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Full-map scans: {@code entrySet()} iteration (one {@code Map.Entry} per element) vs {@link MapCursor}.
+ *
+ * <p>Run with the GC profiler to compare allocation; the cursor variants should report
+ * {@code gc.alloc.rate.norm} of (close to) 0 B/op, the iterator variants one entry object per element:
+ * <pre>
+ *   ./gradlew jmhJar
+ *   java --add-modules jdk.incubator.vector -jar build/libs/*-jmh.jar MapCursorBenchmark -prof gc
+ * </pre>
+ */
+@Fork(value = 1, jvmArgsAppend = { "--add-modules=jdk.incubator.vector" })
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class MapCursorBenchmark {
+
+	@Param({ "12000", "196000", "784000" })
+	int size;
+
+	SwissMap<Integer, Integer> swiss;
+	SwissSimdMap<Integer, Integer> swissSimd;
+	RobinHoodMap<Integer, Integer> robinHood;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Random rnd = new Random(123);
+		swiss = new SwissMap<>();
+		swissSimd = new SwissSimdMap<>();
+		robinHood = new RobinHoodMap<>();
+		for (int i = 0; i < size; i++) {
+			Integer k = rnd.nextInt();
+			swiss.put(k, i);
+			swissSimd.put(k, i);
+			robinHood.put(k, i);
+		}
+	}
+
+	private static void scanEntries(Map<Integer, Integer> m, Blackhole bh) {
+		for (Map.Entry<Integer, Integer> e : m.entrySet()) {
+			bh.consume(e.getKey());
+			bh.consume(e.getValue());
+		}
+	}
+
+	private static void scanCursor(MapCursor<Integer, Integer> c, Blackhole bh) {
+		while (c.advance()) {
+			bh.consume(c.key());
+			bh.consume(c.value());
+		}
+	}
+
+	@Benchmark
+	public void swissEntryIterator(Blackhole bh) {
+		scanEntries(swiss, bh);
+	}
+
+	@Benchmark
+	public void swissCursor(Blackhole bh) {
+		scanCursor(swiss.cursor(), bh);
+	}
+
+	@Benchmark
+	public void swissForEach(Blackhole bh) {
+		swiss.forEach((k, v) -> {
+			bh.consume(k);
+			bh.consume(v);
+		});
+	}
+
+	@Benchmark
+	public void swissSimdEntryIterator(Blackhole bh) {
+		scanEntries(swissSimd, bh);
+	}
+
+	@Benchmark
+	public void swissSimdCursor(Blackhole bh) {
+		scanCursor(swissSimd.cursor(), bh);
+	}
+
+	@Benchmark
+	public void robinHoodEntryIterator(Blackhole bh) {
+		scanEntries(robinHood, bh);
+	}
+
+	@Benchmark
+	public void robinHoodCursor(Blackhole bh) {
+		scanCursor(robinHood.cursor(), bh);
+	}
+}
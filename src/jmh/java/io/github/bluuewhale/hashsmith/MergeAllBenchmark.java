@@ -0,0 +1,75 @@
+package io.github.bluuewhale.hashsmith;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Combining a partial aggregation into a target map: {@code entrySet()} + {@code merge} per entry vs
+ * {@code mergeAll}. Half of the partial's keys already exist in the target. Each invocation merges into a fresh
+ * copy of the target, so the copy is part of both scores.
+ */
+@Fork(value = 1, jvmArgsAppend = { "--add-modules=jdk.incubator.vector" })
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class MergeAllBenchmark {
+
+	@Param({ "12000", "196000", "784000" })
+	int size;
+
+	SwissMap<Integer, Integer> swissTarget;
+	SwissMap<Integer, Integer> swissPartial;
+	SwissSimdMap<Integer, Integer> simdTarget;
+	SwissSimdMap<Integer, Integer> simdPartial;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Random rnd = new Random(123);
+		swissTarget = new SwissMap<>();
+		swissPartial = new SwissMap<>();
+		simdTarget = new SwissSimdMap<>();
+		simdPartial = new SwissSimdMap<>();
+		for (int i = 0; i < size; i++) {
+			Integer k = rnd.nextInt();
+			swissTarget.put(k, 1);
+			simdTarget.put(k, 1);
+			Integer p = (i % 2 == 0) ? k : rnd.nextInt();
+			swissPartial.put(p, 1);
+			simdPartial.put(p, 1);
+		}
+	}
+
+	private static <M extends Map<Integer, Integer>> M mergeEntries(M target, Map<Integer, Integer> partial) {
+		for (Map.Entry<Integer, Integer> e : partial.entrySet()) target.merge(e.getKey(), e.getValue(), Integer::sum);
+		return target;
+	}
+
+	@Benchmark
+	public Object swissMergeLoop() {
+		return mergeEntries(swissTarget.clone(), swissPartial);
+	}
+
+	@Benchmark
+	public Object swissMergeAll() {
+		SwissMap<Integer, Integer> m = swissTarget.clone();
+		m.mergeAll(swissPartial, Integer::sum);
+		return m;
+	}
+
+	@Benchmark
+	public Object swissSimdMergeLoop() {
+		return mergeEntries(simdTarget.clone(), simdPartial);
+	}
+
+	@Benchmark
+	public Object swissSimdMergeAll() {
+		SwissSimdMap<Integer, Integer> m = simdTarget.clone();
+		m.mergeAll(simdPartial, Integer::sum);
+		return m;
+	}
+}
@@ -0,0 +1,74 @@
+package io.github.bluuewhale.hashsmith;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Small attribute-style maps, default {@link SwissMap} vs {@link SwissMap#TINY_LINEAR_SCAN}. {@code get} looks
+ * up every key once plus one absent key, with equal but not identical {@code String}s, so {@code equals} really
+ * compares; {@code put} builds a fresh map of {@link #size} entries, allocation included. The retained sizes
+ * are printed by {@code MapFootprintTest.printTinyFootprint}.
+ */
+@Fork(value = 1, jvmArgsAppend = { "--add-modules=jdk.incubator.vector" })
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class TinyMapBenchmark {
+
+	@Param({ "0", "1", "2", "4", "6", "8", "9", "12", "16" })
+	int size;
+
+	String[] keys;
+	String[] queries; // copies of keys, plus one absent key
+	SwissMap<String, Integer> swiss;
+	SwissMap<String, Integer> tiny;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		keys = new String[size];
+		queries = new String[size + 1];
+		for (int i = 0; i < size; i++) {
+			keys[i] = "attribute-" + i;
+			queries[i] = new String(keys[i]);
+		}
+		queries[size] = "absent";
+		swiss = fill(new SwissMap<>());
+		tiny = fill(new SwissMap<>(16, 0.875, SwissMap.TINY_LINEAR_SCAN));
+	}
+
+	private SwissMap<String, Integer> fill(SwissMap<String, Integer> m) {
+		for (int i = 0; i < size; i++) m.put(keys[i], i);
+		return m;
+	}
+
+	private int getAll(SwissMap<String, Integer> m) {
+		int found = 0;
+		for (String q : queries) {
+			if (m.get(q) != null) found++;
+		}
+		return found;
+	}
+
+	@Benchmark
+	public int swissGet() {
+		return getAll(swiss);
+	}
+
+	@Benchmark
+	public int tinyGet() {
+		return getAll(tiny);
+	}
+
+	@Benchmark
+	public Object swissPut() {
+		return fill(new SwissMap<>());
+	}
+
+	@Benchmark
+	public Object tinyPut() {
+		return fill(new SwissMap<>(16, 0.875, SwissMap.TINY_LINEAR_SCAN));
+	}
+}
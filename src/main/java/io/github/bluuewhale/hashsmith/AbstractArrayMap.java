@@ -1,7 +1,10 @@
 package io.github.bluuewhale.hashsmith;
 
 import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 
 /**
  * Shared array-backed Map boilerplate and utilities.
@@ -14,6 +17,10 @@ abstract class AbstractArrayMap<K, V> extends AbstractMap<K, V> {
 	protected double loadFactor;
 	// Fixed per-instance seed (do not re-randomize per iterator creation)
 	protected final long iterationSeed;
+	// Automatic shrinking: fraction of maxLoad below which removals halve the table (0 = disabled)
+	protected double shrinkThreshold;
+	// Capacity chosen at construction; automatic shrinking never goes below it
+	protected final int minCapacity;
 
 	protected AbstractArrayMap(int initialCapacity, double loadFactor) {
 		if (initialCapacity < 0) {
@@ -23,6 +30,7 @@ abstract class AbstractArrayMap<K, V> extends AbstractMap<K, V> {
 		this.loadFactor = loadFactor;
 		this.iterationSeed = ThreadLocalRandom.current().nextLong();
 		init(initialCapacity);
+		this.minCapacity = capacity;
 	}
 
 	@Override
@@ -46,9 +54,143 @@ abstract class AbstractArrayMap<K, V> extends AbstractMap<K, V> {
 		return (idx >= 0) ? valueAt(idx) : null;
 	}
 
+	/**
+	 * {@link #get} with a hash precomputed by {@link HashSmith#hash(Object)}, so one key can be looked up in
+	 * several maps while calling {@code hashCode()} once.
+	 */
+	public V getHashed(Object key, int hash) {
+		int idx = findIndex(requireKey(key), hash);
+		return (idx >= 0) ? valueAt(idx) : null;
+	}
+
+	/** {@link #containsKey} with a hash precomputed by {@link HashSmith#hash(Object)}. */
+	public boolean containsHashed(Object key, int hash) {
+		return findIndex(requireKey(key), hash) >= 0;
+	}
+
+	/** {@link #put} with a hash precomputed by {@link HashSmith#hash(Object)}. */
+	public abstract V putHashed(K key, V value, int hash);
+
+	/** {@link #remove} with a hash precomputed by {@link HashSmith#hash(Object)}. */
+	public abstract V removeHashed(Object key, int hash);
+
+	/**
+	 * Enables automatic shrinking: once a removal leaves {@code size < fraction * maxLoad}, the table is rehashed
+	 * to half its capacity (never below the capacity it was created with). {@code fraction} must be in
+	 * {@code [0, 0.25]}, so a halved table is at most about half full and has to gain or lose a large share of
+	 * its entries before it resizes again. {@code 0} (the default) disables shrinking.
+	 */
+	public void setShrinkThreshold(double fraction) {
+		Utils.validateShrinkThreshold(fraction);
+		this.shrinkThreshold = fraction;
+	}
+
+	/**
+	 * Rehashes into the smallest table that holds the current entries without growing on the next insert,
+	 * dropping tombstones. Useful after a burst of removals; an empty map releases its tables entirely when
+	 * the implementation allocates lazily.
+	 */
+	public abstract void trimToSize();
+
+	/**
+	 * Returns a cursor over the entries that allocates nothing per element, unlike {@code entrySet().iterator()}.
+	 */
+	public abstract MapCursor<K, V> cursor();
+
+	/*
+	 * equals/hashCode/diff walk the slots through a cursor instead of AbstractMap's entrySet() iteration (one
+	 * Map.Entry per element), and probe another HashSmith map once per key (findIndex + valueAt) instead of get
+	 * followed by containsKey.
+	 */
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) return true;
+		if (!(o instanceof Map<?, ?> m) || m.size() != size) return false;
+		try {
+			MapCursor<K, V> c = cursor();
+			if (m instanceof AbstractArrayMap<?, ?> other) {
+				while (c.advance()) {
+					int idx = other.findIndex(c.key());
+					if (idx < 0 || !Objects.equals(c.value(), other.valueAt(idx))) return false;
+				}
+			} else {
+				while (c.advance()) {
+					K key = c.key();
+					V value = c.value();
+					Object otherValue = m.get(key);
+					if (!Objects.equals(value, otherValue)) return false;
+					if (value == null && !m.containsKey(key)) return false;
+				}
+			}
+		} catch (ClassCastException | NullPointerException unused) {
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int h = 0;
+		MapCursor<K, V> c = cursor();
+		while (c.advance()) h += Objects.hashCode(c.key()) ^ Objects.hashCode(c.value());
+		return h;
+	}
+
+	/**
+	 * Reports how {@code other} differs from this map, key by key: keys only in {@code other} go to
+	 * {@code added}, keys only in this map to {@code removed}, and keys in both whose values are not
+	 * {@code equals} to {@code changed}. Nothing is allocated per entry when {@code other} is a HashSmith map,
+	 * and {@code other} is only walked when it holds keys this map lacks. Neither map may be modified while
+	 * the consumers run.
+	 */
+	public void diff(Map<? extends K, ? extends V> other, Consumer<? super K> added, Consumer<? super K> removed,
+			Consumer<? super K> changed) {
+		Objects.requireNonNull(added);
+		Objects.requireNonNull(removed);
+		Objects.requireNonNull(changed);
+		AbstractArrayMap<? extends K, ? extends V> arrayMap =
+			(other instanceof AbstractArrayMap<? extends K, ? extends V> a) ? a : null;
+		int common = 0;
+		MapCursor<K, V> c = cursor();
+		while (c.advance()) {
+			K key = c.key();
+			V value = c.value();
+			if (arrayMap != null) {
+				int idx = arrayMap.findIndex(key);
+				if (idx < 0) {
+					removed.accept(key);
+					continue;
+				}
+				if (!Objects.equals(value, arrayMap.valueAt(idx))) changed.accept(key);
+			} else {
+				Object otherValue = other.get(key);
+				if (otherValue == null && !other.containsKey(key)) {
+					removed.accept(key);
+					continue;
+				}
+				if (!Objects.equals(value, otherValue)) changed.accept(key);
+			}
+			common++;
+		}
+		if (common == other.size()) return; // every key of other was seen above
+		if (arrayMap != null) {
+			MapCursor<? extends K, ? extends V> oc = arrayMap.cursor();
+			while (oc.advance()) {
+				K key = oc.key();
+				if (findIndex(key) < 0) added.accept(key);
+			}
+		} else {
+			for (K key : other.keySet()) {
+				if (key == null || findIndex(key) < 0) added.accept(key); // null keys never occur here
+			}
+		}
+	}
+
 	/* Hooks for subclasses */
 	protected abstract void init(int initialCapacity);
 	protected abstract int findIndex(Object key);
+	protected abstract int findIndex(Object key, int hash); // key non-null, hash == HashSmith.hash(key)
 	protected abstract V valueAt(int idx);
 
 	/* Common utilities */
@@ -56,13 +198,26 @@ abstract class AbstractArrayMap<K, V> extends AbstractMap<K, V> {
 		return Utils.calcMaxLoad(cap, loadFactor);
 	}
 
+	/* Removal-side shrink check for the automatic shrink policy (see setShrinkThreshold). */
+	protected boolean shouldShrink() {
+		return shrinkThreshold > 0 && capacity > minCapacity && size < maxLoad * shrinkThreshold;
+	}
+
+	protected int capacityFor(int n, int minCap) {
+		return Utils.capacityFor(n, minCap, loadFactor);
+	}
+
 	protected int ceilPow2(int x) {
 		return Utils.ceilPow2(x);
 	}
 
 	protected int hashNonNull(Object key) {
+		return Hashing.smearedHash(requireKey(key));
+	}
+
+	protected static <T> T requireKey(T key) {
 		if (key == null) throw new NullPointerException("Null keys not supported");
-		return Hashing.smearedHash(key);
+		return key;
 	}
 
 	protected int hashNullable(Object key) {
@@ -0,0 +1,99 @@
+package io.github.bluuewhale.hashsmith;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Thread-local, byte-bounded {@link TableAllocator} (see {@link TableAllocator#threadLocalPool(long)}).
+ * Arrays are pooled by exact length: maps of one kind grow through the same table sizes, so exact-length
+ * buckets hit without wasting the tail of a larger array.
+ */
+final class ArrayPool implements TableAllocator {
+
+	private static final int REFERENCE_BYTES = 4; // compressed oops
+
+	private final long maxBytes;
+	private final ThreadLocal<Buckets> buckets = ThreadLocal.withInitial(Buckets::new);
+
+	ArrayPool(long maxBytesPerThread) {
+		if (maxBytesPerThread < 0) {
+			throw new IllegalArgumentException("maxBytesPerThread must be >= 0: " + maxBytesPerThread);
+		}
+		this.maxBytes = maxBytesPerThread;
+	}
+
+	/* One thread's pooled arrays, by exact length. */
+	private static final class Buckets {
+		final HashMap<Integer, ArrayDeque<long[]>> longs = new HashMap<>();
+		final HashMap<Integer, ArrayDeque<byte[]>> bytes = new HashMap<>();
+		final HashMap<Integer, ArrayDeque<Object[]>> objects = new HashMap<>();
+		long pooledBytes;
+
+		static <T> T poll(HashMap<Integer, ArrayDeque<T>> pool, int length) {
+			ArrayDeque<T> q = pool.get(length);
+			return (q == null) ? null : q.pollFirst();
+		}
+
+		static <T> void push(HashMap<Integer, ArrayDeque<T>> pool, int length, T array) {
+			pool.computeIfAbsent(length, l -> new ArrayDeque<>()).addFirst(array);
+		}
+	}
+
+	/* Reserves room for an array of the given size; false when pooling it would exceed the budget. */
+	private boolean reserve(Buckets b, long arrayBytes) {
+		if (b.pooledBytes + arrayBytes > maxBytes) return false;
+		b.pooledBytes += arrayBytes;
+		return true;
+	}
+
+	@Override
+	public long[] allocateLongs(int length) {
+		Buckets b = buckets.get();
+		long[] a = Buckets.poll(b.longs, length);
+		if (a == null) return new long[length];
+		b.pooledBytes -= (long) length * Long.BYTES;
+		return a;
+	}
+
+	@Override
+	public byte[] allocateBytes(int length) {
+		Buckets b = buckets.get();
+		byte[] a = Buckets.poll(b.bytes, length);
+		if (a == null) return new byte[length];
+		b.pooledBytes -= length;
+		return a;
+	}
+
+	@Override
+	public Object[] allocateObjects(int length) {
+		Buckets b = buckets.get();
+		Object[] a = Buckets.poll(b.objects, length);
+		if (a == null) return new Object[length];
+		b.pooledBytes -= (long) length * REFERENCE_BYTES;
+		return a;
+	}
+
+	@Override
+	public void release(long[] array) {
+		if (array.length == 0) return;
+		Buckets b = buckets.get();
+		if (reserve(b, (long) array.length * Long.BYTES)) Buckets.push(b.longs, array.length, array);
+	}
+
+	@Override
+	public void release(byte[] array) {
+		if (array.length == 0) return;
+		Buckets b = buckets.get();
+		if (reserve(b, array.length)) Buckets.push(b.bytes, array.length, array);
+	}
+
+	@Override
+	public void release(Object[] array) {
+		if (array.length == 0) return;
+		Buckets b = buckets.get();
+		if (!reserve(b, (long) array.length * REFERENCE_BYTES)) return;
+		Arrays.fill(array, null); // do not keep the previous owner's keys/values reachable
+		Buckets.push(b.objects, array.length, array);
+	}
+}
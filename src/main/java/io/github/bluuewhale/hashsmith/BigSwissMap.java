@@ -0,0 +1,538 @@
+package io.github.bluuewhale.hashsmith;
+
+import static io.github.bluuewhale.hashsmith.ChunkedTables.*;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
+
+/**
+ * {@link ChunkedSwissMap} for more than 2^31 entries: slots, sizes and capacities are {@code long}, the
+ * chunked {@code ctrl}/{@code keys}/{@code vals} arrays are addressed by a {@code long} slot index, and keys
+ * hash to 64 bits, so H1 keeps its entropy at any table size. Keys implementing {@link Hash64} supply the 64-bit
+ * hash themselves. Other keys widen their {@code hashCode()}, which works but gives billions of keys only 2^32
+ * distinct hashes.
+ *
+ * <pre>{@code
+ * var index = new BigSwissMap<Fingerprint, Long>(BigSwissMap.capacityFor(3_000_000_000L), 0.875);
+ * }</pre>
+ *
+ * <p>{@link #size()} saturates at {@code Integer.MAX_VALUE} as {@link Map} requires; {@link #mappingCount()}
+ * returns the exact count. Nothing is stored per slot besides the three chunked arrays, so a resize calls
+ * {@code hashCode()}/{@code hash64()} again for every entry; presize large maps. Null keys are not allowed; null
+ * values are.
+ */
+public class BigSwissMap<K, V> extends AbstractMap<K, V> {
+
+	/* Hash split: high 57 bits choose the group, low 7 bits are stored in the control byte */
+	private static final long H2_MASK = 0x7FL;
+
+	/* Largest table: a chunk spine is an array, so at most 2^30 chunks */
+	private static final long MAX_CAPACITY = 1L << (30 + CHUNK_SHIFT);
+
+	/* Load factor: similar to Abseil SwissTable (7/8) */
+	private static final double DEFAULT_LOAD_FACTOR = 0.875d;
+
+	/* Storage, as in ChunkedSwissMap (layout in ChunkedTables): chunk = (int) (slot >>> CHUNK_SHIFT) */
+	private long[][] ctrl;    // ctrl[chunk][group within chunk], 8 control bytes per long
+	private Object[][] keys;  // keys[chunk][offset]
+	private Object[][] vals;  // vals[chunk][offset]
+	private long capacity;
+	private long size;
+	private long tombstones;  // deleted slots
+	private long maxLoad;
+	private final double loadFactor;
+	private final long iterationSeed; // fixed per instance, like AbstractArrayMap
+
+	public BigSwissMap() {
+		this(16, DEFAULT_LOAD_FACTOR);
+	}
+
+	public BigSwissMap(long initialCapacity) {
+		this(initialCapacity, DEFAULT_LOAD_FACTOR);
+	}
+
+	public BigSwissMap(long initialCapacity, double loadFactor) {
+		if (initialCapacity < 0) {
+			throw new IllegalArgumentException("initialCapacity must be >= 0: " + initialCapacity);
+		}
+		Utils.validateLoadFactor(loadFactor);
+		this.loadFactor = loadFactor;
+		this.iterationSeed = ThreadLocalRandom.current().nextLong();
+		setCapacity(initialCapacity);
+		for (int c = 0; c < ctrl.length; c++) newChunk(c);
+	}
+
+	/**
+	 * Capacity that holds {@code expectedSize} entries at the default load factor without resizing, for the
+	 * constructor.
+	 */
+	public static long capacityFor(long expectedSize) {
+		if (expectedSize < 0) throw new IllegalArgumentException("expectedSize must be >= 0: " + expectedSize);
+		return (long) Math.ceil(expectedSize / DEFAULT_LOAD_FACTOR) + 1;
+	}
+
+	/* Rounds to a power-of-two number of groups and allocates the (empty) chunk spines for it. */
+	private void setCapacity(long desiredCapacity) {
+		if (desiredCapacity > MAX_CAPACITY) {
+			throw new IllegalStateException("capacity exceeds " + MAX_CAPACITY + " slots: " + desiredCapacity);
+		}
+		long nGroups = Math.max(1L, (Math.max(desiredCapacity, GROUP_SIZE) + GROUP_SIZE - 1) / GROUP_SIZE);
+		nGroups = (nGroups == 1) ? 1 : Long.highestOneBit(nGroups - 1) << 1;
+		this.capacity = nGroups * GROUP_SIZE;
+		this.maxLoad = Math.max(1L, Math.min((long) (capacity * loadFactor), capacity - 1));
+		int nChunks = (int) Math.max(1L, capacity >>> CHUNK_SHIFT);
+		this.ctrl = new long[nChunks][];
+		this.keys = new Object[nChunks][];
+		this.vals = new Object[nChunks][];
+	}
+
+	private void newChunk(int c) {
+		ChunkedTables.newChunk(ctrl, keys, vals, c, (int) Math.min(capacity, CHUNK_SLOTS));
+	}
+
+	/* Hash split helpers */
+	private static long h1(long hash) {
+		return hash >>> 7;
+	}
+
+	private static byte h2(long hash) {
+		return (byte) (hash & H2_MASK);
+	}
+
+	private static long hash(Object key) {
+		if (key == null) throw new NullPointerException("Null keys not supported");
+		return Hashing.smearedHash64(key);
+	}
+
+	private long groupWord(long g) {
+		return ChunkedTables.groupWord(ctrl, g);
+	}
+
+	private void setCtrlAt(long slot, byte value) {
+		ChunkedTables.setCtrlAt(ctrl, slot, value);
+	}
+
+	private void setEntryAt(long slot, Object key, Object value) {
+		ChunkedTables.setEntryAt(keys, vals, slot, key, value);
+	}
+
+	/* Resize/rehash */
+	private void maybeRehash() {
+		// Grow when over load; a same-size rehash drops tombstones once they outnumber half the entries.
+		if ((size + tombstones) >= maxLoad) {
+			rehash(capacity * 2);
+		} else if (tombstones > (size >>> 1)) {
+			rehash(capacity);
+		}
+	}
+
+	/**
+	 * Staged rehash (see {@link ChunkedSwissMap}): old chunks are drained in order, new chunks are allocated on
+	 * their first write and drained old chunks of the same length are cleared and reused as new ones.
+	 */
+	private void rehash(long newCapacity) {
+		long[][] oldCtrl = this.ctrl;
+		Object[][] oldKeys = this.keys;
+		Object[][] oldVals = this.vals;
+		setCapacity(newCapacity);
+		this.size = 0;
+		this.tombstones = 0;
+		var restage = new ChunkedTables.Restage(oldCtrl, oldKeys, oldVals, ctrl, keys, vals,
+			(int) Math.min(capacity, CHUNK_SLOTS));
+		for (int c = 0; c < oldCtrl.length; c++) {
+			long[] words = oldCtrl[c];
+			Object[] ks = oldKeys[c];
+			Object[] vs = oldVals[c];
+			for (int w = 0; w < words.length; w++) {
+				long full = ~words[w] & BITMASK_MSB;
+				while (full != 0) {
+					int off = (w << 3) + (Long.numberOfTrailingZeros(full) >>> 3);
+					full &= full - 1; // clear LSB
+					Object k = ks[off];
+					long h = hash(k);
+					long slot = firstNonFull(h);
+					restage.ensureChunk((int) (slot >>> CHUNK_SHIFT));
+					setEntryAt(slot, k, vs[off]);
+					setCtrlAt(slot, h2(h));
+					size++;
+				}
+			}
+			restage.retire(c);
+		}
+		restage.fillMissing();
+	}
+
+	/* First EMPTY or DELETED slot on the probe sequence of h; chunks not allocated yet read as all EMPTY. */
+	private long firstNonFull(long h) {
+		long mask = (capacity >>> 3) - 1; // group mask
+		long g = h1(h) & mask;
+		long step = 0;
+		for (;;) {
+			long[] words = ctrl[(int) (g >>> GROUP_SHIFT)];
+			long word = (words == null) ? EMPTY_WORD : words[(int) g & GROUP_MASK];
+			int freeMask = eqMask(word, EMPTY) | eqMask(word, DELETED);
+			if (freeMask != 0) return (g << 3) + Integer.numberOfTrailingZeros(freeMask);
+			g = (g + (++step)) & mask; // triangular (quadratic) probing over groups
+		}
+	}
+
+	/**
+	 * Number of entries, which unlike {@link #size()} may exceed {@code Integer.MAX_VALUE}.
+	 */
+	public long mappingCount() {
+		return size;
+	}
+
+	@Override
+	public int size() {
+		return (int) Math.min(size, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return findSlot(key, hash(key)) >= 0;
+	}
+
+	@Override
+	public V get(Object key) {
+		long slot = findSlot(key, hash(key));
+		return (slot >= 0) ? valueAt(slot) : null;
+	}
+
+	@Override
+	public V put(K key, V value) {
+		long hash = hash(key);
+		maybeRehash();
+		byte h2 = h2(hash);
+		long[][] ctrl = this.ctrl; // local snapshot
+		Object[][] keys = this.keys; // local snapshot
+		long mask = (capacity >>> 3) - 1; // group mask
+		long g = h1(hash) & mask;
+		long step = 0;
+		long firstTombstone = -1;
+		for (;;) {
+			int c = (int) (g >>> GROUP_SHIFT);
+			long word = ctrl[c][(int) g & GROUP_MASK];
+			int eqMask = eqMask(word, h2);
+			while (eqMask != 0) {
+				long slot = (g << 3) + Integer.numberOfTrailingZeros(eqMask);
+				Object k = keys[c][(int) slot & SLOT_MASK];
+				if (k == key || k.equals(key)) {
+					Object[] vs = vals[c];
+					V old = castValue(vs[(int) slot & SLOT_MASK]);
+					vs[(int) slot & SLOT_MASK] = value;
+					return old;
+				}
+				eqMask &= eqMask - 1; // clear LSB
+			}
+			if (firstTombstone < 0) {
+				int delMask = eqMask(word, DELETED);
+				if (delMask != 0) firstTombstone = (g << 3) + Integer.numberOfTrailingZeros(delMask);
+			}
+			int emptyMask = eqMask(word, EMPTY);
+			if (emptyMask != 0) {
+				long slot = (firstTombstone >= 0) ? firstTombstone : (g << 3) + Integer.numberOfTrailingZeros(emptyMask);
+				if (slot == firstTombstone) tombstones--;
+				setEntryAt(slot, key, value);
+				setCtrlAt(slot, h2);
+				size++;
+				return null;
+			}
+			g = (g + (++step)) & mask; // triangular (quadratic) probing over groups
+		}
+	}
+
+	@Override
+	public V remove(Object key) {
+		long slot = findSlot(key, hash(key));
+		if (slot < 0) return null;
+		V old = valueAt(slot);
+		eraseAt(slot);
+		return old;
+	}
+
+	/* Aligned probing: a group that still has an EMPTY slot has never been probed through, so EMPTY suffices. */
+	private void eraseAt(long slot) {
+		byte tag = eqMask(groupWord(slot >>> 3), EMPTY) != 0 ? EMPTY : DELETED;
+		setCtrlAt(slot, tag);
+		setEntryAt(slot, null, null);
+		size--;
+		if (tag == DELETED) tombstones++;
+	}
+
+	/**
+	 * Rehashes into the smallest table that holds the current entries without growing on the next insert,
+	 * dropping tombstones.
+	 */
+	public void trimToSize() {
+		long target = GROUP_SIZE;
+		while (Math.min((long) (target * loadFactor), target - 1) <= size) target <<= 1;
+		if (target < capacity) {
+			rehash(target);
+		} else if (tombstones > 0) {
+			rehash(capacity);
+		}
+	}
+
+	@Override
+	public void clear() {
+		if (size == 0 && tombstones == 0) return;
+		ChunkedTables.clear(ctrl, keys, vals);
+		size = 0;
+		tombstones = 0;
+	}
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		return new EntrySet();
+	}
+
+	/**
+	 * Returns a cursor over the entries that allocates nothing per element. Entries are visited in the same
+	 * randomized order as the iterators.
+	 */
+	public MapCursor<K, V> cursor() {
+		return new Cursor();
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		Objects.requireNonNull(action);
+		if (size == 0) return;
+		RandomCycle cycle = new RandomCycle(ctrl.length, iterationSeed); // same chunk order as the iterators
+		for (int i = 0; i < ctrl.length; i++) {
+			int c = cycle.indexAt(i);
+			long[] words = ctrl[c];
+			Object[] ks = keys[c];
+			Object[] vs = vals[c];
+			for (int w = 0; w < words.length; w++) {
+				long full = ~words[w] & BITMASK_MSB;
+				while (full != 0) {
+					int off = (w << 3) + (Long.numberOfTrailingZeros(full) >>> 3);
+					action.accept(castKey(ks[off]), castValue(vs[off]));
+					full &= full - 1; // clear LSB
+				}
+			}
+		}
+	}
+
+	/* Slot holding key (non-null, hash == hash(key)), or -1. */
+	private long findSlot(Object key, long hash) {
+		if (size == 0) return -1;
+		byte h2 = h2(hash);
+		long[][] ctrl = this.ctrl; // local snapshot
+		Object[][] keys = this.keys; // local snapshot
+		long mask = (capacity >>> 3) - 1; // group mask
+		long g = h1(hash) & mask;
+		long step = 0;
+		for (;;) {
+			int c = (int) (g >>> GROUP_SHIFT);
+			long word = ctrl[c][(int) g & GROUP_MASK];
+			int eqMask = eqMask(word, h2);
+			while (eqMask != 0) {
+				long slot = (g << 3) + Integer.numberOfTrailingZeros(eqMask);
+				Object k = keys[c][(int) slot & SLOT_MASK];
+				if (k == key || k.equals(key)) return slot;
+				eqMask &= eqMask - 1; // clear LSB
+			}
+			if (eqMask(word, EMPTY) != 0) return -1;
+			g = (g + (++step)) & mask; // triangular (quadratic) probing over groups
+		}
+	}
+
+	private K keyAt(long slot) {
+		return castKey(keys[(int) (slot >>> CHUNK_SHIFT)][(int) slot & SLOT_MASK]);
+	}
+
+	private V valueAt(long slot) {
+		return castValue(vals[(int) (slot >>> CHUNK_SHIFT)][(int) slot & SLOT_MASK]);
+	}
+
+	private V setValueAt(long slot, V value) {
+		Object[] vs = vals[(int) (slot >>> CHUNK_SHIFT)];
+		V old = castValue(vs[(int) slot & SLOT_MASK]);
+		vs[(int) slot & SLOT_MASK] = value;
+		return old;
+	}
+
+	@SuppressWarnings("unchecked")
+	private K castKey(Object key) {
+		return (K) key;
+	}
+
+	@SuppressWarnings("unchecked")
+	private V castValue(Object value) {
+		return (V) value;
+	}
+
+	/* Chunk visit order; the chunk count is a power of two. */
+	private static final class RandomCycle extends Utils.RandomCycle {
+		RandomCycle(int capacity, long seed) { super(capacity, seed); }
+	}
+
+	/**
+	 * Walks the FULL slots a ctrl word at a time. Only the chunk visit order is randomized (per instance, via
+	 * {@code iterationSeed}); groups within a chunk are visited in order.
+	 */
+	private abstract class SlotWalk {
+		private final RandomCycle cycle;
+		private final int nChunks;
+		private int iter = 0;
+		private int chunk = -1;
+		private int word;   // next ctrl word of the current chunk
+		private long base;  // first slot of the current group
+		private long full;  // MSB-per-lane mask of the current group's FULL slots not yet visited
+
+		SlotWalk() {
+			this.nChunks = (size > 0) ? ctrl.length : 0;
+			this.cycle = new RandomCycle(ctrl.length, iterationSeed);
+		}
+
+		/* Next FULL slot, or -1 once every chunk has been visited. */
+		final long nextSlot() {
+			while (full == 0) {
+				if (chunk < 0 || word == ctrl[chunk].length) {
+					if (iter >= nChunks) return -1;
+					chunk = cycle.indexAt(iter++);
+					word = 0;
+				}
+				base = ((long) chunk << CHUNK_SHIFT) + (word << 3);
+				full = ~ctrl[chunk][word++] & BITMASK_MSB;
+			}
+			long slot = base + (Long.numberOfTrailingZeros(full) >>> 3);
+			full &= full - 1; // clear LSB
+			return slot;
+		}
+	}
+
+	/* ------------ EntrySet / Iterator ------------ */
+
+	private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+		@Override
+		public int size() {
+			return BigSwissMap.this.size();
+		}
+
+		@Override
+		public void clear() {
+			BigSwissMap.this.clear();
+		}
+
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator() {
+			return new EntryIterator();
+		}
+	}
+
+	private final class EntryIterator extends SlotWalk implements Iterator<Map.Entry<K, V>> {
+		private long next = nextSlot();
+		private long last = -1;
+
+		@Override
+		public boolean hasNext() {
+			return next >= 0;
+		}
+
+		@Override
+		public Map.Entry<K, V> next() {
+			if (next < 0) throw new NoSuchElementException();
+			last = next;
+			next = nextSlot();
+			return new EntryRef(last);
+		}
+
+		@Override
+		public void remove() {
+			if (last < 0) throw new IllegalStateException();
+			eraseAt(last);
+			last = -1;
+		}
+	}
+
+	private final class Cursor extends SlotWalk implements MapCursor<K, V> {
+		private long slot = -1;
+
+		@Override
+		public boolean advance() {
+			slot = nextSlot();
+			return slot >= 0;
+		}
+
+		private long current() {
+			if (slot < 0) throw new IllegalStateException("cursor is not positioned on an entry");
+			return slot;
+		}
+
+		@Override
+		public K key() {
+			return keyAt(current());
+		}
+
+		@Override
+		public V value() {
+			return valueAt(current());
+		}
+
+		@Override
+		public V setValue(V value) {
+			return setValueAt(current(), value);
+		}
+
+		@Override
+		public void remove() {
+			eraseAt(current());
+			slot = -1;
+		}
+	}
+
+	private final class EntryRef implements Map.Entry<K, V> {
+		private final long slot;
+
+		EntryRef(long slot) {
+			this.slot = slot;
+		}
+
+		@Override
+		public K getKey() {
+			return keyAt(slot);
+		}
+
+		@Override
+		public V getValue() {
+			return valueAt(slot);
+		}
+
+		@Override
+		public V setValue(V value) {
+			return setValueAt(slot, value);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Map.Entry<?, ?> e)) return false;
+			return Objects.equals(getKey(), e.getKey()) && Objects.equals(getValue(), e.getValue());
+		}
+
+		@Override
+		public String toString() {
+			return getKey() + "=" + getValue();
+		}
+	}
+}
@@ -0,0 +1,474 @@
+package io.github.bluuewhale.hashsmith;
+
+import static io.github.bluuewhale.hashsmith.ChunkedTables.*;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * {@link SwissMap} layout (SWAR ctrl words, 8-slot groups, group-aligned triangular probing) on chunked
+ * storage: {@code ctrl}, {@code keys} and {@code vals} are split into chunks of 65536 (64K) slots
+ * addressed by shift/mask, so no single array grows past 512 KB (256 KB with compressed oops) however large the
+ * map gets. Under G1 that keeps big tables out of humongous regions, which are allocated straight in the old
+ * generation, fragment the heap and can force early full GCs.
+ *
+ * <p>A resize re-places the entries old chunk by old chunk and allocates each new chunk on its first write. A
+ * drained old chunk of the same size is cleared and becomes the next new chunk, so growing peaks at about the
+ * size of the new table instead of old plus new.
+ *
+ * <p>Null keys are not allowed; null values are. Every access pays one extra dependent load (the chunk)
+ * compared with {@code SwissMap}; prefer {@code SwissMap} for tables that stay below a few million slots.
+ */
+public class ChunkedSwissMap<K, V> extends AbstractArrayMap<K, V> {
+
+	/* Hash split masks: high bits choose group, low 7 bits stored in control byte */
+	private static final int H1_MASK = 0xFFFFFF80;
+	private static final int H2_MASK = 0x0000007F;
+
+	/* Load factor: similar to Abseil SwissTable (7/8) */
+	private static final double DEFAULT_LOAD_FACTOR = 0.875d;
+
+	/* Storage (layout and chunk sizing in ChunkedTables): chunk = slot >>> CHUNK_SHIFT, offset = slot & SLOT_MASK (tables below one chunk use a single short chunk) */
+	private long[][] ctrl;    // ctrl[chunk][group within chunk], 8 control bytes per long
+	private Object[][] keys;  // keys[chunk][offset]
+	private Object[][] vals;  // vals[chunk][offset]
+	private int tombstones;   // deleted slots
+
+	public ChunkedSwissMap() {
+		this(16, DEFAULT_LOAD_FACTOR);
+	}
+
+	public ChunkedSwissMap(int initialCapacity) {
+		this(initialCapacity, DEFAULT_LOAD_FACTOR);
+	}
+
+	public ChunkedSwissMap(int initialCapacity, double loadFactor) {
+		super(initialCapacity, loadFactor);
+	}
+
+	@Override
+	protected void init(int desiredCapacity) {
+		setCapacity(desiredCapacity);
+		for (int c = 0; c < ctrl.length; c++) newChunk(c);
+		this.size = 0;
+		this.tombstones = 0;
+	}
+
+	/* Rounds to a power-of-two number of groups and allocates the (empty) chunk spines for it. */
+	private void setCapacity(int desiredCapacity) {
+		int nGroups = ceilPow2(Math.max(1, (Math.max(desiredCapacity, GROUP_SIZE) + GROUP_SIZE - 1) / GROUP_SIZE));
+		this.capacity = nGroups * GROUP_SIZE;
+		this.maxLoad = calcMaxLoad(capacity);
+		int nChunks = Math.max(1, capacity >>> CHUNK_SHIFT);
+		this.ctrl = new long[nChunks][];
+		this.keys = new Object[nChunks][];
+		this.vals = new Object[nChunks][];
+	}
+
+	private void newChunk(int c) {
+		ChunkedTables.newChunk(ctrl, keys, vals, c, Math.min(capacity, CHUNK_SLOTS));
+	}
+
+	/* Hash split helpers */
+	private int h1(int hash) {
+		return (hash & H1_MASK) >>> 7;
+	}
+
+	private byte h2(int hash) {
+		return (byte) (hash & H2_MASK);
+	}
+
+	private int hash(Object key) {
+		return hashNonNull(key);
+	}
+
+	private long groupWord(int g) {
+		return ChunkedTables.groupWord(ctrl, g);
+	}
+
+	private void setCtrlAt(int slot, byte value) {
+		ChunkedTables.setCtrlAt(ctrl, slot, value);
+	}
+
+	private void setEntryAt(int slot, Object key, Object value) {
+		ChunkedTables.setEntryAt(keys, vals, slot, key, value);
+	}
+
+	/* Resize/rehash */
+	private void maybeRehash() {
+		// Grow when over load; a same-size rehash drops tombstones once they outnumber half the entries.
+		if ((size + tombstones) >= maxLoad) {
+			rehash(capacity * 2);
+		} else if (tombstones > (size >>> 1)) {
+			rehash(capacity);
+		}
+	}
+
+	/**
+	 * Staged rehash: old chunks are drained in order and new chunks are allocated on their first write (a probe
+	 * reads a missing chunk as all EMPTY); {@link ChunkedTables.Restage} recycles drained chunks. Doubling sends the entries of old chunk {@code c} to new chunks {@code c} and {@code c + oldChunks}, so new
+	 * chunks fill up roughly as fast as old ones drain.
+	 */
+	private void rehash(int newCapacity) {
+		long[][] oldCtrl = this.ctrl;
+		Object[][] oldKeys = this.keys;
+		Object[][] oldVals = this.vals;
+		setCapacity(newCapacity);
+		this.size = 0;
+		this.tombstones = 0;
+		var restage = new ChunkedTables.Restage(oldCtrl, oldKeys, oldVals, ctrl, keys, vals,
+			Math.min(capacity, CHUNK_SLOTS));
+		for (int c = 0; c < oldCtrl.length; c++) {
+			long[] words = oldCtrl[c];
+			Object[] ks = oldKeys[c];
+			Object[] vs = oldVals[c];
+			for (int w = 0; w < words.length; w++) {
+				long full = ~words[w] & BITMASK_MSB;
+				while (full != 0) {
+					int off = (w << 3) + (Long.numberOfTrailingZeros(full) >>> 3);
+					full &= full - 1; // clear LSB
+					Object k = ks[off];
+					int h = hash(k);
+					int slot = firstNonFull(h);
+					restage.ensureChunk(slot >>> CHUNK_SHIFT);
+					setEntryAt(slot, k, vs[off]);
+					setCtrlAt(slot, h2(h));
+					size++;
+				}
+			}
+			restage.retire(c);
+		}
+		restage.fillMissing();
+	}
+
+	/* First EMPTY or DELETED slot on the probe sequence of h; chunks not allocated yet read as all EMPTY. */
+	private int firstNonFull(int h) {
+		int mask = (capacity >>> 3) - 1; // group mask
+		int g = h1(h) & mask;
+		int step = 0;
+		for (;;) {
+			long[] words = ctrl[g >>> GROUP_SHIFT];
+			long word = (words == null) ? EMPTY_WORD : words[g & GROUP_MASK];
+			int freeMask = eqMask(word, EMPTY) | eqMask(word, DELETED);
+			if (freeMask != 0) return (g << 3) + Integer.numberOfTrailingZeros(freeMask);
+			g = (g + (++step)) & mask; // triangular (quadratic) probing over groups
+		}
+	}
+
+	@Override
+	public V put(K key, V value) {
+		return putHashed(key, value, hash(key));
+	}
+
+	@Override
+	public V putHashed(K key, V value, int hash) {
+		requireKey(key);
+		maybeRehash();
+		byte h2 = h2(hash);
+		long[][] ctrl = this.ctrl; // local snapshot
+		Object[][] keys = this.keys; // local snapshot
+		int mask = (capacity >>> 3) - 1; // group mask
+		int g = h1(hash) & mask;
+		int step = 0;
+		int firstTombstone = -1;
+		for (;;) {
+			int c = g >>> GROUP_SHIFT;
+			long word = ctrl[c][g & GROUP_MASK];
+			int eqMask = eqMask(word, h2);
+			while (eqMask != 0) {
+				int slot = (g << 3) + Integer.numberOfTrailingZeros(eqMask);
+				Object k = keys[c][slot & SLOT_MASK];
+				if (k == key || k.equals(key)) {
+					Object[] vs = vals[c];
+					V old = castValue(vs[slot & SLOT_MASK]);
+					vs[slot & SLOT_MASK] = value;
+					return old;
+				}
+				eqMask &= eqMask - 1; // clear LSB
+			}
+			if (firstTombstone < 0) {
+				int delMask = eqMask(word, DELETED);
+				if (delMask != 0) firstTombstone = (g << 3) + Integer.numberOfTrailingZeros(delMask);
+			}
+			int emptyMask = eqMask(word, EMPTY);
+			if (emptyMask != 0) {
+				int slot = (firstTombstone >= 0) ? firstTombstone : (g << 3) + Integer.numberOfTrailingZeros(emptyMask);
+				if (slot == firstTombstone) tombstones--;
+				setEntryAt(slot, key, value);
+				setCtrlAt(slot, h2);
+				size++;
+				return null;
+			}
+			g = (g + (++step)) & mask; // triangular (quadratic) probing over groups
+		}
+	}
+
+	@Override
+	public V remove(Object key) {
+		return removeHashed(key, hash(key));
+	}
+
+	@Override
+	public V removeHashed(Object key, int hash) {
+		int slot = findIndex(requireKey(key), hash);
+		if (slot < 0) return null;
+		V old = valueAt(slot);
+		eraseAt(slot);
+		if (shouldShrink()) rehash(capacity >>> 1);
+		return old;
+	}
+
+	/* Aligned probing: a group that still has an EMPTY slot has never been probed through, so EMPTY suffices. */
+	private void eraseAt(int slot) {
+		byte tag = eqMask(groupWord(slot >>> 3), EMPTY) != 0 ? EMPTY : DELETED;
+		setCtrlAt(slot, tag);
+		setEntryAt(slot, null, null);
+		size--;
+		if (tag == DELETED) tombstones++;
+	}
+
+	@Override
+	public void trimToSize() {
+		int target = capacityFor(size, GROUP_SIZE);
+		if (target < capacity) {
+			rehash(target);
+		} else if (tombstones > 0) {
+			rehash(capacity);
+		}
+	}
+
+	@Override
+	public void clear() {
+		if (size == 0 && tombstones == 0) return;
+		ChunkedTables.clear(ctrl, keys, vals);
+		size = 0;
+		tombstones = 0;
+	}
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		return new EntrySet();
+	}
+
+	/**
+	 * Entries are visited in the same randomized order as the iterators.
+	 */
+	@Override
+	public MapCursor<K, V> cursor() {
+		return new Cursor();
+	}
+
+	/* lookup utilities */
+	@Override
+	protected int findIndex(Object key) {
+		return findIndex(key, hash(key));
+	}
+
+	@Override
+	protected int findIndex(Object key, int hash) {
+		if (size == 0) return -1;
+		byte h2 = h2(hash);
+		long[][] ctrl = this.ctrl; // local snapshot
+		Object[][] keys = this.keys; // local snapshot
+		int mask = (capacity >>> 3) - 1; // group mask
+		int g = h1(hash) & mask;
+		int step = 0;
+		for (;;) {
+			int c = g >>> GROUP_SHIFT;
+			long word = ctrl[c][g & GROUP_MASK];
+			int eqMask = eqMask(word, h2);
+			while (eqMask != 0) {
+				int slot = (g << 3) + Integer.numberOfTrailingZeros(eqMask);
+				Object k = keys[c][slot & SLOT_MASK];
+				if (k == key || k.equals(key)) return slot;
+				eqMask &= eqMask - 1; // clear LSB
+			}
+			if (eqMask(word, EMPTY) != 0) return -1;
+			g = (g + (++step)) & mask; // triangular (quadratic) probing over groups
+		}
+	}
+
+	private K keyAt(int slot) {
+		return castKey(keys[slot >>> CHUNK_SHIFT][slot & SLOT_MASK]);
+	}
+
+	@Override
+	protected V valueAt(int slot) {
+		return castValue(vals[slot >>> CHUNK_SHIFT][slot & SLOT_MASK]);
+	}
+
+	private V setValueAt(int slot, V value) {
+		Object[] vs = vals[slot >>> CHUNK_SHIFT];
+		V old = castValue(vs[slot & SLOT_MASK]);
+		vs[slot & SLOT_MASK] = value;
+		return old;
+	}
+
+	@SuppressWarnings("unchecked")
+	private K castKey(Object key) {
+		return (K) key;
+	}
+
+	@SuppressWarnings("unchecked")
+	private V castValue(Object value) {
+		return (V) value;
+	}
+
+	/**
+	 * Walks the FULL slots a ctrl word at a time, visiting groups in a per-instance randomized order (see
+	 * {@code SwissMap}).
+	 */
+	private abstract class SlotWalk {
+		private final int start;
+		private final int step;
+		private final int mask;
+		private final int nGroups;
+		private int iter = 0;
+		private int base;   // first slot of the current group
+		private long full;  // MSB-per-lane mask of the current group's FULL slots not yet visited
+
+		SlotWalk() {
+			this.nGroups = (size > 0) ? capacity >>> 3 : 0;
+			RandomCycle cycle = new RandomCycle(Math.max(nGroups, 1), iterationSeed);
+			this.start = cycle.start;
+			this.step = cycle.step;
+			this.mask = cycle.mask;
+		}
+
+		/* Next FULL slot, or -1 once every group has been visited. */
+		final int nextSlot() {
+			while (full == 0) {
+				if (iter >= nGroups) return -1;
+				int g = (start + (iter++ * step)) & mask;
+				base = g << 3;
+				full = ~groupWord(g) & BITMASK_MSB;
+			}
+			int slot = base + (Long.numberOfTrailingZeros(full) >>> 3);
+			full &= full - 1; // clear LSB
+			return slot;
+		}
+	}
+
+	/* ------------ EntrySet / Iterator ------------ */
+
+	private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+		@Override
+		public int size() {
+			return ChunkedSwissMap.this.size;
+		}
+
+		@Override
+		public void clear() {
+			ChunkedSwissMap.this.clear();
+		}
+
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator() {
+			return new EntryIterator();
+		}
+	}
+
+	private final class EntryIterator extends SlotWalk implements Iterator<Map.Entry<K, V>> {
+		private int next = nextSlot();
+		private int last = -1;
+
+		@Override
+		public boolean hasNext() {
+			return next >= 0;
+		}
+
+		@Override
+		public Map.Entry<K, V> next() {
+			if (next < 0) throw new NoSuchElementException();
+			last = next;
+			next = nextSlot();
+			return new EntryRef(last);
+		}
+
+		@Override
+		public void remove() {
+			if (last < 0) throw new IllegalStateException();
+			eraseAt(last); // no shrink: entries must stay where the iterator expects them
+			last = -1;
+		}
+	}
+
+	private final class Cursor extends SlotWalk implements MapCursor<K, V> {
+		private int slot = -1;
+
+		@Override
+		public boolean advance() {
+			slot = nextSlot();
+			return slot >= 0;
+		}
+
+		private int current() {
+			if (slot < 0) throw new IllegalStateException("cursor is not positioned on an entry");
+			return slot;
+		}
+
+		@Override
+		public K key() {
+			return keyAt(current());
+		}
+
+		@Override
+		public V value() {
+			return valueAt(current());
+		}
+
+		@Override
+		public V setValue(V value) {
+			return setValueAt(current(), value);
+		}
+
+		@Override
+		public void remove() {
+			eraseAt(current()); // no rehash: entries must stay where the cursor expects them
+			slot = -1;
+		}
+	}
+
+	private final class EntryRef implements Map.Entry<K, V> {
+		private final int slot;
+
+		EntryRef(int slot) {
+			this.slot = slot;
+		}
+
+		@Override
+		public K getKey() {
+			return keyAt(slot);
+		}
+
+		@Override
+		public V getValue() {
+			return valueAt(slot);
+		}
+
+		@Override
+		public V setValue(V value) {
+			return setValueAt(slot, value);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Map.Entry<?, ?> e)) return false;
+			return Objects.equals(getKey(), e.getKey()) && Objects.equals(getValue(), e.getValue());
+		}
+
+		@Override
+		public String toString() {
+			return getKey() + "=" + getValue();
+		}
+	}
+}
@@ -0,0 +1,142 @@
+package io.github.bluuewhale.hashsmith;
+
+import java.util.Arrays;
+
+/**
+ * Chunked SWAR table storage shared by {@link ChunkedSwissMap} ({@code int} slots) and {@link BigSwissMap}
+ * ({@code long} slots): ctrl/keys/vals chunk spines, control byte layout and the chunk recycling of a staged
+ * rehash. Slots are taken as {@code long}; {@code int} slots widen without changing their chunk or offset. The
+ * probe loops stay in the maps, where the slot type decides the arithmetic.
+ */
+final class ChunkedTables {
+	private ChunkedTables() {}
+
+	/* Control byte values */
+	static final byte EMPTY = (byte) 0x80;    // empty slot
+	static final byte DELETED = (byte) 0xFE;  // tombstone
+
+	/* Group sizing: SWAR fixed at 8 slots (1 word) */
+	static final int GROUP_SIZE = 8;
+
+	/* Chunk sizing: 64K slots per chunk (8K ctrl words); G1 regions are at least 1 MB, humongous from half a region */
+	static final int CHUNK_SHIFT = 16;
+	static final int CHUNK_SLOTS = 1 << CHUNK_SHIFT;
+	static final int SLOT_MASK = CHUNK_SLOTS - 1;
+	static final int GROUP_SHIFT = CHUNK_SHIFT - 3;     // log2(groups per chunk)
+	static final int GROUP_MASK = (1 << GROUP_SHIFT) - 1;
+
+	/* SWAR constants */
+	private static final long BITMASK_LSB = 0x0101010101010101L;
+	static final long BITMASK_MSB = 0x8080808080808080L;
+	static final long EMPTY_WORD = BITMASK_MSB; // EMPTY in every lane
+
+	/* SWAR helpers */
+	private static long broadcast(byte b) {
+		return (b & 0xFFL) * BITMASK_LSB;
+	}
+
+	/* Compare bytes in word against b; return packed 8-bit mask of matches (see SwissMap#eqMask). */
+	static int eqMask(long word, byte b) {
+		long x = word ^ broadcast(b);
+		long m = (((x >>> 1) | BITMASK_MSB) - x) & BITMASK_MSB;
+		return (int) ((m * 0x0204_0810_2040_81L) >>> 56);
+	}
+
+	/* Chunk storage: chunk = slot >>> CHUNK_SHIFT, offset = slot & SLOT_MASK */
+	static void newChunk(long[][] ctrl, Object[][] keys, Object[][] vals, int c, int slots) {
+		long[] words = new long[slots >>> 3];
+		Arrays.fill(words, EMPTY_WORD);
+		ctrl[c] = words;
+		keys[c] = new Object[slots];
+		vals[c] = new Object[slots];
+	}
+
+	static long groupWord(long[][] ctrl, long g) {
+		return ctrl[(int) (g >>> GROUP_SHIFT)][(int) g & GROUP_MASK];
+	}
+
+	static void setCtrlAt(long[][] ctrl, long slot, byte value) {
+		long[] words = ctrl[(int) (slot >>> CHUNK_SHIFT)];
+		int w = ((int) slot & SLOT_MASK) >>> 3;
+		int shift = ((int) slot & 7) << 3;
+		words[w] = (words[w] & ~(0xFFL << shift)) | ((value & 0xFFL) << shift);
+	}
+
+	static void setEntryAt(Object[][] keys, Object[][] vals, long slot, Object key, Object value) {
+		int c = (int) (slot >>> CHUNK_SHIFT);
+		int off = (int) slot & SLOT_MASK;
+		keys[c][off] = key;
+		vals[c][off] = value;
+	}
+
+	static void clear(long[][] ctrl, Object[][] keys, Object[][] vals) {
+		for (int c = 0; c < ctrl.length; c++) {
+			Arrays.fill(ctrl[c], EMPTY_WORD);
+			Arrays.fill(keys[c], null);
+			Arrays.fill(vals[c], null);
+		}
+	}
+
+	/**
+	 * Chunk bookkeeping of one staged rehash. The map drains the old chunks in order, calls {@link #ensureChunk}
+	 * before each write into the new spines and {@link #retire} after each drained old chunk, then
+	 * {@link #fillMissing}. When old and new chunks have the same length, a retired chunk is cleared and handed
+	 * to the next new chunk that needs one; otherwise it is dropped for the GC right away.
+	 */
+	static final class Restage {
+		private final long[][] oldCtrl;
+		private final Object[][] oldKeys;
+		private final Object[][] oldVals;
+		private final long[][] ctrl;
+		private final Object[][] keys;
+		private final Object[][] vals;
+		private final int slots;     // length of a new chunk
+		private final boolean reuse; // old and new chunks have the same length
+		private int spareFrom = 0;   // retired old chunks [spareFrom, spareTo) are cleared and free to reuse
+		private int spareTo = 0;
+
+		Restage(long[][] oldCtrl, Object[][] oldKeys, Object[][] oldVals,
+				long[][] ctrl, Object[][] keys, Object[][] vals, int slots) {
+			this.oldCtrl = oldCtrl;
+			this.oldKeys = oldKeys;
+			this.oldVals = oldVals;
+			this.ctrl = ctrl;
+			this.keys = keys;
+			this.vals = vals;
+			this.slots = slots;
+			this.reuse = oldCtrl[0].length == (CHUNK_SLOTS >>> 3) && slots == CHUNK_SLOTS;
+		}
+
+		/* Gives new chunk nc its arrays on its first write: a retired old chunk if one is spare, else fresh ones. */
+		void ensureChunk(int nc) {
+			if (ctrl[nc] != null) return;
+			if (spareFrom < spareTo) {
+				ctrl[nc] = oldCtrl[spareFrom];
+				keys[nc] = oldKeys[spareFrom];
+				vals[nc] = oldVals[spareFrom];
+				spareFrom++;
+			} else {
+				newChunk(ctrl, keys, vals, nc, slots);
+			}
+		}
+
+		/* Old chunk c has been drained. */
+		void retire(int c) {
+			if (reuse) {
+				Arrays.fill(oldCtrl[c], EMPTY_WORD);
+				Arrays.fill(oldKeys[c], null);
+				Arrays.fill(oldVals[c], null);
+				spareTo = c + 1;
+			} else {
+				oldCtrl[c] = null;
+				oldKeys[c] = null;
+				oldVals[c] = null;
+			}
+		}
+
+		/* Allocates (or recycles) the new chunks no entry was written to. */
+		void fillMissing() {
+			for (int nc = 0; nc < ctrl.length; nc++) ensureChunk(nc);
+		}
+	}
+}
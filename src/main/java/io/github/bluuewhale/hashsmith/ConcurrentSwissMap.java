@@ -9,6 +9,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.StampedLock;
 import java.util.function.BiConsumer;
@@ -20,7 +21,10 @@ import java.util.function.Function;
  *
  * <p>Concurrency model:
  * <ul>
- *   <li><b>Shard selection</b>: choose a shard by the high bits of {@code Hashing.smearedHash(key)}.</li>
+ *   <li><b>Shard selection</b>: choose a shard by the high bits of {@code Hashing.smearedHash(key)} (or of the
+ *   {@link HashingStrategy} hash, which the shards then use as well), remixed under a random per-instance
+ *   seed so that crafted keys cannot pile into one shard. Each shard guards its own probe chains against hash
+ *   flooding (see {@link SwissMap}).</li>
  *   <li><b>Reads</b>: {@link StampedLock#tryOptimisticRead()} first, fallback to {@code readLock()}.</li>
  *   <li><b>Writes</b>: {@code writeLock()} per shard, covering put/remove/clear/rehash inside the shard.</li>
  * </ul>
@@ -39,6 +43,9 @@ public final class ConcurrentSwissMap<K, V> implements ConcurrentMap<K, V> {
 	private final int shardBits;
 	/** Right-shift count to extract shard bits from the MSBs of the smeared hash. */
 	private final int shardShift;
+	private final HashingStrategy<Object> strategy; // null: the keys' own hashCode/equals
+	/** Shard selection seed (never 0); fixed, since changing it would move entries across shards. */
+	private final long seed;
 
 	public ConcurrentSwissMap() {
 		this(defaultShardCount(), DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
@@ -53,12 +60,33 @@ public final class ConcurrentSwissMap<K, V> implements ConcurrentMap<K, V> {
 	}
 
 	public ConcurrentSwissMap(int shardCount, int initialCapacity, double loadFactor) {
+		this(shardCount, initialCapacity, loadFactor, null);
+	}
+
+	/** Map whose keys are hashed and compared by {@code strategy} instead of their own hashCode/equals. */
+	public ConcurrentSwissMap(HashingStrategy<? super K> strategy) {
+		this(defaultShardCount(), DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR, Objects.requireNonNull(strategy));
+	}
+
+	/**
+	 * @param strategy key hashing and equality, or {@code null} for the keys' own {@code hashCode}/{@code equals}
+	 */
+	@SuppressWarnings("unchecked")
+	public ConcurrentSwissMap(int shardCount, int initialCapacity, double loadFactor, HashingStrategy<? super K> strategy) {
+		this.strategy = (HashingStrategy<Object>) strategy;
+		long seed;
+		do {
+			seed = ThreadLocalRandom.current().nextLong();
+		} while (seed == 0);
+		this.seed = seed;
 		if (shardCount <= 0) throw new IllegalArgumentException("shardCount must be > 0");
 		int sc = Utils.ceilPow2(shardCount);
 		this.shardBits = Integer.numberOfTrailingZeros(sc);
 		this.shardShift = Integer.SIZE - shardBits;
 		// SwissMap stores H2 in the lower 7 bits (control byte tag). Do not use those bits for sharding.
 		// We shard by the high bits of H1 (hash >>> 7), mirroring hashbrown's "leave tag bits out" approach.
+		// Those bits come from the seeded remix (shardOfHash), so they also carry no information about the
+		// H1/H2 a shard derives from the plain hash.
 		int shift = shardShift - 7;
 		if (shift < 0) {
 			throw new IllegalArgumentException("shardCount too large: max shards is 2^(Integer.SIZE-7)");
@@ -72,7 +100,7 @@ public final class ConcurrentSwissMap<K, V> implements ConcurrentMap<K, V> {
 		int perShard = Math.max(1, (cap + sc - 1) / sc);
 		for (int i = 0; i < sc; i++) {
 			locks[i] = new StampedLock();
-			maps[i] = new SwissMap<>(perShard, loadFactor);
+			maps[i] = new SwissMap<>(perShard, loadFactor, 0, strategy);
 		}
 		this.locks = locks;
 		this.maps = maps;
@@ -83,15 +111,15 @@ public final class ConcurrentSwissMap<K, V> implements ConcurrentMap<K, V> {
 		return Utils.ceilPow2(Math.max(1, cores * 4));
 	}
 
-	private static int smearedHashNonNull(Object key) {
+	private int smearedHashNonNull(Object key) {
 		if (key == null) throw new NullPointerException("Null keys not supported");
-		return Hashing.smearedHash(key);
+		return (strategy == null) ? Hashing.smearedHash(key) : Hashing.smear(strategy.hash(key));
 	}
 
 	private int shardOfHash(int smearedHash) {
 		if (shardBits == 0) return 0;
-		// shardBits are taken from the MSBs of the smeared hash.
-		return smearedHash >>> shardShift;
+		// shardBits are taken from the MSBs of the seeded remix of the smeared hash.
+		return Hashing.seeded(smearedHash, seed) >>> shardShift;
 	}
 
 	private int shardOf(Object key) {
@@ -100,7 +128,15 @@ public final class ConcurrentSwissMap<K, V> implements ConcurrentMap<K, V> {
 
 	@Override
 	public V get(Object key) {
-		int h = smearedHashNonNull(key);
+		return getHashed(key, smearedHashNonNull(key));
+	}
+
+	/**
+	 * {@link #get} with a hash precomputed by {@link HashSmith#hash(Object)}, so one key can be looked up in
+	 * several maps while calling {@code hashCode()} once.
+	 */
+	public V getHashed(Object key, int h) {
+		if (key == null) throw new NullPointerException("Null keys not supported");
 		int idx = shardOfHash(h);
 		StampedLock lock = locks[idx];
 		SwissMap<K, V> map = maps[idx];
@@ -122,7 +158,12 @@ public final class ConcurrentSwissMap<K, V> implements ConcurrentMap<K, V> {
 
 	@Override
 	public boolean containsKey(Object key) {
-		int h = smearedHashNonNull(key);
+		return containsHashed(key, smearedHashNonNull(key));
+	}
+
+	/** {@link #containsKey} with a hash precomputed by {@link HashSmith#hash(Object)}. */
+	public boolean containsHashed(Object key, int h) {
+		if (key == null) throw new NullPointerException("Null keys not supported");
 		int idx = shardOfHash(h);
 		StampedLock lock = locks[idx];
 		SwissMap<K, V> map = maps[idx];
@@ -160,7 +201,12 @@ public final class ConcurrentSwissMap<K, V> implements ConcurrentMap<K, V> {
 
 	@Override
 	public V put(K key, V value) {
-		int h = smearedHashNonNull(key);
+		return putHashed(key, value, smearedHashNonNull(key));
+	}
+
+	/** {@link #put} with a hash precomputed by {@link HashSmith#hash(Object)}. */
+	public V putHashed(K key, V value, int h) {
+		if (key == null) throw new NullPointerException("Null keys not supported");
 		int idx = shardOfHash(h);
 		StampedLock lock = locks[idx];
 		SwissMap<K, V> map = maps[idx];
@@ -175,7 +221,12 @@ public final class ConcurrentSwissMap<K, V> implements ConcurrentMap<K, V> {
 
 	@Override
 	public V remove(Object key) {
-		int h = smearedHashNonNull(key);
+		return removeHashed(key, smearedHashNonNull(key));
+	}
+
+	/** {@link #remove} with a hash precomputed by {@link HashSmith#hash(Object)}. */
+	public V removeHashed(Object key, int h) {
+		if (key == null) throw new NullPointerException("Null keys not supported");
 		int idx = shardOfHash(h);
 		StampedLock lock = locks[idx];
 		SwissMap<K, V> map = maps[idx];
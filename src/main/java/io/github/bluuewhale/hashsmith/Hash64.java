@@ -0,0 +1,21 @@
+package io.github.bluuewhale.hashsmith;
+
+/**
+ * Key that supplies its own 64-bit hash to {@link BigSwissMap}. A {@code hashCode()} has at most 2^32 distinct
+ * values, so at billions of keys many unequal keys share one and can only be told apart by {@code equals}; a
+ * 64-bit hash keeps those collisions rare.
+ *
+ * <pre>{@code
+ * record Fingerprint(long hi, long lo) implements Hash64 {
+ *     public long hash64() { return hi ^ Long.rotateLeft(lo, 29); }
+ * }
+ * }</pre>
+ *
+ * <p>Contract: keys that are {@code equals} must return the same {@code hash64()}. The value is mixed again
+ * before use, so it only needs to differ between unequal keys; it does not have to be evenly distributed. Other
+ * collections keep using {@code hashCode()}.
+ */
+public interface Hash64 {
+
+	long hash64();
+}
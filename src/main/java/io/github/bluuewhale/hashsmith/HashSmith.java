@@ -0,0 +1,37 @@
+package io.github.bluuewhale.hashsmith;
+
+/**
+ * Hash shared by every HashSmith collection, for callers that look one key up in several of them.
+ *
+ * <pre>{@code
+ * int h = HashSmith.hash(key);
+ * V cached = cache.getHashed(key, h);
+ * if (cached == null && seen.addHashed(key, h)) index.putHashed(key, compute(key), h);
+ * }</pre>
+ *
+ * <p>The {@code *Hashed} methods trust the hash they are given: passing anything other than
+ * {@code HashSmith.hash(key)} for that key makes lookups miss and can store the key in the wrong place.
+ * Collections built with a {@link HashingStrategy} expect {@link #hash(Object, HashingStrategy)} instead.
+ * {@link BigSwissMap} hashes keys to 64 bits instead and has no {@code *Hashed} methods.
+ */
+public final class HashSmith {
+
+	private HashSmith() {}
+
+	/**
+	 * Returns the hash the {@code *Hashed} methods expect for {@code key}: its {@code hashCode()} after the
+	 * table's bit mixing. {@code null} hashes like {@code 0} (only {@link SwissSet} accepts null elements).
+	 */
+	public static int hash(Object key) {
+		return Hashing.smearedHash(key);
+	}
+
+	/**
+	 * {@link #hash(Object)} for a collection built with {@code strategy}: {@code strategy.hash(key)} after the same
+	 * bit mixing ({@code null} keys hash as in {@link #hash(Object)}). Pass {@code null} for a collection without a
+	 * strategy.
+	 */
+	public static <K> int hash(K key, HashingStrategy<? super K> strategy) {
+		return (strategy == null || key == null) ? Hashing.smearedHash(key) : Hashing.smear(strategy.hash(key));
+	}
+}
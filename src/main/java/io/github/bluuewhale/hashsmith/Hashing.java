@@ -31,4 +31,31 @@ final class Hashing {
 		return smear((o == null) ? 0 : o.hashCode());
 	}
 
+	/*
+	 * 64-bit finalizer (fmix64) of MurmurHash3, same origin and license as smear above: every input bit affects
+	 * every output bit, so H1 can take its high bits and H2 its low 7 bits.
+	 */
+	static long smear64(long h) {
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	/*
+	 * Keyed remix of a smeared hash against hash flooding: fmix64 of the hash xor a secret per-instance seed. Keys
+	 * chosen to share H1 bits under smear no longer do under an unknown seed; keys whose hashCode() collides
+	 * outright still collide, which no remix can change.
+	 */
+	static int seeded(int smearedHash, long seed) {
+		return (int) smear64(smearedHash ^ seed);
+	}
+
+	/* 64-bit hash for BigSwissMap: Hash64 keys supply all 64 bits, other keys widen their hashCode(). */
+	static long smearedHash64(Object o) {
+		return smear64((o instanceof Hash64 k) ? k.hash64() : o.hashCode());
+	}
+
 }
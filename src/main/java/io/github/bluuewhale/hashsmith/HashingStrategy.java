@@ -0,0 +1,69 @@
+package io.github.bluuewhale.hashsmith;
+
+import java.util.Arrays;
+
+/**
+ * Key hashing and equality for a {@link SwissMap}, {@link SwissSimdMap}, {@link SwissSet} or
+ * {@link ConcurrentSwissMap} whose keys should not be compared by their own {@code hashCode()}/{@code equals}:
+ * arrays by content, strings ignoring case, and so on, without wrapping every key in an object that does.
+ *
+ * <pre>{@code
+ * var byDigest = new SwissMap<byte[], Blob>(HashingStrategy.BYTE_ARRAYS);
+ * byDigest.put(sha256(data), blob);
+ * Blob b = byDigest.get(sha256(data)); // a different array with the same bytes
+ * }</pre>
+ *
+ * <p>Contract: keys that are {@code equals} under the strategy must have the same {@code hash}; the value is
+ * mixed again before use, so it does not have to be evenly distributed. Keys are never {@code null} when passed
+ * in (a {@link SwissSet} holding {@code null} compares it by reference). The {@code *Hashed} methods of a map
+ * with a strategy expect {@link HashSmith#hash(Object, HashingStrategy)} instead of
+ * {@link HashSmith#hash(Object)}. {@code equals}/{@code hashCode} of the map itself follow the {@link java.util.Map}
+ * contract only when both sides use the same notion of key equality, as with a {@code TreeMap} comparator.
+ */
+public interface HashingStrategy<K> {
+
+	int hash(K key);
+
+	boolean equals(K a, K b);
+
+	/**
+	 * Keys by reference, as in {@link java.util.IdentityHashMap}: {@link System#identityHashCode} and {@code ==}.
+	 * Never calls the keys' {@code hashCode}/{@code equals}; see {@link IdentitySwissMap} and
+	 * {@link IdentitySwissSet}.
+	 */
+	HashingStrategy<Object> IDENTITY = new HashingStrategy<>() {
+		@Override public int hash(Object key) { return System.identityHashCode(key); }
+		@Override public boolean equals(Object a, Object b) { return a == b; }
+	};
+
+	/** {@code byte[]} keys by content ({@link Arrays#equals(byte[], byte[])}). */
+	HashingStrategy<byte[]> BYTE_ARRAYS = new HashingStrategy<>() {
+		@Override public int hash(byte[] key) { return Arrays.hashCode(key); }
+		@Override public boolean equals(byte[] a, byte[] b) { return Arrays.equals(a, b); }
+	};
+
+	/** {@code Object[]} keys by content, one level deep ({@link Arrays#equals(Object[], Object[])}). */
+	HashingStrategy<Object[]> OBJECT_ARRAYS = new HashingStrategy<>() {
+		@Override public int hash(Object[] key) { return Arrays.hashCode(key); }
+		@Override public boolean equals(Object[] a, Object[] b) { return Arrays.equals(a, b); }
+	};
+
+	/**
+	 * {@code String} keys ignoring case, as {@link String#equalsIgnoreCase}. The hash folds every code point to
+	 * {@code toLowerCase(toUpperCase(cp))}, which is the same for any two code points that method considers equal.
+	 */
+	HashingStrategy<String> CASE_INSENSITIVE = new HashingStrategy<>() {
+		@Override
+		public int hash(String key) {
+			int h = 0;
+			for (int i = 0; i < key.length(); ) {
+				int cp = key.codePointAt(i);
+				h = 31 * h + Character.toLowerCase(Character.toUpperCase(cp));
+				i += Character.charCount(cp);
+			}
+			return h;
+		}
+
+		@Override public boolean equals(String a, String b) { return a.equalsIgnoreCase(b); }
+	};
+}
@@ -0,0 +1,75 @@
+package io.github.bluuewhale.hashsmith;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * {@link SwissMap} that compares keys by reference, like {@link java.util.IdentityHashMap}: keys are hashed with
+ * {@link System#identityHashCode} (through the usual bit mixing) and matched with {@code ==} only, so their
+ * {@code hashCode}/{@code equals} are never called. Meant for visited sets and object-to-id tables of serializers
+ * and graph walkers. Probing, options and the rest of the API are {@code SwissMap}'s.
+ *
+ * <p>Differences from {@code IdentityHashMap}: {@code null} keys are rejected, and values are still compared with
+ * {@code equals} ({@code containsValue}, {@code remove(key, value)}, {@code replace(key, old, new)}, map
+ * {@code equals}/{@code hashCode}). The {@code *Hashed} methods expect
+ * {@code HashSmith.hash(key, HashingStrategy.IDENTITY)}.
+ *
+ * <p>Performance: this is not a general replacement for {@code IdentityHashMap}. In local timing runs (JDK 17,
+ * one core; {@code IdentityMapBenchmark} covers the same workloads) it was ahead only while the table fit in
+ * cache (about 19 vs 25 ns per lookup at 10K entries); at 1M and 4M entries lookups were about 2x slower (hits
+ * alone 2-3x) and building a visited set 35-45% slower. A hit here loads the ctrl word, then the key slot, while {@code IdentityHashMap} keeps key and
+ * value side by side in one array; it showed no slowdown of its own past 1M entries. Prefer this class for
+ * small or cache-resident tables, or where {@code SwissMap} options ({@link #INCREMENTAL_RESIZE},
+ * {@link #setTableAllocator}, slot handles) matter, and measure before switching large tables.
+ */
+public final class IdentitySwissMap<K, V> extends SwissMap<K, V> {
+
+	private static final double DEFAULT_LOAD_FACTOR = 0.875d;
+
+	public IdentitySwissMap() {
+		this(16, DEFAULT_LOAD_FACTOR, 0);
+	}
+
+	public IdentitySwissMap(int initialCapacity) {
+		this(initialCapacity, DEFAULT_LOAD_FACTOR, 0);
+	}
+
+	/**
+	 * @param options bitwise OR of {@link SwissMap} option flags such as {@link #INTERLEAVED}, or {@code 0}
+	 */
+	public IdentitySwissMap(int initialCapacity, double loadFactor, int options) {
+		super(initialCapacity, loadFactor, options, HashingStrategy.IDENTITY);
+	}
+
+	/**
+	 * Creates a map with the mappings of {@code m}, keyed by reference. An {@code IdentitySwissMap} source is copied
+	 * array by array with its capacity, load factor and options; any other map goes through {@link #putAll}.
+	 */
+	public IdentitySwissMap(Map<? extends K, ? extends V> m) {
+		this(m instanceof IdentitySwissMap<?, ?> src ? src.capacity : 16,
+			m instanceof IdentitySwissMap<?, ?> src ? src.loadFactor : DEFAULT_LOAD_FACTOR,
+			m instanceof IdentitySwissMap<?, ?> src ? src.options() : 0);
+		if (m instanceof IdentitySwissMap<? extends K, ? extends V> src) {
+			copyTablesFrom(src);
+		} else {
+			putAll(m);
+		}
+	}
+
+	@Override
+	public IdentitySwissMap<K, V> clone() {
+		return (IdentitySwissMap<K, V>) super.clone();
+	}
+
+	/**
+	 * Sum of {@code System.identityHashCode(key) ^ Objects.hashCode(value)}: keys by reference, values by
+	 * {@code hashCode}, matching {@link #equals}. Never calls a key's {@code hashCode}.
+	 */
+	@Override
+	public int hashCode() {
+		int h = 0;
+		MapCursor<K, V> c = cursor();
+		while (c.advance()) h += System.identityHashCode(c.key()) ^ Objects.hashCode(c.value());
+		return h;
+	}
+}
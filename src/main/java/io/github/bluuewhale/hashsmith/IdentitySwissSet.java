@@ -0,0 +1,133 @@
+package io.github.bluuewhale.hashsmith;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Set of object references backed by an {@link IdentitySwissMap}, the SWAR counterpart of
+ * {@code Collections.newSetFromMap(new IdentityHashMap<>())}: elements are hashed with
+ * {@link System#identityHashCode} and matched with {@code ==} only. {@code add} probes once and reports whether
+ * the element is new, which is all a visited set needs:
+ *
+ * <pre>{@code
+ * var visited = new IdentitySwissSet<Node>();
+ * while (!stack.isEmpty()) {
+ *     Node n = stack.pop();
+ *     if (visited.add(n)) stack.addAll(n.children());
+ * }
+ * }</pre>
+ *
+ * <p>{@code null} elements are rejected. Unlike {@link SwissSet} (SIMD probing), this set shares
+ * {@link SwissMap}'s probing and options, and the performance caveat of {@link IdentitySwissMap}: ahead of
+ * {@code Collections.newSetFromMap(new IdentityHashMap<>())} only while the table fits in cache.
+ */
+public final class IdentitySwissSet<E> extends AbstractSet<E> implements Cloneable {
+
+	private static final double DEFAULT_LOAD_FACTOR = 0.875d;
+
+	private IdentitySwissMap<E, Boolean> map; // every value is TRUE; not final for clone()
+
+	public IdentitySwissSet() {
+		this(16, DEFAULT_LOAD_FACTOR, 0);
+	}
+
+	public IdentitySwissSet(int initialCapacity) {
+		this(initialCapacity, DEFAULT_LOAD_FACTOR, 0);
+	}
+
+	/**
+	 * @param options bitwise OR of {@link SwissMap} option flags such as {@link SwissMap#INTERLEAVED}, or {@code 0}
+	 */
+	public IdentitySwissSet(int initialCapacity, double loadFactor, int options) {
+		this.map = new IdentitySwissMap<>(initialCapacity, loadFactor, options);
+	}
+
+	/**
+	 * Creates a set with the elements of {@code c}, by reference. An {@code IdentitySwissSet} source is copied
+	 * array by array; any other collection is added element by element.
+	 */
+	public IdentitySwissSet(Collection<? extends E> c) {
+		if (c instanceof IdentitySwissSet<? extends E> src) {
+			this.map = new IdentitySwissMap<>(src.map);
+		} else {
+			this.map = new IdentitySwissMap<>(Math.max(16, c.size()));
+			addAll(c);
+		}
+	}
+
+	@Override
+	public boolean add(E e) {
+		return map.putIfAbsent(e, Boolean.TRUE) == null;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return map.containsKey(o);
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		return map.remove(o) != null;
+	}
+
+	@Override
+	public int size() {
+		return map.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return map.isEmpty();
+	}
+
+	@Override
+	public void clear() {
+		map.clear();
+	}
+
+	/** Rehashes into the smallest table that holds the current elements (see {@link SwissMap#trimToSize()}). */
+	public void trimToSize() {
+		map.trimToSize();
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return map.keySet().iterator();
+	}
+
+	@Override
+	public Spliterator<E> spliterator() {
+		return map.keySet().spliterator();
+	}
+
+	@Override
+	public void forEach(Consumer<? super E> action) {
+		map.keySet().forEach(action);
+	}
+
+	/** Returns a shallow copy (elements are not cloned), made by copying the tables. */
+	@Override
+	@SuppressWarnings("unchecked")
+	public IdentitySwissSet<E> clone() {
+		IdentitySwissSet<E> copy;
+		try {
+			copy = (IdentitySwissSet<E>) super.clone();
+		} catch (CloneNotSupportedException e) {
+			throw new AssertionError(e);
+		}
+		copy.map = map.clone();
+		return copy;
+	}
+
+	/** Sum of {@code System.identityHashCode} of the elements, as in {@code IdentityHashMap.keySet()}. */
+	@Override
+	public int hashCode() {
+		int h = 0;
+		MapCursor<E, Boolean> c = map.cursor();
+		while (c.advance()) h += System.identityHashCode(c.key());
+		return h;
+	}
+}
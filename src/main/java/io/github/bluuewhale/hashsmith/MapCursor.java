@@ -0,0 +1,52 @@
+package io.github.bluuewhale.hashsmith;
+
+/**
+ * Allocation-free traversal over the entries of a map: a single mutable position instead of an iterator that
+ * hands out one {@code Map.Entry} object per element.
+ *
+ * <pre>{@code
+ * MapCursor<String, Integer> c = map.cursor();
+ * while (c.advance()) {
+ *     if (c.value() == 0) c.remove();
+ * }
+ * }</pre>
+ *
+ * <p>A cursor starts before the first entry. Like an iterator it is invalidated by structural changes made
+ * through anything other than the cursor itself; {@link #setValue} is not a structural change.
+ */
+public interface MapCursor<K, V> {
+
+	/**
+	 * Moves to the next entry. Returns {@code false} once every entry has been visited.
+	 */
+	boolean advance();
+
+	/**
+	 * Key of the current entry.
+	 *
+	 * @throws IllegalStateException if the cursor is not positioned on an entry
+	 */
+	K key();
+
+	/**
+	 * Value of the current entry.
+	 *
+	 * @throws IllegalStateException if the cursor is not positioned on an entry
+	 */
+	V value();
+
+	/**
+	 * Replaces the value of the current entry and returns the previous one.
+	 *
+	 * @throws IllegalStateException if the cursor is not positioned on an entry
+	 */
+	V setValue(V value);
+
+	/**
+	 * Removes the current entry. The cursor is left between entries until the next {@link #advance()}.
+	 * Never resizes the table.
+	 *
+	 * @throws IllegalStateException if the cursor is not positioned on an entry
+	 */
+	void remove();
+}
@@ -41,7 +41,12 @@ public class RobinHoodMap<K, V> extends AbstractArrayMap<K, V> {
 
 	@Override
 	public V put(K key, V value) {
-		int h = hash(key);
+		return putHashed(key, value, hash(key));
+	}
+
+	@Override
+	public V putHashed(K key, V value, int h) {
+		requireKey(key);
 		int mask = capacity - 1;
 		int idx = h & mask;
 
@@ -84,13 +89,25 @@ public class RobinHoodMap<K, V> extends AbstractArrayMap<K, V> {
 
 	@Override
 	public V remove(Object key) {
-		int idx = findIndex(key);
+		return removeHashed(key, hash(key));
+	}
+
+	@Override
+	public V removeHashed(Object key, int hash) {
+		int idx = findIndex(requireKey(key), hash);
 		if (idx < 0) return null;
 		V old = castValue(vals[idx]);
 		deleteAt(idx);
+		if (shouldShrink()) resize(capacity >>> 1);
 		return old;
 	}
 
+	@Override
+	public void trimToSize() {
+		int target = capacityFor(size, DEFAULT_INITIAL_CAPACITY);
+		if (target < capacity) resize(target);
+	}
+
 	@Override
 	public void clear() {
 		for (int i = 0; i < capacity; i++) {
@@ -106,6 +123,15 @@ public class RobinHoodMap<K, V> extends AbstractArrayMap<K, V> {
 		return new EntrySet();
 	}
 
+	/**
+	 * Unlike the iterators, the cursor walks the slots in table order starting after an empty slot, so
+	 * {@link MapCursor#remove()} can backward-shift the rest of the cluster into slots it has yet to visit.
+	 */
+	@Override
+	public MapCursor<K, V> cursor() {
+		return new Cursor();
+	}
+
 	/* Resize/rebuild helpers */
 	private void resize(int newCapacity) {
 		int targetCap = ceilPow2(Math.max(DEFAULT_INITIAL_CAPACITY, newCapacity));
@@ -121,21 +147,30 @@ public class RobinHoodMap<K, V> extends AbstractArrayMap<K, V> {
 
 		if (oldKeys == null || oldVals == null || oldKeys.length == 0) return;
 
-		// Insert into a fresh table (empty, so no Robin Hood swaps needed)
+		// Insert into a fresh table (keys are distinct, so no equality checks). Robin Hood swaps are still
+		// needed: when shrinking, entries from two old slots fold onto one home and may arrive out of order.
+		int mask = capacity - 1;
 		for (int i = 0; i < oldKeys.length; i++) {
 			Object k = oldKeys[i];
 			if (k == null) continue;
-			K key = castKey(k);
-			V val = castValue(oldVals[i]);
-			int h = hash(key);
-			int mask = capacity - 1;
-			int idx = h & mask; // equivalent to h % capacity
+			Object curKey = k;
+			Object curVal = oldVals[i];
+			int idx = hash(k) & mask; // equivalent to h % capacity
 			int d = 0;
 			while (keys[idx] != null) {
+				int slotDist = dist[idx];
+				if (slotDist < d) {
+					Object swapKey = keys[idx];
+					Object swapVal = vals[idx];
+					setSlot(idx, curKey, curVal, d);
+					curKey = swapKey;
+					curVal = swapVal;
+					d = slotDist;
+				}
 				idx = (idx + 1) & mask;
 				d++;
 			}
-			setSlot(idx, key, val, d);
+			setSlot(idx, curKey, curVal, d);
 			size++;
 		}
 	}
@@ -148,8 +183,11 @@ public class RobinHoodMap<K, V> extends AbstractArrayMap<K, V> {
 	/* Internal helpers */
 	@Override
 	protected int findIndex(Object key) {
-		if (key == null) throw new NullPointerException("Null keys not supported");
-		int h = hash(key);
+		return findIndex(key, hash(key));
+	}
+
+	@Override
+	protected int findIndex(Object key, int h) {
 		int mask = capacity - 1;
 		int idx = h & mask;      // ideal slot
 		int d = 0;               // probe distance while scanning
@@ -279,11 +317,76 @@ public class RobinHoodMap<K, V> extends AbstractArrayMap<K, V> {
 		@Override
 		public void remove() {
 			if (!canRemove) throw new IllegalStateException();
-			RobinHoodMap.this.remove(lastKey);
+			// Delete directly: an automatic shrink from remove(Object) would rebuild the table mid-iteration.
+			int idx = findIndex(lastKey);
+			if (idx >= 0) deleteAt(idx);
 			canRemove = false;
 		}
 	}
 
+	private final class Cursor implements MapCursor<K, V> {
+		private final int mask = capacity - 1;
+		private final int end;   // last position of the walk (the starting empty slot, unwrapped)
+		private int pos;         // next position to inspect; slot = pos & mask
+		private int idx = -1;    // current slot
+		private boolean shifted; // remove() pulled the next entry of the cluster into idx
+
+		Cursor() {
+			// Start right after an empty slot: no cluster straddles the start of the walk, so backward shifts
+			// during removal only move entries from unvisited slots into the current one.
+			int empty = 0;
+			while (keys[empty] != null) empty++; // maxLoad < capacity, so one exists
+			this.pos = empty + 1;
+			this.end = empty + capacity;
+		}
+
+		@Override
+		public boolean advance() {
+			if (shifted) {
+				shifted = false;
+				if (keys[idx] != null) return true; // revisit: the slot now holds an unvisited entry
+			}
+			while (pos <= end) {
+				int i = pos++ & mask;
+				if (keys[i] != null) {
+					idx = i;
+					return true;
+				}
+			}
+			idx = -1;
+			return false;
+		}
+
+		private int current() {
+			if (idx < 0 || shifted) throw new IllegalStateException("cursor is not positioned on an entry");
+			return idx;
+		}
+
+		@Override
+		public K key() {
+			return castKey(keys[current()]);
+		}
+
+		@Override
+		public V value() {
+			return castValue(vals[current()]);
+		}
+
+		@Override
+		public V setValue(V value) {
+			int i = current();
+			V old = castValue(vals[i]);
+			vals[i] = value;
+			return old;
+		}
+
+		@Override
+		public void remove() {
+			deleteAt(current()); // no resize, even under a shrink policy
+			shifted = true;
+		}
+	}
+
 	private final class EntryView implements Map.Entry<K, V> {
 		private final K key;
 
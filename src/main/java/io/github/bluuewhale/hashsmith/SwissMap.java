@@ -7,14 +7,38 @@ import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.VarHandle;
 
 /**
  * SwissTable variant: packs control bytes into 8-byte words and uses SWAR
  * comparisons (no Vector API) while scanning 8 slots at a time.
+ *
+ * <p>By default every probe starts on a group boundary. With {@link #SLOT_PROBING} the probe starts at an
+ * arbitrary slot (Abseil-style) and scans an unaligned 8-slot window, which spreads entries across the tail
+ * slots of each word and shortens probe chains at high load factors.
+ *
+ * <p>Keys and values live in two parallel arrays by default. With {@link #INTERLEAVED} they share one array
+ * ({@code [k0, v0, k1, v1, ...]}), so a lookup hit finds the value on the same cache line as the key.
+ *
+ * <p>Keys are hashed and compared by their own {@code hashCode()}/{@code equals} unless the map is built with a
+ * {@link HashingStrategy}, e.g. {@link HashingStrategy#BYTE_ARRAYS} for {@code byte[]} keys.
+ *
+ * <p>Hash flooding: a lookup or insert that probes past {@value #MIN_LONG_PROBE_GROUPS} full groups (more
+ * above the default load factor), about twice the longest chain random hashes produce in a full table of 8M
+ * slots, makes the next insert re-place every entry under a random per-instance seed: a keyed remix of the
+ * hash, so keys crafted against the fixed bit mixing spread out again. Until then the hash is used as is. The
+ * seed is internal; the {@code *Hashed} methods still take {@link HashSmith#hash(Object)}. Keys whose
+ * {@code hashCode()} values are equal stay clustered under any seed, so a map reseeds again only after it has
+ * doubled in size.
  */
-public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
+public class SwissMap<K, V> extends AbstractArrayMap<K, V> implements Cloneable {
 
 	/* Control byte values */
 	private static final byte EMPTY = (byte) 0x80;    // empty slot
@@ -27,18 +51,111 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 	/* Group sizing: SWAR fixed at 8 slots (1 word) */
 	private static final int GROUP_SIZE = 8;
 
+	/* Keys in flight per getAll/containsAll batch; roughly the outstanding L1 misses one core sustains */
+	private static final int LOOKUP_BATCH = 8;
+
 	/* Load factor: similar to Abseil SwissTable (7/8) */
 	private static final double DEFAULT_LOAD_FACTOR = 0.875d;
 
+	/* Option flags (combine with bitwise OR) */
+	/**
+	 * Start probing at the slot selected by H1 instead of the start of its group. The ctrl array carries a
+	 * mirrored copy of its first word after the end, so an 8-slot window can wrap around the table.
+	 */
+	public static final int SLOT_PROBING = 1;
+	/**
+	 * Keep the full 32-bit smeared hash of every slot in a side array. Rehash reuses the stored hashes instead
+	 * of calling {@code hashCode()}, and probes compare the full hash before calling {@code equals}.
+	 * Costs 4 extra bytes per slot; worth it for keys with expensive {@code hashCode}/{@code equals}.
+	 */
+	public static final int STORE_HASHES = 1 << 1;
+	/**
+	 * Store each key next to its value in a single {@code Object[]} of length {@code 2 * capacity} instead of
+	 * separate key/value arrays. Saves a cache miss per hit on tables that do not fit in cache.
+	 */
+	public static final int INTERLEAVED = 1 << 2;
+	/**
+	 * Grow without a stop-the-world rehash: the insert that crosses the load threshold only allocates the larger
+	 * table, and every later insert or removal moves the next {@value #RESIZE_STEP_GROUPS} groups of the old
+	 * one. Lookups that miss the new table check the old table and move a hit across. Until the move finishes
+	 * both tables are live (about 1.5x the memory of one), and operations that walk the whole table (iteration,
+	 * {@code forEach}, copies, {@code trimToSize}, {@code getAll}/{@code containsAll}) finish it first. Bounds the
+	 * latency of a single {@code put} on very large maps; throughput is slightly lower.
+	 *
+	 * <p>Because a lookup can move an entry, {@code get} and {@code containsKey} modify the map while a move is in
+	 * progress: unlike the default mode, a map with this option is not safe for concurrent readers, even when no
+	 * thread writes to it.
+	 */
+	public static final int INCREMENTAL_RESIZE = 1 << 3;
+	/**
+	 * Keep maps of up to {@value #TINY_SLOTS} entries in key/value arrays of {@value #TINY_SLOTS} slots without
+	 * ctrl words, found by a linear scan of {@code equals} calls ({@code get}/{@code containsKey} do not hash the
+	 * key). The insert past {@value #TINY_SLOTS} entries builds the regular table, and {@link #trimToSize()}
+	 * goes back to the small arrays once the map is that small again. Meant for the many-tiny-maps case
+	 * (per-record attributes and the like): the tables of a 1 to 8 entry map take 96 bytes instead of 200
+	 * (compressed oops). Lookups win at one or two entries and lose to SWAR probing from about six on, where
+	 * a miss pays one {@code equals} per entry.
+	 */
+	public static final int TINY_LINEAR_SCAN = 1 << 4;
+	private static final int ALL_OPTIONS = SLOT_PROBING | STORE_HASHES | INTERLEAVED | INCREMENTAL_RESIZE | TINY_LINEAR_SCAN;
+
+	/*
+	 * Probe windows after which a lookup/insert raises the hash-flooding alarm (see reseed): 8 / (1 - loadFactor),
+	 * at least this. Random hashes in a full table at load factor f peak around 4 / (1 - f) windows (33 at 7/8
+	 * and 8M slots), so the margin is about 2x.
+	 */
+	private static final int MIN_LONG_PROBE_GROUPS = 64;
+
+	/* Old groups moved per insert/remove while an INCREMENTAL_RESIZE is in progress */
+	private static final int RESIZE_STEP_GROUPS = 8;
+
+	/* Slots of a TINY_LINEAR_SCAN map before it builds a ctrl-word table */
+	private static final int TINY_SLOTS = 8;
+
+	/* Shared tables of a map that has not inserted anything yet (allocated on first insert) */
+	private static final long[] EMPTY_CTRL = {};
+	/*
+	 * Shared ctrl words of a TINY_LINEAR_SCAN map in small mode: one all-EMPTY group plus its mirror. Probes run
+	 * over it as usual, miss in the first window and fall back to the linear scan (tinyIndexOf), so the regular
+	 * lookup path carries no extra branch for hits. Never written.
+	 */
+	private static final long[] TINY_CTRL = { 0x8080808080808080L, 0x8080808080808080L };
+	private static final Object[] EMPTY_TABLE = {};
+	private static final int[] EMPTY_HASHES = {};
+
 	/* SWAR constants */
 	private static final long BITMASK_LSB = 0x0101010101010101L;
 	private static final long BITMASK_MSB = 0x8080808080808080L;
 
 	/* Storage and state */
-	private long[] ctrl;     // each long packs 8 control bytes
-	private Object[] keys;   // key storage
+	private final boolean slotProbing; // probe windows start at any slot (see SLOT_PROBING)
+	private final int kvShift;         // slot -> array index shift: 0 split, 1 INTERLEAVED
+	private final int valOffset;       // value offset from the key's index: 0 split, 1 INTERLEAVED
+	private final boolean incrementalResize; // see INCREMENTAL_RESIZE
+	private final boolean tinyLinearScan;    // see TINY_LINEAR_SCAN
+	private final HashingStrategy<Object> strategy; // null: the keys' own hashCode/equals
+	private final int longProbeGroups; // see MIN_LONG_PROBE_GROUPS
+	private long[] ctrl;     // each long packs 8 control bytes; last word mirrors ctrl[0]
+	private Object[] keys;   // key storage (INTERLEAVED: shared key/value table, same array as vals)
 	private Object[] vals;   // value storage
+	private int[] hashes;    // smeared hash per slot (STORE_HASHES only, otherwise null)
 	private int tombstones;  // deleted slots
+	private int rehashes;    // bumped when entries may have moved (tables replaced, resize steps); pooled arrays can come back, so identity is not enough
+	private int modCount;    // bumped by every insert of a new key, removal and clear; compute/merge re-probe if a callback changed it
+	private TableAllocator allocator = TableAllocator.HEAP; // source and sink of table arrays
+	private long seed;           // remixes hashes into H1/H2 once non-zero; 0 until the first reseed
+	private int reseedFloor;     // size below which another reseed would not help (set by reseed)
+	private boolean probeAlarm;  // a probe reached longProbeGroups; the next insert reseeds
+
+	/*
+	 * Old table of an INCREMENTAL_RESIZE in progress (drainCtrl == null otherwise). Its ctrl words are never
+	 * modified, so its probe chains stay as short as they were; a moved entry only has its key nulled out.
+	 */
+	private long[] drainCtrl;
+	private Object[] drainKeys;
+	private Object[] drainVals;
+	private int[] drainHashes;
+	private int drainGroup;  // old groups below this one have been moved entirely
 
 	/**
 	 * Control word access needs to participate in the publish protocol used by {@link ConcurrentSwissMap}
@@ -59,6 +176,24 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 		CTRL_WORD.setRelease(ctrl, group, word);
 	}
 
+	/**
+	 * Loads the 8 control bytes starting at slot {@code pos}. Aligned windows are a single word; unaligned
+	 * windows are funnel-shifted from two adjacent words (the last word mirrors ctrl[0], so the window wraps).
+	 */
+	private static long ctrlWindow(long[] ctrl, int pos) {
+		int group = pos >>> 3;
+		int shift = (pos & 7) << 3;
+		if (shift == 0) return ctrl[group];
+		return (ctrl[group] >>> shift) | (ctrl[group + 1] << (64 - shift));
+	}
+
+	private static long ctrlWindowAcquire(long[] ctrl, int pos) {
+		int group = pos >>> 3;
+		int shift = (pos & 7) << 3;
+		if (shift == 0) return ctrlWordAcquire(ctrl, group);
+		return (ctrlWordAcquire(ctrl, group) >>> shift) | (ctrlWordAcquire(ctrl, group + 1) << (64 - shift));
+	}
+
 	public SwissMap() {
 		this(16, DEFAULT_LOAD_FACTOR);
 	}
@@ -68,35 +203,126 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 	}
 
 	public SwissMap(int initialCapacity, double loadFactor) {
+		this(initialCapacity, loadFactor, 0);
+	}
+
+	/**
+	 * @param options bitwise OR of option flags such as {@link #SLOT_PROBING}, or {@code 0} for the defaults
+	 */
+	public SwissMap(int initialCapacity, double loadFactor, int options) {
+		this(initialCapacity, loadFactor, options, null);
+	}
+
+	/** Map whose keys are hashed and compared by {@code strategy} instead of their own hashCode/equals. */
+	public SwissMap(HashingStrategy<? super K> strategy) {
+		this(16, DEFAULT_LOAD_FACTOR, 0, Objects.requireNonNull(strategy));
+	}
+
+	/**
+	 * @param options bitwise OR of option flags such as {@link #SLOT_PROBING}, or {@code 0} for the defaults
+	 * @param strategy key hashing and equality, or {@code null} for the keys' own {@code hashCode}/{@code equals}
+	 */
+	@SuppressWarnings("unchecked")
+	public SwissMap(int initialCapacity, double loadFactor, int options, HashingStrategy<? super K> strategy) {
 		super(initialCapacity, loadFactor);
+		this.strategy = (HashingStrategy<Object>) strategy; // only ever applied to keys of this map
+		if ((options & ~ALL_OPTIONS) != 0) {
+			throw new IllegalArgumentException("unknown options: 0x" + Integer.toHexString(options));
+		}
+		this.slotProbing = (options & SLOT_PROBING) != 0;
+		boolean interleaved = (options & INTERLEAVED) != 0;
+		this.kvShift = interleaved ? 1 : 0;
+		this.valOffset = interleaved ? 1 : 0;
+		this.incrementalResize = (options & INCREMENTAL_RESIZE) != 0;
+		this.tinyLinearScan = (options & TINY_LINEAR_SCAN) != 0;
+		this.longProbeGroups = (int) Math.max(MIN_LONG_PROBE_GROUPS, 8 / (1 - loadFactor));
+		// Tables are allocated lazily; the hash side array is marked by its own sentinel until then.
+		if ((options & STORE_HASHES) != 0) this.hashes = EMPTY_HASHES;
+	}
+
+	/**
+	 * Creates a map with the mappings of {@code m}, keyed by {@code hashCode}/{@code equals} like
+	 * {@code HashMap(Map)}. A plain {@code SwissMap} source (this class, no {@link HashingStrategy}) is copied
+	 * array by array with its capacity, load factor and options (no rehashing, no per-entry objects); any other
+	 * map, including strategy-keyed and {@link IdentitySwissMap} sources, is re-inserted entry by entry.
+	 */
+	@SuppressWarnings("unchecked")
+	public SwissMap(Map<? extends K, ? extends V> m) {
+		this(copiesTables(m) ? ((SwissMap<?, ?>) m).capacity : 16,
+			copiesTables(m) ? ((SwissMap<?, ?>) m).loadFactor : DEFAULT_LOAD_FACTOR,
+			copiesTables(m) ? ((SwissMap<?, ?>) m).options() : 0,
+			null);
+		if (copiesTables(m)) {
+			copyTablesFrom((SwissMap<? extends K, ? extends V>) m);
+		} else {
+			putEntries(m);
+		}
 	}
 
+	/* Whether the copy constructor may copy m's tables: same class and the same (default) key equality. */
+	private static boolean copiesTables(Map<?, ?> m) {
+		return m.getClass() == SwissMap.class && ((SwissMap<?, ?>) m).strategy == null;
+	}
+
+	/**
+	 * Records the target capacity but defers allocation to the first insert (see {@link #maybeRehash()}), so
+	 * maps that stay empty only cost the object header.
+	 */
 	@Override
 	protected void init(int desiredCapacity) {
+		if (ctrl != null && ctrl != EMPTY_CTRL) releaseArrays(ctrl, keys, vals);
+		dropDrainedTable();
 		int nGroups = Math.max(1, (desiredCapacity + GROUP_SIZE - 1) / GROUP_SIZE);
-		nGroups = ceilPow2(nGroups);
+		nGroups = Utils.ceilPow2(nGroups);
 		this.capacity = nGroups * GROUP_SIZE;
+		this.rehashes++;
 
-		this.ctrl = new long[nGroups];
-		Arrays.fill(this.ctrl, broadcast(EMPTY));
-		this.keys = new Object[capacity];
-		this.vals = new Object[capacity];
+		this.ctrl = EMPTY_CTRL;
+		this.keys = EMPTY_TABLE;
+		this.vals = EMPTY_TABLE;
 		this.size = 0;
 		this.tombstones = 0;
-		this.maxLoad = calcMaxLoad(this.capacity);
+		this.maxLoad = Utils.calcMaxLoad(this.capacity, loadFactor);
 	}
 
-	/* Hash split helpers */
+	/* Hash split helpers: the smeared hash, remixed under the seed once the map has reseeded */
 	private int h1(int hash) {
-		return (hash & H1_MASK) >>> 7;
+		return (probeHash(hash) & H1_MASK) >>> 7;
 	}
 
 	private byte h2(int hash) {
-		return (byte) (hash & H2_MASK);
+		return (byte) (probeHash(hash) & H2_MASK);
+	}
+
+	private int probeHash(int smearedHash) {
+		long seed = this.seed;
+		return (seed == 0) ? smearedHash : Hashing.seeded(smearedHash, seed);
 	}
 
 	private int hash(Object key) {
-		return hashNonNull(key);
+		return (strategy == null) ? Hashing.smearedHash(requireKey(key)) : Hashing.smear(strategy.hash(requireKey(key)));
+	}
+
+	/* Key equality of the probe loops (after the identity check): equals, or the HashingStrategy's. */
+	private boolean keyEquals(Object k, Object key) {
+		return (strategy == null) ? k.equals(key) : strategy.equals(k, key);
+	}
+
+	/* Slot -> storage index (identity for the split layout) */
+	private int keyIndex(int idx) {
+		return idx << kvShift;
+	}
+
+	private int valIndex(int idx) {
+		return (idx << kvShift) + valOffset;
+	}
+
+	/**
+	 * First slot of the probe sequence. Group-aligned by default; any slot with {@link #SLOT_PROBING}.
+	 * Subsequent windows advance by whole groups (triangular steps), so aligned probes stay aligned.
+	 */
+	private int probeStart(int h1, int slotMask) {
+		return (slotProbing ? h1 : h1 << 3) & slotMask;
 	}
 
 	/**
@@ -105,7 +331,7 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 	 */
 	V get(Object key, int smearedHash) {
 		int idx = findIndexHashed(key, smearedHash);
-		return (idx >= 0) ? castValue(vals[idx]) : null;
+		return (idx >= 0) ? castValue(vals[valIndex(idx)]) : null;
 	}
 
 	/**
@@ -129,15 +355,22 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 	V remove(Object key, int smearedHash) {
 		int idx = findIndexHashed(key, smearedHash);
 		if (idx < 0) return null;
-		V old = castValue(vals[idx]);
-		setCtrlAt(ctrl, idx, DELETED);
-		setEntryAt(idx, null, null);
-		size--;
-		tombstones++;
-		maybeRehash();
+		V old = castValue(vals[valIndex(idx)]);
+		eraseAt(idx);
+		maybeShrinkOrRehash();
 		return old;
 	}
 
+	@Override
+	public V putHashed(K key, V value, int hash) {
+		return put(requireKey(key), value, hash);
+	}
+
+	@Override
+	public V removeHashed(Object key, int hash) {
+		return remove(requireKey(key), hash);
+	}
+
 	/**
 	 * Package-private concurrent-safe fast path: get with a precomputed smeared hash.
 	 * <p>
@@ -146,7 +379,10 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 	 */
 	V getConcurrent(Object key, int smearedHash) {
 		int idx = findIndexHashedConcurrent(key, smearedHash);
-		return (idx >= 0) ? castValue(vals[idx]) : null;
+		if (idx < 0) return null;
+		Object[] vals = this.vals; // may already belong to a newer table than the one probed
+		int vi = valIndex(idx);
+		return (vi < vals.length) ? castValue(vals[vi]) : null;
 	}
 
 	/**
@@ -173,11 +409,9 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 	V removeConcurrent(Object key, int smearedHash) {
 		int idx = findIndexHashedConcurrent(key, smearedHash);
 		if (idx < 0) return null;
-		V old = castValue(vals[idx]);
+		V old = castValue(vals[valIndex(idx)]);
 		deleteAtConcurrent(idx);
-		size--;
-		tombstones++;
-		maybeRehash();
+		maybeShrinkOrRehash();
 		return old;
 	}
 
@@ -196,11 +430,20 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 		return toUnsignedByte(b) * BITMASK_LSB;
 	}
 
+	/**
+	 * Relabels a ctrl word for {@link #rehashInPlace()}: EMPTY/DELETED lanes become EMPTY and FULL lanes become
+	 * DELETED (used as the "not yet placed" marker). Special lanes have the MSB set, FULL lanes do not.
+	 */
+	private static long convertSpecialToEmptyAndFullToDeleted(long word) {
+		long x = word & BITMASK_MSB;
+		return (~x + (x >>> 7)) & ~BITMASK_LSB;
+	}
+
 	/**
 	 * Compare bytes in word against b; return packed 8-bit mask of matches.
 	 * see: https://stackoverflow.com/questions/68695913/how-to-write-a-swar-comparison-which-puts-0xff-in-a-lane-on-matches/68701617#68701617
 	 */
-	protected int eqMask(long word, byte b) {
+	protected final int eqMask(long word, byte b) {
 		long x = word ^ broadcast(b);
 		long m = (((x >>> 1) | BITMASK_MSB) - x) & BITMASK_MSB;
 		return (int) ((m * 0x0204_0810_2040_81L) >>> 56);
@@ -218,8 +461,10 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 		int offset = (idx & 7) << 3;
 		long word = ctrlWordPlain(ctrl, group);
 		long mask = 0xFFL << offset;
+		long updated = (word & ~mask) | (toUnsignedByte(value) << offset);
 		// Plain store for the non-concurrent SwissMap contract.
-		ctrl[group] = (word & ~mask) | (toUnsignedByte(value) << offset);
+		ctrl[group] = updated;
+		if (group == 0) ctrl[ctrl.length - 1] = updated; // keep the mirrored tail word in sync
 	}
 
 	private void setCtrlAtRelease(long[] ctrl, int idx, byte value) {
@@ -227,77 +472,547 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 		int offset = (idx & 7) << 3;
 		long word = ctrlWordPlain(ctrl, group);
 		long mask = 0xFFL << offset;
-		ctrlWordRelease(ctrl, group, (word & ~mask) | (toUnsignedByte(value) << offset));
+		long updated = (word & ~mask) | (toUnsignedByte(value) << offset);
+		ctrlWordRelease(ctrl, group, updated);
+		if (group == 0) ctrlWordRelease(ctrl, ctrl.length - 1, updated);
 	}
 
 	private void setEntryAt(int idx, K key, V value) {
-		keys[idx] = key;
-		vals[idx] = value;
+		keys[keyIndex(idx)] = key;
+		vals[valIndex(idx)] = value;
+	}
+
+	/**
+	 * Control byte to leave behind when the FULL slot {@code idx} is vacated. A slot can go back to EMPTY
+	 * if no probe ever had to continue past a window containing it; otherwise it must become a tombstone.
+	 */
+	private byte vacatedCtrl(long[] ctrl, int idx) {
+		if (!slotProbing) {
+			// Aligned probing: a group that still has an EMPTY slot has never been probed through.
+			return eqMask(ctrl[idx >> 3], EMPTY) != 0 ? EMPTY : DELETED;
+		}
+		// Unaligned windows: every 8-slot window containing idx must also contain an EMPTY slot.
+		int mask = capacity - 1;
+		int emptyAfter = eqMask(ctrlWindow(ctrl, idx), EMPTY);
+		int emptyBefore = eqMask(ctrlWindow(ctrl, (idx - GROUP_SIZE) & mask), EMPTY);
+		boolean wasNeverFull = emptyAfter != 0 && emptyBefore != 0
+			&& Integer.numberOfTrailingZeros(emptyAfter) + (Integer.numberOfLeadingZeros(emptyBefore) - 24) < GROUP_SIZE;
+		return wasNeverFull ? EMPTY : DELETED;
+	}
+
+	/* Removes the entry at a FULL slot, preferring EMPTY over a tombstone (see vacatedCtrl). */
+	private void eraseAt(int idx) {
+		if (ctrl == TINY_CTRL) {
+			setEntryAt(idx, null, null); // small mode: a null key is a free slot
+			size--;
+			modCount++;
+			return;
+		}
+		byte tag = vacatedCtrl(ctrl, idx);
+		setCtrlAt(ctrl, idx, tag);
+		setEntryAt(idx, null, null);
+		size--;
+		modCount++;
+		if (tag == DELETED) tombstones++;
 	}
 
 	/* Resize/rehash */
 	private void maybeRehash() {
+		if (ctrl == EMPTY_CTRL) {
+			if (tinyLinearScan) {
+				allocateTiny();
+			} else {
+				rehash(capacity); // first insert: allocate at the requested capacity
+			}
+			return;
+		}
+		if (ctrl == TINY_CTRL) return; // small mode grows only when an absent key finds no free slot
+		if (drainCtrl != null) resizeStep();
+		if (probeAlarm) reseed();
 		// trigger when over load or too many tombstones
 		boolean overMaxLoad = (size + tombstones) >= maxLoad;
 		boolean tooManyTombstones = tombstones > (size >>> 1);
 		if (!overMaxLoad && !tooManyTombstones) return;
 
 		// Only grow the table when we are actually over the max load threshold.
-		// If we are rehashing just to clean up tombstones, keep the capacity.
-		int newCap = overMaxLoad ? Math.max(capacity * 2, GROUP_SIZE) : capacity;
-		rehash(newCap);
+		// If we are rehashing just to clean up tombstones, keep the capacity and reuse the arrays.
+		if (overMaxLoad && incrementalResize) {
+			startIncrementalResize(Math.max(capacity * 2, GROUP_SIZE));
+		} else if (overMaxLoad) {
+			rehash(Math.max(capacity * 2, GROUP_SIZE));
+		} else {
+			rehashInPlace();
+		}
+	}
+
+	/* Post-removal housekeeping: halve the table under the shrink policy, otherwise the usual tombstone check. */
+	private void maybeShrinkOrRehash() {
+		if (ctrl == TINY_CTRL) return; // no tombstones, nothing to shrink
+		if (shouldShrink()) {
+			rehash(capacity >>> 1);
+		} else {
+			maybeRehash();
+		}
+	}
+
+	int options() {
+		return (slotProbing ? SLOT_PROBING : 0) | (hashes != null ? STORE_HASHES : 0) | (kvShift != 0 ? INTERLEAVED : 0)
+			| (incrementalResize ? INCREMENTAL_RESIZE : 0) | (tinyLinearScan ? TINY_LINEAR_SCAN : 0);
+	}
+
+	/**
+	 * Returns a shallow copy (keys and values are not cloned) with the same capacity, options, shrink policy and
+	 * allocator, made by copying the tables rather than re-inserting entries.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public SwissMap<K, V> clone() {
+		finishResize(); // the copy must not share the old table
+		SwissMap<K, V> copy;
+		try {
+			copy = (SwissMap<K, V>) super.clone();
+		} catch (CloneNotSupportedException e) {
+			throw new AssertionError(e);
+		}
+		copy.copyTablesFrom(this);
+		return copy;
+	}
+
+	/**
+	 * Copies the tables of a map with the same capacity, load factor and layout. A source whose tombstones
+	 * exceed a quarter of its entries gets them purged in the copy, which then re-places every entry.
+	 */
+	final void copyTablesFrom(SwissMap<? extends K, ? extends V> src) {
+		src.finishResize();
+		if (src.ctrl == EMPTY_CTRL) return; // nothing allocated: stay lazy
+		this.seed = src.seed; // the copied ctrl words were placed under it
+		this.reseedFloor = src.reseedFloor;
+		// Through the allocator: these arrays go back to it when dropped.
+		if (src.ctrl == TINY_CTRL) {
+			this.ctrl = TINY_CTRL;
+		} else {
+			this.ctrl = allocator.allocateLongs(src.ctrl.length);
+			System.arraycopy(src.ctrl, 0, this.ctrl, 0, src.ctrl.length);
+		}
+		this.keys = allocator.allocateObjects(src.keys.length);
+		System.arraycopy(src.keys, 0, this.keys, 0, src.keys.length);
+		if (src.vals == src.keys) {
+			this.vals = this.keys;
+		} else {
+			this.vals = allocator.allocateObjects(src.vals.length);
+			System.arraycopy(src.vals, 0, this.vals, 0, src.vals.length);
+		}
+		if (src.hashes != null) this.hashes = src.hashes.clone();
+		this.size = src.size;
+		this.tombstones = src.tombstones;
+		this.maxLoad = src.maxLoad;
+		this.rehashes++;
+		if (tombstones > (size >>> 2)) rehashInPlace();
+	}
+
+	@Override
+	public void trimToSize() {
+		if (size == 0) {
+			// Nothing to keep: drop back to the shared empty tables.
+			init(0);
+			if (hashes != null) hashes = EMPTY_HASHES;
+			return;
+		}
+		if (tinyLinearScan && size <= TINY_SLOTS) {
+			if (ctrl != TINY_CTRL) toTiny();
+			return;
+		}
+		int target = Utils.capacityFor(size, GROUP_SIZE, loadFactor);
+		if (target < capacity) {
+			rehash(target);
+		} else if (tombstones > 0) {
+			rehashInPlace();
+		}
+	}
+
+	/**
+	 * Hash-flooding response to {@link #probeAlarm}: draws a new random seed and re-places every entry in place.
+	 * A flood of keys with equal {@code hashCode()} values is still clustered afterwards, so the next reseed has
+	 * to wait until the map has doubled; rehash cost stays amortized like growth.
+	 */
+	private void reseed() {
+		probeAlarm = false;
+		if (size < reseedFloor) return;
+		reseedFloor = size << 1;
+		long s;
+		do {
+			s = ThreadLocalRandom.current().nextLong();
+		} while (s == 0);
+		seed = s;
+		rehashInPlace();
+	}
+
+	/**
+	 * Same-capacity rehash that drops tombstones without allocating (Abseil's "drop deletes without resize").
+	 * Tombstones become EMPTY and FULL slots become DELETED, meaning "not placed yet". Each pending entry then
+	 * moves to the first free slot of its probe sequence. If that slot holds another pending entry, the two
+	 * swap and the displaced one is processed next.
+	 */
+	private void rehashInPlace() {
+		finishResize();
+		long[] ctrl = this.ctrl;
+		Object[] keys = this.keys;
+		Object[] vals = this.vals;
+		int[] hashes = this.hashes;
+		int nGroups = ctrl.length - 1;
+		for (int g = 0; g < nGroups; g++) {
+			ctrl[g] = convertSpecialToEmptyAndFullToDeleted(ctrl[g]);
+		}
+		ctrl[nGroups] = ctrl[0];
+
+		int mask = capacity - 1;
+		for (int i = 0; i <= mask; i++) {
+			if (!isDeleted(ctrlAt(ctrl, i))) continue;
+			int h = (hashes != null) ? hashes[i] : hash(keys[keyIndex(i)]);
+			byte h2 = h2(h);
+			int start = probeStart(h1(h), mask);
+			int target = firstNonFull(ctrl, start, mask);
+			// Same probe group (relative to the hash) as before: lookups already find it here.
+			if ((((target - start) & mask) >>> 3) == (((i - start) & mask) >>> 3)) {
+				setCtrlAt(ctrl, i, h2);
+				continue;
+			}
+			int ki = keyIndex(i), vi = valIndex(i);
+			int kt = keyIndex(target), vt = valIndex(target);
+			if (ctrlAt(ctrl, target) == EMPTY) {
+				keys[kt] = keys[ki];
+				vals[vt] = vals[vi];
+				if (hashes != null) hashes[target] = h;
+				setCtrlAt(ctrl, target, h2);
+				keys[ki] = null;
+				vals[vi] = null;
+				setCtrlAt(ctrl, i, EMPTY);
+			} else {
+				// target is still pending: swap entries and reprocess slot i.
+				Object k = keys[kt];
+				Object v = vals[vt];
+				keys[kt] = keys[ki];
+				vals[vt] = vals[vi];
+				keys[ki] = k;
+				vals[vi] = v;
+				if (hashes != null) {
+					hashes[i] = hashes[target];
+					hashes[target] = h;
+				}
+				setCtrlAt(ctrl, target, h2);
+				i--;
+			}
+		}
+		this.tombstones = 0;
+		this.rehashes++; // entries moved, and after a reseed even a table without tombstones changes
+	}
+
+	/* First EMPTY or DELETED slot on the probe sequence starting at pos. */
+	private int firstNonFull(long[] ctrl, int pos, int mask) {
+		int step = 0;
+		for (;;) {
+			long word = ctrlWindow(ctrl, pos);
+			int freeMask = eqMask(word, EMPTY) | eqMask(word, DELETED);
+			if (freeMask != 0) return (pos + Integer.numberOfTrailingZeros(freeMask)) & mask;
+			pos = (pos + ((++step) << 3)) & mask; // triangular (quadratic) probing over groups
+		}
 	}
 
 	private void rehash(int newCapacity) {
+		finishResize();
 		long[] oldCtrl = this.ctrl;
 		Object[] oldKeys = this.keys;
 		Object[] oldVals = this.vals;
-		int oldCap = (oldCtrl == null) ? 0 : oldCtrl.length * GROUP_SIZE;
+		int[] oldHashes = this.hashes;
+		int oldCap = (oldCtrl == null) ? 0 : (oldCtrl.length - 1) * GROUP_SIZE; // exclude mirrored tail word
+
+		int oldSize = this.size;
+		allocateTables(newCapacity);
+		if (oldCtrl == EMPTY_CTRL) return;
+		if (oldCtrl == TINY_CTRL) {
+			for (int i = 0; i < TINY_SLOTS && size < oldSize; i++) {
+				Object k = oldKeys[keyIndex(i)];
+				if (k != null) insertFresh(castKey(k), castValue(oldVals[valIndex(i)]), hash(k));
+			}
+			releaseArrays(oldCtrl, oldKeys, oldVals);
+			return;
+		}
+
+		for (int i = 0; i < oldCap; i++) {
+			byte c = ctrlAt(oldCtrl, i);
+			if (!isFull(c)) continue;
+			K k = castKey(oldKeys[keyIndex(i)]);
+			V v = castValue(oldVals[valIndex(i)]);
+			// STORE_HASHES: reuse the stored hash instead of calling hashCode() again.
+			insertFresh(k, v, (oldHashes != null) ? oldHashes[i] : hash(k));
+		}
+		releaseArrays(oldCtrl, oldKeys, oldVals);
+	}
 
+	/* Replaces the tables with empty ones of (at least) newCapacity slots; the old arrays are the caller's. */
+	private void allocateTables(int newCapacity) {
 		int desiredGroups = Math.max(1, (Math.max(newCapacity, GROUP_SIZE) + GROUP_SIZE - 1) / GROUP_SIZE);
-		desiredGroups = ceilPow2(desiredGroups);
+		desiredGroups = Utils.ceilPow2(desiredGroups);
 		this.capacity = desiredGroups * GROUP_SIZE;
-		this.ctrl = new long[desiredGroups];
+		this.ctrl = allocator.allocateLongs(desiredGroups + 1); // +1 mirrored tail word
 		Arrays.fill(this.ctrl, broadcast(EMPTY));
-		this.keys = new Object[this.capacity];
-		this.vals = new Object[this.capacity];
+		if (kvShift != 0) {
+			this.keys = this.vals = allocator.allocateObjects(this.capacity << 1);
+		} else {
+			this.keys = allocator.allocateObjects(this.capacity);
+			this.vals = allocator.allocateObjects(this.capacity);
+		}
+		if (this.hashes != null) this.hashes = new int[this.capacity];
 		this.size = 0;
 		this.tombstones = 0;
-		this.maxLoad = calcMaxLoad(this.capacity);
+		this.maxLoad = Utils.calcMaxLoad(this.capacity, loadFactor);
+		this.rehashes++;
+	}
 
-		if (oldCtrl == null) return;
+	/*
+	 * INCREMENTAL_RESIZE. The current table becomes the drained table and an empty one of newCapacity slots
+	 * takes its place; size keeps counting the entries of both. Old groups move over in ascending order, a few per
+	 * mutation (resizeStep), and a lookup that misses the new table moves its hit across (promoteFromDrained).
+	 * Growth only starts once the previous move has finished, which at RESIZE_STEP_GROUPS per mutation happens
+	 * long before the new table fills up.
+	 */
+	private void startIncrementalResize(int newCapacity) {
+		finishResize();
+		this.drainCtrl = ctrl;
+		this.drainKeys = keys;
+		this.drainVals = vals;
+		this.drainHashes = hashes;
+		this.drainGroup = 0;
+		int entries = size;
+		allocateTables(newCapacity);
+		this.size = entries;
+		resizeStep();
+	}
 
-		for (int i = 0; i < oldCap; i++) {
-			byte c = ctrlAt(oldCtrl, i);
-			if (!isFull(c)) continue;
-			K k = castKey(oldKeys[i]);
-			V v = castValue(oldVals[i]);
-			insertFresh(k, v);
+	/* Moves the next RESIZE_STEP_GROUPS groups of the drained table; releases it after the last one. */
+	private void resizeStep() {
+		long[] drainCtrl = this.drainCtrl;
+		int nGroups = drainCtrl.length - 1; // exclude mirrored tail word
+		int end = Math.min(nGroups, drainGroup + RESIZE_STEP_GROUPS);
+		for (int g = drainGroup; g < end; g++) {
+			long full = ~drainCtrl[g] & BITMASK_MSB;
+			while (full != 0) {
+				int idx = (g << 3) + (Long.numberOfTrailingZeros(full) >>> 3);
+				if (drainKeys[keyIndex(idx)] != null) moveDrained(idx); // null: promoted by a lookup already
+				full &= full - 1; // clear LSB
+			}
 		}
+		drainGroup = end;
+		rehashes++; // slots found before this step may have been taken
+		if (end == nGroups) dropDrainedTable();
+	}
+
+	/* Completes an INCREMENTAL_RESIZE in progress, if any (before whole-table walks, copies and rebuilds). */
+	private void finishResize() {
+		while (drainCtrl != null) resizeStep();
+	}
+
+	private void dropDrainedTable() {
+		if (drainCtrl == null) return;
+		releaseArrays(drainCtrl, drainKeys, drainVals);
+		drainCtrl = null;
+		drainKeys = null;
+		drainVals = null;
+		drainHashes = null;
+	}
+
+	/* Moves the drained entry at old slot i into the new table and returns its new slot. */
+	private int moveDrained(int i) {
+		int ki = keyIndex(i), vi = valIndex(i);
+		K k = castKey(drainKeys[ki]);
+		V v = castValue(drainVals[vi]);
+		int h = (drainHashes != null) ? drainHashes[i] : hash(k);
+		drainKeys[ki] = null; // marks the old slot as moved; its ctrl byte stays FULL
+		drainVals[vi] = null;
+		int mask = capacity - 1;
+		int slot = firstNonFull(ctrl, probeStart(h1(h), mask), mask);
+		if (isDeleted(ctrlAt(ctrl, slot))) tombstones--;
+		setEntryAt(slot, k, v);
+		if (hashes != null) hashes[slot] = h;
+		setCtrlAt(ctrl, slot, h2(h));
+		return slot;
+	}
+
+	/**
+	 * Second half of a lookup during an INCREMENTAL_RESIZE: finds {@code key} in the drained table and moves it
+	 * to the new one, so callers always get a slot of the current table. Returns -1 if it is not there either.
+	 */
+	private int promoteFromDrained(Object key, int smearedHash) {
+		byte h2 = h2(smearedHash);
+		long[] ctrl = this.drainCtrl;
+		Object[] keys = this.drainKeys;
+		int[] hashes = this.drainHashes;
+		int kvShift = this.kvShift;
+		int mask = ((ctrl.length - 1) << 3) - 1; // exclude mirrored tail word
+		int pos = probeStart(h1(smearedHash), mask);
+		int step = 0;
+		for (;;) {
+			long word = ctrlWindow(ctrl, pos);
+			int eqMask = eqMask(word, h2);
+			while (eqMask != 0) {
+				int idx = (pos + Integer.numberOfTrailingZeros(eqMask)) & mask;
+				Object k = keys[idx << kvShift];
+				// Moved entries leave a null key behind a FULL ctrl byte.
+				if (k == key || (k != null && (hashes == null || hashes[idx] == smearedHash) && keyEquals(k, key))) {
+					rehashes++; // the new table just took a free slot
+					return moveDrained(idx);
+				}
+				eqMask &= eqMask - 1; // clear LSB
+			}
+			if (eqMask(word, EMPTY) != 0) return -1;
+			pos = (pos + ((++step) << 3)) & mask; // triangular (quadratic) probing over groups
+		}
+	}
+
+	/*
+	 * TINY_LINEAR_SCAN small mode: ctrl is TINY_CTRL and keys/vals hold TINY_SLOTS slots in the usual layout, a
+	 * null key marking a free slot. Entries do not move while the map stays small, so slot handles, iterators and
+	 * cursors work as they do on a table. capacity keeps the size of the table the map grows into.
+	 */
+	private void allocateTiny() {
+		this.ctrl = TINY_CTRL;
+		if (kvShift != 0) {
+			this.keys = this.vals = allocator.allocateObjects(TINY_SLOTS << 1);
+		} else {
+			this.keys = allocator.allocateObjects(TINY_SLOTS);
+			this.vals = allocator.allocateObjects(TINY_SLOTS);
+		}
+		this.size = 0;
+		this.tombstones = 0;
+		this.rehashes++;
+	}
+
+	/* Leaves small mode: entry TINY_SLOTS + 1 needs a table. */
+	private void growFromTiny() {
+		rehash(Math.max(capacity, Utils.capacityFor(TINY_SLOTS, GROUP_SIZE, loadFactor)));
+	}
+
+	/* Small-mode lookup: no hashing, at most one equals call per entry. */
+	private int tinyIndexOf(Object key) {
+		Object[] keys = this.keys;
+		int kvShift = this.kvShift;
+		int left = size;
+		for (int i = 0; left > 0; i++) {
+			Object k = keys[i << kvShift];
+			if (k == null) continue;
+			if (k == key || keyEquals(k, key)) return i;
+			left--;
+		}
+		return -1;
+	}
+
+	/* Small-mode findSlot: the slot holding key, else ~(first free slot); ~0 when full (insertAbsent grows first). */
+	private int tinySlot(Object key) {
+		int idx = tinyIndexOf(key);
+		if (idx >= 0) return idx;
+		Object[] keys = this.keys;
+		for (int i = 0; i < TINY_SLOTS; i++) {
+			if (keys[i << kvShift] == null) return ~i;
+		}
+		return ~0;
+	}
+
+	/* Small-mode putValHashed. */
+	private V tinyPut(K key, V value, int smearedHash) {
+		int slot = tinySlot(key);
+		if (slot >= 0) {
+			int vi = valIndex(slot);
+			V old = castValue(vals[vi]);
+			vals[vi] = value;
+			return old;
+		}
+		if (size >= TINY_SLOTS) {
+			growFromTiny();
+			return putValHashed(key, value, smearedHash);
+		}
+		setEntryAt(~slot, key, value);
+		size++;
+		modCount++;
+		return null;
+	}
+
+	/* MSB-per-lane FULL mask of group g, as ~ctrl[g] & BITMASK_MSB gives for a table (occupied slots in small mode). */
+	private long groupFullLanes(long[] ctrl, int g) {
+		if (ctrl != TINY_CTRL) return ~ctrl[g] & BITMASK_MSB;
+		long full = 0;
+		for (int i = 0; i < TINY_SLOTS; i++) {
+			if (keys[keyIndex(i)] != null) full |= 0x80L << (i << 3);
+		}
+		return full;
+	}
+
+	/* Back to small mode for trimToSize; the next growth starts over from the smallest table. */
+	private void toTiny() {
+		finishResize();
+		long[] oldCtrl = this.ctrl;
+		Object[] oldKeys = this.keys;
+		Object[] oldVals = this.vals;
+		allocateTiny();
+		int nGroups = oldCtrl.length - 1; // exclude mirrored tail word
+		for (int g = 0; g < nGroups; g++) {
+			long full = ~oldCtrl[g] & BITMASK_MSB;
+			while (full != 0) {
+				int idx = (g << 3) + (Long.numberOfTrailingZeros(full) >>> 3);
+				setEntryAt(size++, castKey(oldKeys[keyIndex(idx)]), castValue(oldVals[valIndex(idx)]));
+				full &= full - 1; // clear LSB
+			}
+		}
+		releaseArrays(oldCtrl, oldKeys, oldVals);
+		if (hashes != null) hashes = EMPTY_HASHES;
+		this.capacity = Utils.capacityFor(TINY_SLOTS, GROUP_SIZE, loadFactor);
+		this.maxLoad = Utils.calcMaxLoad(this.capacity, loadFactor);
+	}
+
+	private void releaseArrays(long[] ctrl, Object[] keys, Object[] vals) {
+		if (ctrl != TINY_CTRL) allocator.release(ctrl); // shared sentinel
+		allocator.release(keys);
+		if (vals != keys) allocator.release(vals); // INTERLEAVED: one shared table
+	}
+
+	/**
+	 * Routes table allocation through {@code allocator} (default {@link TableAllocator#HEAP}); arrays dropped by
+	 * later rehashes, {@link #trimToSize()}, {@link #reset(int)} and {@link #releaseTables()} go back to it.
+	 * Tables allocated before the call are released to the new allocator.
+	 */
+	public void setTableAllocator(TableAllocator allocator) {
+		this.allocator = Objects.requireNonNull(allocator);
+	}
+
+	/**
+	 * Removes all entries and hands the tables back to the allocator, e.g. when a short-lived map is done.
+	 * The map stays usable: the next insert allocates a table of the same capacity.
+	 */
+	public void releaseTables() {
+		init(capacity);
+		if (hashes != null) hashes = EMPTY_HASHES;
 	}
 
 	/* fresh-table insertion used only during rehash */
-	private void insertFresh(K key, V value) {
-		int h = hash(key);
+	private void insertFresh(K key, V value, int h) {
 		int h1 = h1(h);
 		byte h2 = h2(h);
 		long[] ctrl = this.ctrl; // local snapshot 
-		int mask = ctrl.length - 1; // Derive mask from the array we index into (ctrl) to help JIT range-check elimination.
-		int g = h1 & mask;
+		int mask = capacity - 1; // slot mask
+		int pos = probeStart(h1, mask);
 		int step = 0;
 		for (;;) {
-			long word = ctrl[g];
+			long word = ctrlWindow(ctrl, pos);
 			int emptyMask = eqMask(word, EMPTY);
 			if (emptyMask != 0) {
-				int base = g << 3;
-				int idx = base + Integer.numberOfTrailingZeros(emptyMask);
+				int idx = (pos + Integer.numberOfTrailingZeros(emptyMask)) & mask;
 				// Publish entry first, then mark ctrl as FULL.
 				setEntryAt(idx, key, value);
+				if (hashes != null) hashes[idx] = h;
 				setCtrlAt(ctrl, idx, h2);
 				size++;
 				return;
 			}
-			g = (g + (++step)) & mask; // triangular (quadratic) probing over groups
+			pos = (pos + ((++step) << 3)) & mask; // triangular (quadratic) probing over groups
 		}
 	}
 
@@ -316,75 +1031,444 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 		return findIndex(key) >= 0;
 	}
 
-	@Override
-	public boolean containsValue(Object value) {
-		for (int i = 0; i < capacity; i++) {
-			if (isFull(ctrlAt(ctrl, i))) {
-				if (Objects.equals(vals[i], value)) return true;
+	@Override
+	public boolean containsValue(Object value) {
+		if (size == 0) return false;
+		finishResize();
+		if (ctrl == TINY_CTRL) {
+			for (int i = 0; i < TINY_SLOTS; i++) {
+				if (keys[keyIndex(i)] != null && Objects.equals(vals[valIndex(i)], value)) return true;
+			}
+			return false;
+		}
+		for (int i = 0; i < capacity; i++) {
+			if (isFull(ctrlAt(ctrl, i))) {
+				if (Objects.equals(vals[valIndex(i)], value)) return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public V put(K key, V value) {
+		maybeRehash();
+		return putVal(key, value);
+	}
+
+	@Override
+	public V remove(Object key) {
+		int idx = findIndex(key);
+		if (idx < 0) return null;
+		V old = castValue(vals[valIndex(idx)]);
+		eraseAt(idx);
+		maybeShrinkOrRehash();
+		return old;
+	}
+
+	/**
+	 * Testing/benchmark only: delete without leaving a tombstone.
+	 * Quadratic probing breaks the contiguity assumption required for backward-shift deletion.
+	 * This method performs a same-capacity in-place rehash after deletion to ensure there are no tombstones.
+	 */
+	public V removeWithoutTombstone(Object key) {
+		int idx = findIndex(key);
+		if (idx < 0) return null;
+		V old = castValue(vals[valIndex(idx)]);
+		eraseAt(idx);
+		if (tombstones > 0) rehashInPlace();
+		return old;
+	}
+
+	@Override
+	public void putAll(Map<? extends K, ? extends V> m) {
+		putEntries(m);
+	}
+
+	private void putEntries(Map<? extends K, ? extends V> m) {
+        if (m.isEmpty()) return;
+        presizeFor(m.size());
+
+        // Batch insert, avoiding checking if resizing is needed on each put
+        for (Entry<? extends K, ? extends V> e : m.entrySet()) {
+            putVal(e.getKey(), e.getValue());
+        }
+	}
+
+	/* Grows once so that {@code incoming} new keys fit without a resize in between (putAll, mergeAll). */
+	private void presizeFor(int incoming) {
+		boolean unsized = ctrl == EMPTY_CTRL || ctrl == TINY_CTRL;
+		if (unsized && tinyLinearScan && size + incoming <= TINY_SLOTS) {
+			if (ctrl == EMPTY_CTRL) allocateTiny();
+			return;
+		}
+        // Pre-check if resizing is needed, keeping consistent logic with maybeRehash
+		// account for tombstone reuse when projecting load before rehash
+		// TODO: consider overlap-heavy putAll cases to avoid overestimating pre-size
+		int projectedSize = size + tombstones + Math.max(0, incoming - tombstones);
+        boolean overMaxLoad = projectedSize >= maxLoad || unsized;
+
+        if (overMaxLoad) {
+            // Directly use newSize as the new capacity, rehash method will automatically adjust to appropriate capacity
+            int newSize = this.size + incoming;
+            // Unallocated (or small-mode) tables only need the requested capacity, not twice that.
+            int newCapacity = unsized ? capacity : Math.max(capacity * 2, GROUP_SIZE);
+            // Ensure capacity is large enough to accommodate all elements
+            while (((int) (newCapacity * loadFactor)) < newSize) {
+                newCapacity = Math.max(newCapacity * 2, GROUP_SIZE);
+            }
+            rehash(newCapacity);
+        }
+	}
+
+	/* Map defaults below probe once: a hit reuses its slot, a miss inserts at the free slot the probe found. */
+
+	@Override
+	public V getOrDefault(Object key, V defaultValue) {
+		int idx = findIndex(key);
+		return (idx >= 0) ? castValue(vals[valIndex(idx)]) : defaultValue;
+	}
+
+	@Override
+	public V putIfAbsent(K key, V value) {
+		int h = hash(key);
+		int idx = findSlot(key, h);
+		if (idx < 0) {
+			insertAbsent(key, value, h, ~idx);
+			return null;
+		}
+		int vi = valIndex(idx);
+		V old = castValue(vals[vi]);
+		if (old == null) vals[vi] = value;
+		return old;
+	}
+
+	@Override
+	public V replace(K key, V value) {
+		int idx = findIndex(key);
+		if (idx < 0) return null;
+		int vi = valIndex(idx);
+		V old = castValue(vals[vi]);
+		vals[vi] = value;
+		return old;
+	}
+
+	@Override
+	public boolean replace(K key, V oldValue, V newValue) {
+		int idx = findIndex(key);
+		if (idx < 0) return false;
+		int vi = valIndex(idx);
+		if (!Objects.equals(vals[vi], oldValue)) return false;
+		vals[vi] = newValue;
+		return true;
+	}
+
+	@Override
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+		Objects.requireNonNull(mappingFunction);
+		int h = hash(key);
+		int idx = findSlot(key, h);
+		if (idx >= 0) {
+			V old = castValue(vals[valIndex(idx)]);
+			if (old != null) return old;
+		}
+		int rehashesBefore = this.rehashes;
+		int modCountBefore = this.modCount;
+		V value = mappingFunction.apply(key);
+		if (value == null) return null;
+		if (rehashes != rehashesBefore || modCount != modCountBefore) return applyFresh(key, value);
+		if (idx >= 0) {
+			vals[valIndex(idx)] = value;
+		} else {
+			insertAbsent(key, value, h, ~idx);
+		}
+		return value;
+	}
+
+	@Override
+	public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		Objects.requireNonNull(remappingFunction);
+		int idx = findIndex(key);
+		if (idx < 0) return null;
+		V old = castValue(vals[valIndex(idx)]);
+		if (old == null) return null;
+		int rehashesBefore = this.rehashes;
+		int modCountBefore = this.modCount;
+		V value = remappingFunction.apply(key, old);
+		if (rehashes != rehashesBefore || modCount != modCountBefore) return applyFresh(key, value);
+		if (value == null) {
+			removeAt(idx);
+		} else {
+			vals[valIndex(idx)] = value;
+		}
+		return value;
+	}
+
+	@Override
+	public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		Objects.requireNonNull(remappingFunction);
+		int h = hash(key);
+		int idx = findSlot(key, h);
+		V old = (idx >= 0) ? castValue(vals[valIndex(idx)]) : null;
+		int rehashesBefore = this.rehashes;
+		int modCountBefore = this.modCount;
+		V value = remappingFunction.apply(key, old);
+		if (rehashes != rehashesBefore || modCount != modCountBefore) return applyFresh(key, value);
+		if (idx >= 0) {
+			if (value == null) {
+				removeAt(idx);
+			} else {
+				vals[valIndex(idx)] = value;
+			}
+		} else if (value != null) {
+			insertAbsent(key, value, h, ~idx);
+		}
+		return value;
+	}
+
+	@Override
+	public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+		Objects.requireNonNull(value);
+		Objects.requireNonNull(remappingFunction);
+		return mergeHashed(key, value, hash(key), remappingFunction);
+	}
+
+	private V mergeHashed(K key, V value, int h, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+		int idx = findSlot(key, h);
+		if (idx < 0) {
+			insertAbsent(key, value, h, ~idx);
+			return value;
+		}
+		int vi = valIndex(idx);
+		V old = castValue(vals[vi]);
+		if (old == null) {
+			vals[vi] = value;
+			return value;
+		}
+		int rehashesBefore = this.rehashes;
+		int modCountBefore = this.modCount;
+		V merged = remappingFunction.apply(old, value);
+		if (rehashes != rehashesBefore || modCount != modCountBefore) return applyFresh(key, merged);
+		if (merged == null) {
+			removeAt(idx);
+		} else {
+			vals[vi] = merged;
+		}
+		return merged;
+	}
+
+	/**
+	 * {@link #merge}s every entry of {@code other} into this map: absent keys (or keys mapped to {@code null}) take
+	 * the other value, present ones {@code remappingFunction.apply(thisValue, otherValue)}, and a {@code null}
+	 * result removes the key. Walks {@code other}'s table group by group, grows this table at most once up front
+	 * and probes once per key; stored hashes ({@link #STORE_HASHES}) are reused instead of calling
+	 * {@code hashCode()}. {@code other} must not be modified during the call.
+	 *
+	 * @throws NullPointerException if {@code other} holds a {@code null} value, as {@link #merge} would
+	 */
+	public void mergeAll(SwissMap<? extends K, ? extends V> other,
+			BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+		Objects.requireNonNull(remappingFunction);
+		if (other == this) other = clone(); // remapping may remove entries from the table being walked
+		if (other.size == 0) return;
+		other.finishResize();
+		presizeFor(other.size);
+		long[] otherCtrl = other.ctrl;
+		int nGroups = otherCtrl.length - 1; // exclude mirrored tail word
+		for (int g = 0; g < nGroups; g++) {
+			long full = other.groupFullLanes(otherCtrl, g);
+			while (full != 0) {
+				int idx = (g << 3) + (Long.numberOfTrailingZeros(full) >>> 3);
+				full &= full - 1;
+				K k = castKey(other.keys[other.keyIndex(idx)]);
+				V v = Objects.requireNonNull(castValue(other.vals[other.valIndex(idx)]));
+				// Stored hashes are only this map's hashes if both maps hash keys the same way; tiny mode keeps none.
+				boolean stored = other.hashes != null && otherCtrl != TINY_CTRL && other.strategy == strategy;
+				int h = stored ? other.hashes[idx] : hash(k);
+				mergeHashed(k, v, h, remappingFunction);
+			}
+		}
+	}
+
+	/*
+	 * Slot handles ("entry API"): an int naming a slot, so read-modify-write loops probe once and allocate
+	 * nothing. A handle is only valid until the next structural change (insert of a new key, removal, clear,
+	 * trimToSize); any of those may rehash and move entries. Overwriting values through a handle is safe.
+	 */
+
+	/**
+	 * Returns the slot handle of {@code key}, or {@code -1} if it is absent. Never inserts or resizes.
+	 */
+	public int slotOf(Object key) {
+		return findIndex(key);
+	}
+
+	/**
+	 * Returns a slot handle for {@code key}, inserting it with a {@code null} value if absent. The handle is
+	 * the slot itself ({@code >= 0}) when the key was already present, and {@code ~slot} ({@code < 0}) when it
+	 * was just inserted; the accessors below accept both forms.
+	 * <pre>{@code
+	 * int s = counts.slotFor(word);
+	 * counts.setValueAtSlot(s, s < 0 ? 1 : counts.valueAtSlot(s) + 1);
+	 * }</pre>
+	 */
+	public int slotFor(K key) {
+		int h = hash(key);
+		int idx = findSlot(key, h);
+		if (idx >= 0) return idx;
+		return ~insertAbsent(key, null, h, ~idx);
+	}
+
+	/** Key stored at a handle from {@link #slotOf} or {@link #slotFor}. */
+	public K keyAtSlot(int handle) {
+		return castKey(keys[keyIndex(handle ^ (handle >> 31))]);
+	}
+
+	/** Value stored at a handle from {@link #slotOf} or {@link #slotFor}. */
+	public V valueAtSlot(int handle) {
+		return castValue(vals[valIndex(handle ^ (handle >> 31))]);
+	}
+
+	/** Replaces the value at a handle from {@link #slotOf} or {@link #slotFor}; returns the previous value. */
+	public V setValueAtSlot(int handle, V value) {
+		int vi = valIndex(handle ^ (handle >> 31)); // ~slot -> slot for freshly inserted handles
+		V old = castValue(vals[vi]);
+		vals[vi] = value;
+		return old;
+	}
+
+	/*
+	 * Batched lookups: with a table far larger than the last-level cache nearly every probe misses twice (ctrl
+	 * word, then key), and a one-key-at-a-time loop pays those misses back to back. Batching issues the loads of
+	 * several independent keys before any of them is compared, so their misses overlap.
+	 */
+
+	/**
+	 * {@code out[i] = get(keys[i])} for every {@code i < keys.length}.
+	 *
+	 * @throws NullPointerException if any key is null
+	 * @throws IllegalArgumentException if {@code out} is shorter than {@code keys}
+	 */
+	public void getAll(K[] keys, V[] out) {
+		checkBatchOutput(keys.length, out.length);
+		LookupBatch batch = new LookupBatch();
+		for (int from = 0; from < keys.length; from += LOOKUP_BATCH) {
+			int n = findBatch(keys, from, batch);
+			for (int j = 0; j < n; j++) {
+				int idx = batch.slot[j];
+				out[from + j] = (idx >= 0) ? castValue(vals[valIndex(idx)]) : null;
 			}
 		}
-		return false;
 	}
 
-	@Override
-	public V put(K key, V value) {
-		maybeRehash();
-		return putVal(key, value);
+	/**
+	 * {@code out[i] = containsKey(keys[i])} for every {@code i < keys.length}.
+	 *
+	 * @throws NullPointerException if any key is null
+	 * @throws IllegalArgumentException if {@code out} is shorter than {@code keys}
+	 */
+	public void containsAll(K[] keys, boolean[] out) {
+		checkBatchOutput(keys.length, out.length);
+		LookupBatch batch = new LookupBatch();
+		for (int from = 0; from < keys.length; from += LOOKUP_BATCH) {
+			int n = findBatch(keys, from, batch);
+			for (int j = 0; j < n; j++) out[from + j] = batch.slot[j] >= 0;
+		}
 	}
 
-	@Override
-	public V remove(Object key) {
-		int idx = findIndex(key);
-		if (idx < 0) return null;
-		V old = castValue(vals[idx]);
-		setCtrlAt(ctrl, idx, DELETED);
-		setEntryAt(idx, null, null);
-		size--;
-		tombstones++;
-		maybeRehash();
-		return old;
+	/** Per-call scratch for {@link #findBatch}. */
+	private static final class LookupBatch {
+		final int[] hash = new int[LOOKUP_BATCH];
+		final int[] pos = new int[LOOKUP_BATCH];
+		final long[] word = new long[LOOKUP_BATCH];
+		final Object[] candidate = new Object[LOOKUP_BATCH];
+		final int[] slot = new int[LOOKUP_BATCH];
+	}
+
+	private static void checkBatchOutput(int keys, int out) {
+		if (out < keys) throw new IllegalArgumentException("output array too short: " + out + " < " + keys);
 	}
 
 	/**
-	 * Testing/benchmark only: delete without leaving a tombstone.
-	 * Quadratic probing breaks the contiguity assumption required for backward-shift deletion.
-	 * This method now performs a same-capacity rehash after deletion to ensure there are no tombstones.
+	 * Resolves up to {@link #LOOKUP_BATCH} keys starting at {@code from} into {@code batch.slot} (slot or -1)
+	 * and returns how many were resolved. Three passes: hash and load the first ctrl window of every key, load
+	 * the key slot of every first H2 match, then compare (continuing the probe where needed).
 	 */
-	public V removeWithoutTombstone(Object key) {
-		int idx = findIndex(key);
-		if (idx < 0) return null;
-		V old = castValue(vals[idx]);
-		setCtrlAt(ctrl, idx, DELETED);
-		setEntryAt(idx, null, null);
-		rehash(capacity);
-		return old;
+	private int findBatch(Object[] query, int from, LookupBatch batch) {
+		int n = Math.min(LOOKUP_BATCH, query.length - from);
+		int[] hash = batch.hash;
+		int[] pos = batch.pos;
+		long[] word = batch.word;
+		for (int j = 0; j < n; j++) hash[j] = hash(query[from + j]);
+		finishResize(); // a drained-table hit moves entries under the windows loaded for the rest of the batch
+		if (size == 0) {
+			Arrays.fill(batch.slot, 0, n, -1);
+			return n;
+		}
+		long[] ctrl = this.ctrl;
+		Object[] keys = this.keys;
+		int kvShift = this.kvShift;
+		int mask = (keys.length >>> kvShift) - 1;
+		for (int j = 0; j < n; j++) {
+			pos[j] = probeStart(h1(hash[j]), mask);
+			word[j] = ctrlWindow(ctrl, pos[j]);
+		}
+		Object[] candidate = batch.candidate;
+		for (int j = 0; j < n; j++) {
+			int eqMask = eqMask(word[j], h2(hash[j]));
+			// Pull in the first candidate's key slot; the compare pass below finds it in cache.
+			candidate[j] = (eqMask == 0) ? null : keys[((pos[j] + Integer.numberOfTrailingZeros(eqMask)) & mask) << kvShift];
+		}
+		for (int j = 0; j < n; j++) {
+			batch.slot[j] = findIndexFrom(query[from + j], hash[j], pos[j], word[j]);
+			candidate[j] = null; // do not keep keys reachable from the scratch
+		}
+		return n;
 	}
 
-	@Override
-	public void putAll(Map<? extends K, ? extends V> m) {
-        if (m.isEmpty()) return;
-
-        // Pre-check if resizing is needed, keeping consistent logic with maybeRehash
-		// account for tombstone reuse when projecting load before rehash
-		// TODO: consider overlap-heavy putAll cases to avoid overestimating pre-size
-		int projectedSize = size + tombstones + Math.max(0, m.size() - tombstones);
-        boolean overMaxLoad = projectedSize >= maxLoad;
+	/**
+	 * Fallback for a mapping function that inserted or removed entries itself: the probed slot may be stale,
+	 * so the result is applied with a fresh probe ({@code null} removes the key).
+	 */
+	private V applyFresh(K key, V value) {
+		if (value == null) {
+			remove(key);
+		} else {
+			put(key, value);
+		}
+		return value;
+	}
 
-        if (overMaxLoad) {
-            // Directly use newSize as the new capacity, rehash method will automatically adjust to appropriate capacity
-            int newSize = this.size + m.size();
-            int newCapacity = Math.max(capacity * 2, GROUP_SIZE);
-            // Ensure capacity is large enough to accommodate all elements
-            while (((int) (newCapacity * loadFactor)) < newSize) {
-                newCapacity = Math.max(newCapacity * 2, GROUP_SIZE);
-            }
-            rehash(newCapacity);
-        }
+	/* Removes the FULL slot idx found by a probe, with the same housekeeping as remove(Object). */
+	private void removeAt(int idx) {
+		eraseAt(idx);
+		maybeShrinkOrRehash();
+	}
 
-        // Batch insert, avoiding checking if resizing is needed on each put
-        for (Entry<? extends K, ? extends V> e : m.entrySet()) {
-            putVal(e.getKey(), e.getValue());
-        }
+	/**
+	 * Inserts a key that {@link #findSlot} just missed and returns the slot used. {@code slot} stays valid unless
+	 * {@link #maybeRehash()} rebuilds the table first; only then is a free slot searched again (no {@code equals}
+	 * calls, the key is known to be absent).
+	 */
+	private int insertAbsent(K key, V value, int smearedHash, int slot) {
+		int rehashesBefore = this.rehashes;
+		int tombstonesBefore = this.tombstones;
+		maybeRehash();
+		if (ctrl == TINY_CTRL) {
+			if (size < TINY_SLOTS) {
+				if (rehashes != rehashesBefore) slot = ~tinySlot(key); // first insert: the small arrays are new
+				setEntryAt(slot, key, value);
+				size++;
+				modCount++;
+				return slot;
+			}
+			growFromTiny();
+		}
+		if (rehashes != rehashesBefore || tombstones != tombstonesBefore) {
+			int mask = capacity - 1;
+			slot = firstNonFull(ctrl, probeStart(h1(smearedHash), mask), mask);
+		}
+		insertAt(slot, key, value, smearedHash);
+		return slot;
 	}
 
     private V putVal(K key, V value) {
@@ -404,37 +1488,50 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 		long[] ctrl = this.ctrl; // local snapshot
 		Object[] keys = this.keys; // local snapshot
 		Object[] vals = this.vals; // local snapshot
-		// Derive mask from the array we index into (ctrl) to help JIT range-check elimination.
-		int mask = ctrl.length - 1;
-		int g = h1 & mask; // optimized modulo operation (same as h1 % nGroups)
+		int[] hashes = this.hashes; // local snapshot (null unless STORE_HASHES)
+		// Derive mask from the array we index into (keys) to help JIT range-check elimination.
+		int kvShift = this.kvShift;
+		int mask = (keys.length >>> kvShift) - 1;
+		int pos = probeStart(h1, mask); // optimized modulo operation (same as h1 % capacity)
 		int step = 0; // triangular probing step over groups
 		int firstTombstone = -1;
 		for (;;) {
-			long word = ctrl[g];
-			int base = g << 3;
+			long word = ctrlWindow(ctrl, pos);
 			int eqMask = eqMask(word, h2);
 			while (eqMask != 0) {
-				int idx = base + Integer.numberOfTrailingZeros(eqMask);
-				Object k = keys[idx];
+				int idx = (pos + Integer.numberOfTrailingZeros(eqMask)) & mask;
+				Object k = keys[idx << kvShift];
 				// Non-concurrent path does not need to keep the NULL-safe check.
-				if (k == key || k.equals(key)) {
-					V old = castValue(vals[idx]);
-					vals[idx] = value;
+				if (k == key || ((hashes == null || hashes[idx] == smearedHash) && keyEquals(k, key))) {
+					int vi = (idx << kvShift) + valOffset;
+					V old = castValue(vals[vi]);
+					vals[vi] = value;
 					return old;
 				}
 				eqMask &= eqMask - 1; // clear LSB
 			}
 			if (firstTombstone < 0) {
 				int delMask = eqMask(word, DELETED);
-				if (delMask != 0) firstTombstone = base + Integer.numberOfTrailingZeros(delMask);
+				if (delMask != 0) firstTombstone = (pos + Integer.numberOfTrailingZeros(delMask)) & mask;
 			}
 			int emptyMask = eqMask(word, EMPTY);
 			if (emptyMask != 0) {
-				int idx = base + Integer.numberOfTrailingZeros(emptyMask);
+				int idx = (pos + Integer.numberOfTrailingZeros(emptyMask)) & mask;
 				int target = (firstTombstone >= 0) ? firstTombstone : idx;
-				return insertAt(target, key, value, h2);
+				if (ctrl == TINY_CTRL) return tinyPut(key, value, smearedHash);
+				if (drainCtrl != null) {
+					int moved = promoteFromDrained(key, smearedHash);
+					if (moved >= 0) {
+						int vi = (moved << kvShift) + valOffset;
+						V old = castValue(vals[vi]);
+						vals[vi] = value;
+						return old;
+					}
+				}
+				return insertAt(target, key, value, smearedHash);
 			}
-			g = (g + (++step)) & mask; // triangular (quadratic) probing over groups
+			if (++step == longProbeGroups) probeAlarm = true; // hash-flooding watchdog, see reseed()
+			pos = (pos + (step << 3)) & mask; // triangular (quadratic) probing over groups
 		}
 	}
 
@@ -444,47 +1541,146 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 		long[] ctrl = this.ctrl; // local snapshot
 		Object[] keys = this.keys; // local snapshot
 		Object[] vals = this.vals; // local snapshot
-		int mask = ctrl.length - 1;
-		int g = h1 & mask;
+		int[] hashes = this.hashes; // local snapshot (null unless STORE_HASHES)
+		int kvShift = this.kvShift;
+		int mask = (keys.length >>> kvShift) - 1;
+		int pos = probeStart(h1, mask);
 		int step = 0;
 		int firstTombstone = -1;
 		for (;;) {
-			long word = ctrl[g]; // writer-side: plain is fine
-			int base = g << 3;
+			long word = ctrlWindow(ctrl, pos); // writer-side: plain is fine
 			int eqMask = eqMask(word, h2);
 			while (eqMask != 0) {
-				int idx = base + Integer.numberOfTrailingZeros(eqMask);
-				Object k = keys[idx];
+				int idx = (pos + Integer.numberOfTrailingZeros(eqMask)) & mask;
+				Object k = keys[idx << kvShift];
 				// Writers are under shard write lock; No need to keep the NULL-safe check.
-				if (k == key || k.equals(key)) {
-					V old = castValue(vals[idx]);
-					vals[idx] = value;
+				if (k == key || ((hashes == null || hashes[idx] == smearedHash) && keyEquals(k, key))) {
+					int vi = (idx << kvShift) + valOffset;
+					V old = castValue(vals[vi]);
+					vals[vi] = value;
 					return old;
 				}
 				eqMask &= eqMask - 1;
 			}
 			if (firstTombstone < 0) {
 				int delMask = eqMask(word, DELETED);
-				if (delMask != 0) firstTombstone = base + Integer.numberOfTrailingZeros(delMask);
+				if (delMask != 0) firstTombstone = (pos + Integer.numberOfTrailingZeros(delMask)) & mask;
 			}
 			int emptyMask = eqMask(word, EMPTY);
 			if (emptyMask != 0) {
-				int idx = base + Integer.numberOfTrailingZeros(emptyMask);
+				int idx = (pos + Integer.numberOfTrailingZeros(emptyMask)) & mask;
 				int target = (firstTombstone >= 0) ? firstTombstone : idx;
-				return insertAtConcurrent(target, key, value, h2);
+				return insertAtConcurrent(target, key, value, smearedHash);
+			}
+			if (++step == longProbeGroups) probeAlarm = true; // hash-flooding watchdog, see reseed()
+			pos = (pos + (step << 3)) & mask;
+		}
+	}
+
+	/**
+	 * Single probe shared by the compute/merge family: returns the slot holding {@code key}, or {@code ~slot}
+	 * for the slot an insert would use (first tombstone on the probe sequence, else the terminating EMPTY).
+	 * Unallocated tables return {@code ~0}; {@link #insertAbsent} re-locates the slot after allocating.
+	 */
+	private int findSlot(Object key, int smearedHash) {
+		if (ctrl == EMPTY_CTRL) return ~0;
+		if (ctrl == TINY_CTRL) return tinySlot(key);
+		int h1 = h1(smearedHash);
+		byte h2 = h2(smearedHash);
+		long[] ctrl = this.ctrl; // local snapshot
+		Object[] keys = this.keys; // local snapshot
+		int[] hashes = this.hashes; // local snapshot (null unless STORE_HASHES)
+		int kvShift = this.kvShift;
+		int mask = (keys.length >>> kvShift) - 1;
+		int pos = probeStart(h1, mask);
+		int step = 0;
+		int firstTombstone = -1;
+		for (;;) {
+			long word = ctrlWindow(ctrl, pos);
+			int eqMask = eqMask(word, h2);
+			while (eqMask != 0) {
+				int idx = (pos + Integer.numberOfTrailingZeros(eqMask)) & mask;
+				Object k = keys[idx << kvShift];
+				if (k == key || ((hashes == null || hashes[idx] == smearedHash) && keyEquals(k, key))) {
+					return idx;
+				}
+				eqMask &= eqMask - 1; // clear LSB
+			}
+			if (firstTombstone < 0) {
+				int delMask = eqMask(word, DELETED);
+				if (delMask != 0) firstTombstone = (pos + Integer.numberOfTrailingZeros(delMask)) & mask;
+			}
+			int emptyMask = eqMask(word, EMPTY);
+			if (emptyMask != 0) {
+				if (drainCtrl != null) {
+					int moved = promoteFromDrained(key, smearedHash);
+					if (moved >= 0) return moved;
+				}
+				return ~((firstTombstone >= 0) ? firstTombstone : (pos + Integer.numberOfTrailingZeros(emptyMask)) & mask);
 			}
-			g = (g + (++step)) & mask;
+			if (++step == longProbeGroups) probeAlarm = true; // hash-flooding watchdog, see reseed()
+			pos = (pos + (step << 3)) & mask; // triangular (quadratic) probing over groups
 		}
 	}
 
 	@Override
 	public void clear() {
-		Arrays.fill(ctrl, broadcast(EMPTY));
-		Arrays.fill(keys, null);
-		Arrays.fill(vals, null);
+		if (ctrl == EMPTY_CTRL) return; // never allocated, nothing to clear
+		dropDrainedTable(); // an unfinished resize has nothing left worth moving
+		if (size == 0 && tombstones == 0) return; // every slot is already EMPTY with null key/value
+		if (ctrl == TINY_CTRL) {
+			Arrays.fill(keys, null);
+			if (vals != keys) Arrays.fill(vals, null);
+		} else if (size <= (capacity >>> 3)) {
+			clearOccupiedGroups();
+		} else {
+			Arrays.fill(ctrl, broadcast(EMPTY));
+			Arrays.fill(keys, null);
+			if (vals != keys) Arrays.fill(vals, null);
+		}
 		size = 0;
+		modCount++;
 		tombstones = 0;
-		maxLoad = calcMaxLoad(capacity);
+		maxLoad = Utils.calcMaxLoad(capacity, loadFactor);
+	}
+
+	/**
+	 * Clear for sparse tables (reused scratch maps): one pass over the ctrl words, touching key/value slots only
+	 * in groups that hold entries, instead of filling arrays sized by capacity.
+	 */
+	private void clearOccupiedGroups() {
+		long[] ctrl = this.ctrl;
+		long emptyWord = broadcast(EMPTY);
+		int nGroups = ctrl.length - 1; // exclude mirrored tail word
+		for (int g = 0; g < nGroups; g++) {
+			long word = ctrl[g];
+			if (word == emptyWord) continue;
+			long full = ~word & BITMASK_MSB;
+			while (full != 0) {
+				int idx = (g << 3) + (Long.numberOfTrailingZeros(full) >>> 3);
+				keys[keyIndex(idx)] = null;
+				vals[valIndex(idx)] = null;
+				full &= full - 1;
+			}
+			ctrl[g] = emptyWord;
+		}
+		ctrl[nGroups] = emptyWord;
+	}
+
+	/**
+	 * Removes all entries and sizes the table for {@code expectedSize} entries, releasing a table that an earlier
+	 * burst grew far beyond that, so a reused map stays cheap to clear. A table of the same size is cleared in
+	 * place; otherwise the new one is allocated by the next insert.
+	 */
+	public void reset(int expectedSize) {
+		if (expectedSize < 0) throw new IllegalArgumentException("expectedSize must be >= 0: " + expectedSize);
+		int target = Utils.capacityFor(expectedSize, GROUP_SIZE, loadFactor);
+		if (target == capacity) {
+			clear();
+			return;
+		}
+		init(target);
+		if (hashes != null) hashes = EMPTY_HASHES;
 	}
 
 	@Override
@@ -502,14 +1698,71 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 		return new EntryView();
 	}
 
+	/**
+	 * Entries are visited in the same randomized order as the iterators.
+	 */
+	@Override
+	public MapCursor<K, V> cursor() {
+		return new Cursor();
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		Objects.requireNonNull(action);
+		if (size == 0) return;
+		finishResize();
+		long[] ctrl = this.ctrl; // local snapshot
+		Object[] keys = this.keys; // local snapshot
+		Object[] vals = this.vals; // local snapshot
+		int nGroups = ctrl.length - 1; // exclude mirrored tail word
+		RandomCycle cycle = new RandomCycle(nGroups, iterationSeed); // same group order as the iterators
+		for (int i = 0; i < nGroups; i++) {
+			int g = cycle.indexAt(i);
+			long full = groupFullLanes(ctrl, g);
+			while (full != 0) {
+				int idx = (g << 3) + (Long.numberOfTrailingZeros(full) >>> 3);
+				action.accept(castKey(keys[keyIndex(idx)]), castValue(vals[valIndex(idx)]));
+				full &= full - 1; // clear LSB
+			}
+		}
+	}
+
+	@Override
+	public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+		Objects.requireNonNull(function);
+		if (size == 0) return;
+		finishResize();
+		long[] ctrl = this.ctrl; // local snapshot
+		Object[] keys = this.keys; // local snapshot
+		Object[] vals = this.vals; // local snapshot
+		int nGroups = ctrl.length - 1; // exclude mirrored tail word
+		RandomCycle cycle = new RandomCycle(nGroups, iterationSeed);
+		for (int i = 0; i < nGroups; i++) {
+			int g = cycle.indexAt(i);
+			long full = groupFullLanes(ctrl, g);
+			while (full != 0) {
+				int idx = (g << 3) + (Long.numberOfTrailingZeros(full) >>> 3);
+				int vi = valIndex(idx);
+				vals[vi] = function.apply(castKey(keys[keyIndex(idx)]), castValue(vals[vi]));
+				full &= full - 1; // clear LSB
+			}
+		}
+	}
+
 	/* lookup utilities */
 	@Override
 	protected int findIndex(Object key) {
 		// Disallow null keys even on empty maps for consistent Map semantics in this project.
-		int h = hashNonNull(key);
+		if (ctrl == TINY_CTRL) return tinyIndexOf(requireKey(key)); // small mode never needs the hash
+		int h = hash(key);
 		return findIndexHashed(key, h);
 	}
 
+	@Override
+	protected int findIndex(Object key, int hash) {
+		return findIndexHashed(key, hash);
+	}
+
 	/**
 	 * Hash-injected lookup used by {@link #findIndex(Object)} and package-private fast paths.
 	 * Avoids re-hashing when callers already have {@link Hashing#smearedHash(Object)} (e.g., shard selection).
@@ -523,27 +1776,65 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 		byte h2 = h2(smearedHash);
 		long[] ctrl = this.ctrl; // local snapshot
 		Object[] keys = this.keys; // local snapshot
-		int mask = ctrl.length - 1; // Derive mask from the array we index into (ctrl) to help JIT range-check elimination.
-		int g = h1 & mask;
+		int[] hashes = this.hashes; // local snapshot (null unless STORE_HASHES)
+		int kvShift = this.kvShift;
+		int mask = (keys.length >>> kvShift) - 1; // Derive mask from the array we index into (keys) to help JIT range-check elimination.
+		int pos = probeStart(h1, mask);
 		int step = 0;
 		for (;;) {
-			long word = ctrl[g];
+			long word = ctrlWindow(ctrl, pos);
 			int eqMask = eqMask(word, h2);
 			while (eqMask != 0) {
-				int base = g << 3;
-				int idx = base + Integer.numberOfTrailingZeros(eqMask);
-				Object k = keys[idx];
+				int idx = (pos + Integer.numberOfTrailingZeros(eqMask)) & mask;
+				Object k = keys[idx << kvShift];
 				// Non-concurrent path does not need to keep the NULL-safe check.
-				if (k == key || k.equals(key)) {
+				// STORE_HASHES: the full hash filters out the ~1/128 H2 false positives before equals().
+				if (k == key || ((hashes == null || hashes[idx] == smearedHash) && keyEquals(k, key))) {
 					return idx;
 				}
 				eqMask &= eqMask - 1; // clear LSB
 			}
 			int emptyMask = eqMask(word, EMPTY);
 			if (emptyMask != 0) {
-				return -1;
+				return (drainCtrl == null && ctrl != TINY_CTRL) ? -1 : findElsewhere(key, smearedHash);
+			}
+			if (++step == longProbeGroups) probeAlarm = true; // hash-flooding watchdog, see reseed()
+			pos = (pos + (step << 3)) & mask; // triangular (quadratic) probing over groups
+		}
+	}
+
+	/* Miss in the ctrl table: the key can still be in the small-mode arrays or in the drained table. */
+	private int findElsewhere(Object key, int smearedHash) {
+		if (ctrl == TINY_CTRL) return tinyIndexOf(key);
+		return promoteFromDrained(key, smearedHash);
+	}
+
+	/**
+	 * {@link #findIndexHashed} for a probe whose first window ({@code word} at {@code pos}) is already loaded.
+	 */
+	private int findIndexFrom(Object key, int smearedHash, int pos, long word) {
+		byte h2 = h2(smearedHash);
+		long[] ctrl = this.ctrl;
+		Object[] keys = this.keys;
+		int[] hashes = this.hashes;
+		int kvShift = this.kvShift;
+		int mask = (keys.length >>> kvShift) - 1;
+		int step = 0;
+		for (;;) {
+			int eqMask = eqMask(word, h2);
+			while (eqMask != 0) {
+				int idx = (pos + Integer.numberOfTrailingZeros(eqMask)) & mask;
+				Object k = keys[idx << kvShift];
+				if (k == key || ((hashes == null || hashes[idx] == smearedHash) && keyEquals(k, key))) {
+					return idx;
+				}
+				eqMask &= eqMask - 1;
+			}
+			if (eqMask(word, EMPTY) != 0) {
+				return (drainCtrl == null && ctrl != TINY_CTRL) ? -1 : findElsewhere(key, smearedHash);
 			}
-			g = (g + (++step)) & mask; // triangular (quadratic) probing over groups
+			pos = (pos + ((++step) << 3)) & mask;
+			word = ctrlWindow(ctrl, pos);
 		}
 	}
 
@@ -553,52 +1844,69 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 		byte h2 = h2(smearedHash);
 		long[] ctrl = this.ctrl; // local snapshot
 		Object[] keys = this.keys; // local snapshot
-		int mask = ctrl.length - 1;
-		int g = h1 & mask;
+		int[] hashes = this.hashes; // local snapshot (null unless STORE_HASHES)
+		int kvShift = this.kvShift;
+		int mask = (keys.length >>> kvShift) - 1;
+		// An optimistic reader may see the unallocated sentinels with size != 0, or arrays of two different
+		// tables across a resize. Bail out before indexing; the failed stamp validation discards the result.
+		if (!sameTable(mask, ctrl, hashes)) return -1;
+		int pos = probeStart(h1, mask);
 		int step = 0;
 		for (;;) {
 			// Acquire-load ensures FULL ctrl implies key/value publish is visible.
-			long word = ctrlWordAcquire(ctrl, g);
+			long word = ctrlWindowAcquire(ctrl, pos);
 			int eqMask = eqMask(word, h2);
 			while (eqMask != 0) {
-				int base = g << 3;
-				int idx = base + Integer.numberOfTrailingZeros(eqMask);
-				Object k = keys[idx];
+				int idx = (pos + Integer.numberOfTrailingZeros(eqMask)) & mask;
+				Object k = keys[idx << kvShift];
 				// Keep NULL-safe check to survive concurrent deletes without crashing before stamp validation.
-				if (k == key || (k != null && k.equals(key))) {
+				if (k == key || (k != null && (hashes == null || hashes[idx] == smearedHash) && keyEquals(k, key))) {
 					return idx;
 				}
 				eqMask &= eqMask - 1;
 			}
 			int emptyMask = eqMask(word, EMPTY);
 			if (emptyMask != 0) return -1;
-			g = (g + (++step)) & mask;
+			pos = (pos + ((++step) << 3)) & mask;
 		}
 	}
 
-	private V insertAt(int idx, K key, V value, byte h2) {
+	/* Whether ctrl (and hashes, if any) were sized for the table whose keys give slot mask mask. */
+	private static boolean sameTable(int mask, long[] ctrl, int[] hashes) {
+		return mask >= 0 && ctrl.length == (mask >>> 3) + 2 && (hashes == null || hashes.length == mask + 1);
+	}
+
+	private V insertAt(int idx, K key, V value, int smearedHash) {
 		if (isDeleted(ctrlAt(ctrl, idx))) tombstones--; // TODO: do not recalculate tombstones here
 		// Publish entry first, then mark ctrl as FULL.
 		setEntryAt(idx, key, value);
-		setCtrlAt(ctrl, idx, h2);
+		if (hashes != null) hashes[idx] = smearedHash;
+		setCtrlAt(ctrl, idx, h2(smearedHash));
 		size++;
+		modCount++;
 		return null;
 	}
 
-	private V insertAtConcurrent(int idx, K key, V value, byte h2) {
+	private V insertAtConcurrent(int idx, K key, V value, int smearedHash) {
 		if (isDeleted(ctrlAt(ctrl, idx))) tombstones--;
 		// Publish entry first, then publish ctrl FULL tag with release-store.
 		setEntryAt(idx, key, value);
-		setCtrlAtRelease(ctrl, idx, h2);
+		if (hashes != null) hashes[idx] = smearedHash;
+		setCtrlAtRelease(ctrl, idx, h2(smearedHash));
 		size++;
+		modCount++;
 		return null;
 	}
 
 	private void deleteAtConcurrent(int idx) {
-		setCtrlAtRelease(ctrl, idx, DELETED);
-		// Ensure key/value clear is not reordered before ctrl=DELETED publication.
+		byte tag = vacatedCtrl(ctrl, idx);
+		setCtrlAtRelease(ctrl, idx, tag);
+		// Ensure key/value clear is not reordered before ctrl=DELETED/EMPTY publication.
 		VarHandle.storeStoreFence();
 		setEntryAt(idx, null, null);
+		size--;
+		modCount++;
+		if (tag == DELETED) tombstones++;
 	}
 
 	// Note: backward-shift deletion intentionally removed; it relies on linear-probe cluster contiguity.
@@ -615,36 +1923,55 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 
 	@Override
 	protected V valueAt(int idx) {
-		return castValue(vals[idx]);
+		return castValue(vals[valIndex(idx)]);
 	}
 
-	/* iterator base */
-	private abstract class BaseIter<T> implements Iterator<T> {
+	/**
+	 * Walks the FULL slots a ctrl word at a time: FULL lanes are the ones with a clear MSB, so each word yields
+	 * its live slots as a bit mask and empty groups are skipped in one step. Only the group visit order is
+	 * randomized (per instance, via {@code iterationSeed}); slots within a group are visited in order.
+	 */
+	private abstract class SlotWalk {
 		private final int start;
 		private final int step;
 		private final int mask;
+		private final int nGroups;
 		private int iter = 0;
-		private int next = -1;
-		private int last = -1;
-
-		BaseIter() {
-			RandomCycle cycle = new RandomCycle(capacity, iterationSeed);
+		private int base;   // first slot of the current group
+		private long full;  // MSB-per-lane mask of the current group's FULL slots not yet visited
+
+		SlotWalk() {
+			finishResize();
+			// Unallocated tables have a single (virtual) group and nothing to visit.
+			this.nGroups = (size > 0) ? ctrl.length - 1 : 0;
+			RandomCycle cycle = new RandomCycle(Math.max(nGroups, 1), iterationSeed);
 			this.start = cycle.start;
 			this.step = cycle.step;
 			this.mask = cycle.mask;
-			advance();
 		}
 
-		private void advance() {
-			next = -1;
-			while (iter < capacity) {
-				// & mask == mod capacity; iter grows, step scrambles the visit order without extra buffers.
-				int idx = (start + (iter++ * step)) & mask;
-				if (isFull(ctrlAt(ctrl, idx))) {
-					next = idx;
-					return;
-				}
+		/* Next FULL slot, or -1 once every group has been visited. */
+		final int nextSlot() {
+			while (full == 0) {
+				if (iter >= nGroups) return -1;
+				// & mask == mod nGroups; iter grows, step scrambles the visit order without extra buffers.
+				int g = (start + (iter++ * step)) & mask;
+				base = g << 3;
+				full = groupFullLanes(ctrl, g);
 			}
+			int idx = base + (Long.numberOfTrailingZeros(full) >>> 3);
+			full &= full - 1; // clear LSB
+			return idx;
+		}
+	}
+
+	/* iterator base */
+	private abstract class BaseIter<T> extends SlotWalk implements Iterator<T> {
+		private int next;
+		private int last = -1;
+
+		BaseIter() {
+			next = nextSlot();
 		}
 
 		@Override
@@ -656,18 +1983,15 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 			if (!hasNext()) throw new NoSuchElementException();
 			int i = next;
 			last = i;
-			advance();
+			next = nextSlot();
 			return i;
 		}
 
 		@Override
 		public void remove() {
 			if (last < 0) throw new IllegalStateException();
-			if (isFull(ctrlAt(ctrl, last))) {
-				setCtrlAt(ctrl, last, DELETED);
-				setEntryAt(last, null, null);
-				size--;
-				tombstones++;
+			if (ctrl == TINY_CTRL ? keys[keyIndex(last)] != null : isFull(ctrlAt(ctrl, last))) {
+				eraseAt(last);
 			}
 			last = -1;
 		}
@@ -676,14 +2000,14 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 	private class KeyIter extends BaseIter<K> {
 		@Override
 		public K next() {
-			return castKey(keys[nextIndex()]);
+			return castKey(keys[keyIndex(nextIndex())]);
 		}
 	}
 
 	private class ValueIter extends BaseIter<V> {
 		@Override
 		public V next() {
-			return castValue(vals[nextIndex()]);
+			return castValue(vals[valIndex(nextIndex())]);
 		}
 	}
 
@@ -695,24 +2019,64 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 		}
 	}
 
+	private final class Cursor extends SlotWalk implements MapCursor<K, V> {
+		private int idx = -1;
+
+		@Override
+		public boolean advance() {
+			idx = nextSlot();
+			return idx >= 0;
+		}
+
+		private int current() {
+			if (idx < 0) throw new IllegalStateException("cursor is not positioned on an entry");
+			return idx;
+		}
+
+		@Override
+		public K key() {
+			return castKey(keys[keyIndex(current())]);
+		}
+
+		@Override
+		public V value() {
+			return castValue(vals[valIndex(current())]);
+		}
+
+		@Override
+		public V setValue(V value) {
+			int vi = valIndex(current());
+			V old = castValue(vals[vi]);
+			vals[vi] = value;
+			return old;
+		}
+
+		@Override
+		public void remove() {
+			eraseAt(current()); // no rehash: entries must stay where the cursor expects them
+			idx = -1;
+		}
+	}
+
 	private class EntryRef implements Entry<K, V> {
 		private final int idx;
 		EntryRef(int idx) { this.idx = idx; }
 
 		@Override
 		public K getKey() {
-			return castKey(keys[idx]);
+			return castKey(keys[keyIndex(idx)]);
 		}
 
 		@Override
 		public V getValue() {
-			return castValue(vals[idx]);
+			return castValue(vals[valIndex(idx)]);
 		}
 
 		@Override
 		public V setValue(V value) {
-			V old = castValue(vals[idx]);
-			vals[idx] = value;
+			int vi = valIndex(idx);
+			V old = castValue(vals[vi]);
+			vals[vi] = value;
 			return old;
 		}
 
@@ -734,12 +2098,152 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 		}
 	}
 
+	/**
+	 * Spliterator over a range {@code [lo, hi)} of the group visit sequence, i.e. the iterators' randomized
+	 * group order, so parallel streams split by whole groups and sequential streams see the iterator order.
+	 * Each group's FULL slots come from its ctrl word. Sizes are exact: a split popcounts the FULL lanes of
+	 * the half it hands off and subtracts them from its own count.
+	 */
+	private abstract class BaseSpliterator<T> implements Spliterator<T> {
+		private final int start;
+		private final int step;
+		private final int mask;
+		private int lo;          // next position in the group visit sequence
+		private final int hi;    // end (exclusive) of this spliterator's positions
+		private long remaining;  // exact number of entries not yet visited
+		private int base;        // first slot of the current group
+		private long full;       // MSB-per-lane mask of the current group's FULL slots not yet visited
+
+		BaseSpliterator() {
+			finishResize();
+			int nGroups = (size > 0) ? ctrl.length - 1 : 0; // exclude mirrored tail word
+			RandomCycle cycle = new RandomCycle(Math.max(nGroups, 1), iterationSeed);
+			this.start = cycle.start;
+			this.step = cycle.step;
+			this.mask = cycle.mask;
+			this.hi = nGroups;
+			this.remaining = size;
+		}
+
+		BaseSpliterator(BaseSpliterator<T> parent, int lo, int hi, long count) {
+			this.start = parent.start;
+			this.step = parent.step;
+			this.mask = parent.mask;
+			this.lo = lo;
+			this.hi = hi;
+			this.remaining = count;
+		}
+
+		abstract T elementAt(int idx);
+
+		abstract BaseSpliterator<T> prefix(int lo, int hi, long count);
+
+		private long fullLanes(int pos) {
+			return groupFullLanes(ctrl, (start + (pos * step)) & mask);
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			Objects.requireNonNull(action);
+			while (full == 0) {
+				if (lo >= hi) return false;
+				base = ((start + (lo * step)) & mask) << 3;
+				full = fullLanes(lo++);
+			}
+			int idx = base + (Long.numberOfTrailingZeros(full) >>> 3);
+			full &= full - 1; // clear LSB
+			remaining--;
+			action.accept(elementAt(idx));
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super T> action) {
+			Objects.requireNonNull(action);
+			for (;;) {
+				while (full != 0) {
+					int idx = base + (Long.numberOfTrailingZeros(full) >>> 3);
+					full &= full - 1; // clear LSB
+					action.accept(elementAt(idx));
+				}
+				if (lo >= hi) break;
+				base = ((start + (lo * step)) & mask) << 3;
+				full = fullLanes(lo++);
+			}
+			remaining = 0;
+		}
+
+		@Override
+		public Spliterator<T> trySplit() {
+			int mid = (lo + hi) >>> 1;
+			if (mid <= lo) return null;
+			long count = 0;
+			for (int pos = lo; pos < mid; pos++) count += Long.bitCount(fullLanes(pos));
+			Spliterator<T> split = prefix(lo, mid, count);
+			lo = mid;
+			remaining -= count;
+			return split;
+		}
+
+		@Override
+		public long estimateSize() {
+			return remaining;
+		}
+	}
+
+	private final class KeySpliterator extends BaseSpliterator<K> {
+		KeySpliterator() {}
+		KeySpliterator(KeySpliterator parent, int lo, int hi, long count) { super(parent, lo, hi, count); }
+
+		@Override
+		K elementAt(int idx) { return castKey(keys[keyIndex(idx)]); }
+
+		@Override
+		BaseSpliterator<K> prefix(int lo, int hi, long count) { return new KeySpliterator(this, lo, hi, count); }
+
+		@Override
+		public int characteristics() { return DISTINCT | NONNULL | SIZED | SUBSIZED; }
+	}
+
+	private final class ValueSpliterator extends BaseSpliterator<V> {
+		ValueSpliterator() {}
+		ValueSpliterator(ValueSpliterator parent, int lo, int hi, long count) { super(parent, lo, hi, count); }
+
+		@Override
+		V elementAt(int idx) { return castValue(vals[valIndex(idx)]); }
+
+		@Override
+		BaseSpliterator<V> prefix(int lo, int hi, long count) { return new ValueSpliterator(this, lo, hi, count); }
+
+		@Override
+		public int characteristics() { return SIZED | SUBSIZED; }
+	}
+
+	private final class EntrySpliterator extends BaseSpliterator<Entry<K, V>> {
+		EntrySpliterator() {}
+		EntrySpliterator(EntrySpliterator parent, int lo, int hi, long count) { super(parent, lo, hi, count); }
+
+		@Override
+		Entry<K, V> elementAt(int idx) { return new EntryRef(idx); }
+
+		@Override
+		BaseSpliterator<Entry<K, V>> prefix(int lo, int hi, long count) { return new EntrySpliterator(this, lo, hi, count); }
+
+		@Override
+		public int characteristics() { return DISTINCT | NONNULL | SIZED | SUBSIZED; }
+	}
+
 	private final class KeyView extends java.util.AbstractSet<K> {
 		@Override
 		public Iterator<K> iterator() {
 			return new KeyIter();
 		}
 
+		@Override
+		public Spliterator<K> spliterator() {
+			return new KeySpliterator();
+		}
+
 		@Override
 		public int size() { return SwissMap.this.size(); }
 	}
@@ -750,6 +2254,11 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 			return new ValueIter();
 		}
 
+		@Override
+		public Spliterator<V> spliterator() {
+			return new ValueSpliterator();
+		}
+
 		@Override
 		public int size() { return SwissMap.this.size(); }
 	}
@@ -760,6 +2269,11 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 			return new EntryIter();
 		}
 
+		@Override
+		public Spliterator<Entry<K, V>> spliterator() {
+			return new EntrySpliterator();
+		}
+
 		@Override
 		public int size() { return SwissMap.this.size(); }
 	}
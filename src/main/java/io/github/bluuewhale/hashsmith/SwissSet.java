@@ -2,19 +2,26 @@ package io.github.bluuewhale.hashsmith;
 
 import java.util.AbstractSet;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Spliterator;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 
 import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorOperators;
 import jdk.incubator.vector.VectorSpecies;
 
 /**
  * SwissTable-inspired hash set (SIMD probing only).
  * Null elements are allowed (mirrors {@link java.util.HashSet}).
+ *
+ * <p>Elements are hashed and compared by their own {@code hashCode()}/{@code equals} unless the set is built with
+ * a {@link HashingStrategy}.
  */
-public class SwissSet<E> extends AbstractSet<E> {
+public class SwissSet<E> extends AbstractSet<E> implements Cloneable {
 
 	/* Control byte values */
 	private static final byte EMPTY = (byte) 0x80;    // empty slot
@@ -33,6 +40,10 @@ public class SwissSet<E> extends AbstractSet<E> {
 	private static final int DEFAULT_INITIAL_CAPACITY = 16;
 	private static final double DEFAULT_LOAD_FACTOR = 0.875d;
 
+	/* Shared tables of a set that has not added anything yet (allocated on first add) */
+	private static final byte[] EMPTY_CTRL = {};
+	private static final Object[] EMPTY_TABLE = {};
+
 	/* Storage */
 	private final double loadFactor;
 	// Fixed per-instance seed (do not re-randomize per iterator creation)
@@ -44,6 +55,9 @@ public class SwissSet<E> extends AbstractSet<E> {
 	private int size;
 	private int tombstones; // deleted slots
 	private int maxLoad;
+	private double shrinkThreshold; // fraction of maxLoad below which removals halve the table (0 = disabled)
+	private final int minCapacity;  // capacity chosen at construction; automatic shrinking never goes below it
+	private final HashingStrategy<Object> strategy; // null: the elements' own hashCode/equals
 
 	public SwissSet() {
 		this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
@@ -54,22 +68,97 @@ public class SwissSet<E> extends AbstractSet<E> {
 	}
 
 	public SwissSet(int initialCapacity, double loadFactor) {
+		this(initialCapacity, loadFactor, null);
+	}
+
+	/** Set whose elements are hashed and compared by {@code strategy} instead of their own hashCode/equals. */
+	public SwissSet(HashingStrategy<? super E> strategy) {
+		this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR, Objects.requireNonNull(strategy));
+	}
+
+	/**
+	 * @param strategy element hashing and equality ({@code null} elements are compared by reference), or
+	 *        {@code null} for the elements' own {@code hashCode}/{@code equals}
+	 */
+	@SuppressWarnings("unchecked")
+	public SwissSet(int initialCapacity, double loadFactor, HashingStrategy<? super E> strategy) {
 		Utils.validateLoadFactor(loadFactor);
+		this.strategy = (HashingStrategy<Object>) strategy; // only ever applied to elements of this set
 		this.loadFactor = loadFactor;
 		this.iterationSeed = ThreadLocalRandom.current().nextLong();
 		init(initialCapacity);
+		this.minCapacity = capacity;
 	}
 
+	/**
+	 * Creates a set with the elements of {@code c}, compared by {@code hashCode}/{@code equals} like
+	 * {@code HashSet(Collection)}. A plain {@code SwissSet} source (this class, no {@link HashingStrategy}) is
+	 * copied array by array with its capacity and load factor (no rehashing); any other collection is added
+	 * element by element.
+	 */
+	@SuppressWarnings("unchecked")
+	public SwissSet(Collection<? extends E> c) {
+		this(copiesTables(c) ? ((SwissSet<?>) c).capacity : DEFAULT_INITIAL_CAPACITY,
+			copiesTables(c) ? ((SwissSet<?>) c).loadFactor : DEFAULT_LOAD_FACTOR,
+			null);
+		if (copiesTables(c)) {
+			copyTablesFrom((SwissSet<? extends E>) c);
+		} else {
+			for (E e : c) insert(e, hash(e));
+		}
+	}
+
+	/* Whether the copy constructor may copy c's tables: same class and the same (default) equality. */
+	private static boolean copiesTables(Collection<?> c) {
+		return c.getClass() == SwissSet.class && ((SwissSet<?>) c).strategy == null;
+	}
+
+	/**
+	 * Returns a shallow copy (elements are not cloned) with the same capacity and shrink policy, made by copying
+	 * the tables rather than re-adding elements.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public SwissSet<E> clone() {
+		SwissSet<E> copy;
+		try {
+			copy = (SwissSet<E>) super.clone();
+		} catch (CloneNotSupportedException e) {
+			throw new AssertionError(e);
+		}
+		copy.copyTablesFrom(this);
+		return copy;
+	}
+
+	/**
+	 * Copies the tables of a set with the same capacity and load factor. A source whose tombstones exceed a
+	 * quarter of its elements is re-placed into a fresh table instead, dropping them.
+	 */
+	private void copyTablesFrom(SwissSet<? extends E> src) {
+		if (src.ctrl == EMPTY_CTRL) return; // nothing allocated: stay lazy
+		if (src.tombstones > (src.size >>> 2)) {
+			// rehash only reads the old tables, so it can read the source's directly
+			this.ctrl = src.ctrl;
+			this.keys = src.keys;
+			rehash(capacity);
+			return;
+		}
+		this.ctrl = src.ctrl.clone();
+		this.keys = src.keys.clone();
+		this.size = src.size;
+		this.tombstones = src.tombstones;
+		this.maxLoad = src.maxLoad;
+	}
+
+	/* Records the target capacity; tables are allocated by the first add (see maybeRehash). */
 	private void init(int desiredCapacity) {
 		int nGroups = Math.max(1, (desiredCapacity + DEFAULT_GROUP_SIZE - 1) / DEFAULT_GROUP_SIZE);
 		nGroups = Utils.ceilPow2(nGroups);
 		this.groupMask = nGroups - 1;
 		this.capacity = nGroups * DEFAULT_GROUP_SIZE;
 
-		this.ctrl = new byte[capacity + DEFAULT_GROUP_SIZE]; // sentinel padding
-		Arrays.fill(this.ctrl, EMPTY);
-		Arrays.fill(this.ctrl, capacity, this.ctrl.length, SENTINEL);
-		this.keys = new Object[capacity];
+		this.ctrl = EMPTY_CTRL;
+		this.keys = EMPTY_TABLE;
 		this.size = 0;
 		this.tombstones = 0;
 		this.maxLoad = Utils.calcMaxLoad(this.capacity, loadFactor);
@@ -88,13 +177,30 @@ public class SwissSet<E> extends AbstractSet<E> {
 
 	@Override
 	public boolean contains(Object o) {
-		return findIndex(o) >= 0;
+		return findIndex(o, hash(o)) >= 0;
+	}
+
+	/**
+	 * {@link #contains} with a hash precomputed by {@link HashSmith#hash(Object)}, so one key can be looked up
+	 * in several collections while calling {@code hashCode()} once.
+	 */
+	public boolean containsHashed(Object o, int hash) {
+		return findIndex(o, hash) >= 0;
 	}
 
 	@Override
 	public boolean add(E e) {
+		return addHashed(e, hash(e));
+	}
+
+	/** {@link #add} with a hash precomputed by {@link HashSmith#hash(Object)}. */
+	public boolean addHashed(E e, int h) {
+		return insert(e, h);
+	}
+
+	/* Body of add, private so the copy constructor can add elements without calling overridable methods. */
+	private boolean insert(E e, int h) {
 		maybeRehash();
-		int h = hash(e);
 		int h1 = h1(h);
 		byte h2 = h2(h);
 		int mask = groupMask;
@@ -108,7 +214,7 @@ public class SwissSet<E> extends AbstractSet<E> {
 			while (eqMask != 0) {
 				int bit = Long.numberOfTrailingZeros(eqMask);
 				int idx = base + bit;
-				if (Objects.equals(keys[idx], e)) return false;
+				if (keyEquals(keys[idx], e)) return false;
 				eqMask &= eqMask - 1; // clear LSB
 			}
 			if (firstTombstone < 0) {
@@ -128,34 +234,151 @@ public class SwissSet<E> extends AbstractSet<E> {
 
 	@Override
 	public boolean remove(Object o) {
-		int idx = findIndex(o);
+		return removeHashed(o, hash(o));
+	}
+
+	/** {@link #remove} with a hash precomputed by {@link HashSmith#hash(Object)}. */
+	public boolean removeHashed(Object o, int hash) {
+		int idx = findIndex(o, hash);
 		if (idx < 0) return false;
 		ctrl[idx] = DELETED;
 		keys[idx] = null;
 		size--;
 		tombstones++;
-		maybeRehash();
+		if (shrinkThreshold > 0 && capacity > minCapacity && size < maxLoad * shrinkThreshold) {
+			rehash(capacity >>> 1);
+		} else {
+			maybeRehash();
+		}
 		return true;
 	}
 
+	/**
+	 * Enables automatic shrinking: once a removal leaves {@code size < fraction * maxLoad}, the table is rehashed
+	 * to half its capacity (never below the capacity it was created with). {@code fraction} must be in
+	 * {@code [0, 0.25]}; {@code 0} (the default) disables shrinking.
+	 */
+	public void setShrinkThreshold(double fraction) {
+		Utils.validateShrinkThreshold(fraction);
+		this.shrinkThreshold = fraction;
+	}
+
+	/**
+	 * Rehashes into the smallest table that holds the current elements without growing on the next add,
+	 * dropping tombstones. An empty set releases its tables entirely.
+	 */
+	public void trimToSize() {
+		if (size == 0) {
+			init(0);
+			return;
+		}
+		int target = DEFAULT_GROUP_SIZE;
+		while (Utils.calcMaxLoad(target, loadFactor) <= size) target <<= 1;
+		if (target < capacity || tombstones > 0) rehash(Math.min(target, capacity));
+	}
+
 	@Override
 	public void clear() {
-		Arrays.fill(ctrl, 0, capacity, EMPTY);
-		Arrays.fill(ctrl, capacity, ctrl.length, SENTINEL);
-		Arrays.fill(keys, null);
+		if (ctrl == EMPTY_CTRL) return; // never allocated, nothing to clear
+		if (size == 0 && tombstones == 0) return; // every slot is already EMPTY with a null key
+		if (size <= (capacity >>> 3)) {
+			clearOccupiedGroups();
+		} else {
+			Arrays.fill(ctrl, 0, capacity, EMPTY);
+			Arrays.fill(keys, null);
+		}
 		size = 0;
 		tombstones = 0;
 		maxLoad = Utils.calcMaxLoad(capacity, loadFactor);
 	}
 
+	/**
+	 * Clear for sparse tables (reused scratch sets): one pass over the ctrl groups, touching key slots only in
+	 * groups that hold elements, instead of filling arrays sized by capacity. The SENTINEL tail is untouched.
+	 */
+	private void clearOccupiedGroups() {
+		for (int base = 0; base < capacity; base += DEFAULT_GROUP_SIZE) {
+			ByteVector v = loadCtrlVector(base);
+			if (v.eq(EMPTY).allTrue()) continue;
+			long full = v.compare(VectorOperators.GE, (byte) 0).toLong();
+			while (full != 0) {
+				keys[base + Long.numberOfTrailingZeros(full)] = null;
+				full &= full - 1;
+			}
+			Arrays.fill(ctrl, base, base + DEFAULT_GROUP_SIZE, EMPTY);
+		}
+	}
+
+	/**
+	 * Removes all elements and sizes the table for {@code expectedSize} elements, releasing a table that an
+	 * earlier burst grew far beyond that, so a reused set stays cheap to clear. A table of the same size is
+	 * cleared in place; otherwise the new one is allocated by the next add.
+	 */
+	public void reset(int expectedSize) {
+		if (expectedSize < 0) throw new IllegalArgumentException("expectedSize must be >= 0: " + expectedSize);
+		int target = DEFAULT_GROUP_SIZE;
+		while (Utils.calcMaxLoad(target, loadFactor) <= expectedSize) target <<= 1;
+		if (target == capacity) {
+			clear();
+			return;
+		}
+		init(target);
+	}
+
+	/* equals/hashCode walk the ctrl groups directly instead of going through an iterator. */
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) return true;
+		if (!(o instanceof java.util.Set<?> other) || other.size() != size) return false;
+		if (size == 0) return true;
+		try {
+			for (int base = 0; base < capacity; base += DEFAULT_GROUP_SIZE) {
+				long full = loadCtrlVector(base).compare(VectorOperators.GE, (byte) 0).toLong();
+				while (full != 0) {
+					if (!other.contains(keys[base + Long.numberOfTrailingZeros(full)])) return false;
+					full &= full - 1;
+				}
+			}
+		} catch (ClassCastException | NullPointerException unused) {
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int h = 0;
+		if (size == 0) return h;
+		for (int base = 0; base < capacity; base += DEFAULT_GROUP_SIZE) {
+			long full = loadCtrlVector(base).compare(VectorOperators.GE, (byte) 0).toLong();
+			while (full != 0) {
+				h += Objects.hashCode(keys[base + Long.numberOfTrailingZeros(full)]);
+				full &= full - 1;
+			}
+		}
+		return h;
+	}
+
 	@Override
 	public Iterator<E> iterator() {
 		return new KeyIter();
 	}
 
+	@Override
+	public Spliterator<E> spliterator() {
+		return new KeySpliterator();
+	}
+
 	/* Internal helpers */
 	private int hash(Object key) {
-		return Hashing.smearedHash(key);
+		return (strategy == null || key == null) ? Hashing.smearedHash(key) : Hashing.smear(strategy.hash(key));
+	}
+
+	/* Element equality of the probe loops: Objects.equals, or the HashingStrategy's (null only matches null). */
+	private boolean keyEquals(Object k, Object key) {
+		if (strategy == null) return Objects.equals(k, key);
+		return k == key || (k != null && key != null && strategy.equals(k, key));
 	}
 
 	private int h1(int hash) {
@@ -176,6 +399,10 @@ public class SwissSet<E> extends AbstractSet<E> {
 	}
 
 	private void maybeRehash() {
+		if (ctrl == EMPTY_CTRL) {
+			rehash(capacity); // first add: allocate at the requested capacity
+			return;
+		}
 		boolean overMaxLoad = (size + tombstones) >= maxLoad;
 		boolean tooManyTombstones = tombstones > (size >>> 1);
 		if (!overMaxLoad && !tooManyTombstones) return;
@@ -201,7 +428,7 @@ public class SwissSet<E> extends AbstractSet<E> {
 		this.tombstones = 0;
 		this.maxLoad = Utils.calcMaxLoad(this.capacity, loadFactor);
 
-		if (oldCtrl == null) return;
+		if (oldCtrl == EMPTY_CTRL) return;
 
 		for (int i = 0; i < oldCap; i++) {
 			byte c = oldCtrl[i];
@@ -232,9 +459,8 @@ public class SwissSet<E> extends AbstractSet<E> {
 		}
 	}
 
-	private int findIndex(Object key) {
+	private int findIndex(Object key, int h) {
 		if (size == 0) return -1;
-		int h = hash(key);
 		int h1 = h1(h);
 		byte h2 = h2(h);
 		int mask = groupMask;
@@ -247,7 +473,7 @@ public class SwissSet<E> extends AbstractSet<E> {
 			while (eqMask != 0) {
 				int bit = Long.numberOfTrailingZeros(eqMask);
 				int idx = base + bit;
-				if (Objects.equals(keys[idx], key)) {
+				if (keyEquals(keys[idx], key)) {
 					return idx;
 				}
 				eqMask &= eqMask - 1;
@@ -281,7 +507,7 @@ public class SwissSet<E> extends AbstractSet<E> {
 			this.start = cycle.start;
 			this.step = cycle.step;
 			this.mask = cycle.mask;
-			advance();
+			if (size > 0) advance(); // also keeps empty (possibly unallocated) sets off the ctrl array
 		}
 
 		private void advance() {
@@ -331,6 +557,100 @@ public class SwissSet<E> extends AbstractSet<E> {
 		}
 	}
 
+	/**
+	 * Spliterator over a range {@code [lo, hi)} of the group visit sequence, i.e. the iterators' randomized
+	 * group order, so parallel streams split by whole groups.
+	 * Each group's FULL slots come from one vector compare over its ctrl bytes. Sizes are exact: a split counts
+	 * the FULL lanes of the half it hands off and subtracts them from its own count.
+	 */
+	private final class KeySpliterator implements Spliterator<E> {
+		private final int start;
+		private final int step;
+		private final int mask;
+		private int lo;          // next position in the group visit sequence
+		private final int hi;    // end (exclusive) of this spliterator's positions
+		private long remaining;  // exact number of entries not yet visited
+		private int base;        // first slot of the current group
+		private long full;       // one bit per FULL slot of the current group not yet visited
+
+		KeySpliterator() {
+			int nGroups = (size > 0) ? groupMask + 1 : 0;
+			Utils.RandomCycle cycle = new Utils.RandomCycle(Math.max(nGroups, 1), iterationSeed);
+			this.start = cycle.start;
+			this.step = cycle.step;
+			this.mask = cycle.mask;
+			this.hi = nGroups;
+			this.remaining = size;
+		}
+
+		KeySpliterator(KeySpliterator parent, int lo, int hi, long count) {
+			this.start = parent.start;
+			this.step = parent.step;
+			this.mask = parent.mask;
+			this.lo = lo;
+			this.hi = hi;
+			this.remaining = count;
+		}
+
+		private long fullLanes(int pos) {
+			// FULL tags are 0..127; EMPTY, DELETED and SENTINEL are negative.
+			return loadCtrlVector(((start + (pos * step)) & mask) * DEFAULT_GROUP_SIZE).compare(VectorOperators.GE, (byte) 0).toLong();
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super E> action) {
+			Objects.requireNonNull(action);
+			while (full == 0) {
+				if (lo >= hi) return false;
+				base = ((start + (lo * step)) & mask) * DEFAULT_GROUP_SIZE;
+				full = fullLanes(lo++);
+			}
+			int idx = base + Long.numberOfTrailingZeros(full);
+			full &= full - 1; // clear LSB
+			remaining--;
+			action.accept(elementAt(idx));
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super E> action) {
+			Objects.requireNonNull(action);
+			for (;;) {
+				while (full != 0) {
+					int idx = base + Long.numberOfTrailingZeros(full);
+					full &= full - 1; // clear LSB
+					action.accept(elementAt(idx));
+				}
+				if (lo >= hi) break;
+				base = ((start + (lo * step)) & mask) * DEFAULT_GROUP_SIZE;
+				full = fullLanes(lo++);
+			}
+			remaining = 0;
+		}
+
+		@Override
+		public Spliterator<E> trySplit() {
+			int mid = (lo + hi) >>> 1;
+			if (mid <= lo) return null;
+			long count = 0;
+			for (int pos = lo; pos < mid; pos++) count += Long.bitCount(fullLanes(pos));
+			Spliterator<E> split = new KeySpliterator(this, lo, mid, count);
+			lo = mid;
+			remaining -= count;
+			return split;
+		}
+
+		@Override
+		public long estimateSize() {
+			return remaining;
+		}
+
+		@Override
+		public int characteristics() {
+			return DISTINCT | SIZED | SUBSIZED;
+		}
+	}
+
 	@SuppressWarnings("unchecked")
 	private E elementAt(int idx) {
 		return (E) keys[idx];
@@ -7,13 +7,21 @@ import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorOperators;
 import jdk.incubator.vector.VectorSpecies;
 
 /**
  * SwissTable-inspired Map implementation using Vector API (SIMD).
+ *
+ * <p>Keys are hashed and compared by their own {@code hashCode()}/{@code equals} unless the map is built with a
+ * {@link HashingStrategy}.
  */
-public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
+public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> implements Cloneable {
 
 	/* Control byte values */
 	private static final byte EMPTY = (byte) 0x80;    // empty slot
@@ -28,9 +36,16 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 	private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
 	private static final int DEFAULT_GROUP_SIZE = SPECIES.length(); // preferred SIMD width
 
+	/* Keys in flight per getAll/containsAll batch; roughly the outstanding L1 misses one core sustains */
+	private static final int LOOKUP_BATCH = 8;
+
 	/* Load factor: similar to Abseil SwissTable (7/8) */
     private static final double DEFAULT_LOAD_FACTOR = 0.875d;
 
+	/* Shared tables of a map that has not inserted anything yet (allocated on first insert) */
+	private static final byte[] EMPTY_CTRL = {};
+	private static final Object[] EMPTY_TABLE = {};
+
 	/* Storage and state */
 	private int numGroups;   // cached group count (updated on init/rehash)
 	private int groupMask;   // cached (numGroups - 1), valid because numGroups is power-of-two
@@ -38,7 +53,10 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 	private Object[] keys;   // key storage
 	private Object[] vals;   // value storage
 	private int tombstones;  // deleted slots
-
+	private int rehashes;    // bumped when the tables are replaced; pooled arrays can come back, so identity is not enough
+	private int modCount;    // bumped by every insert of a new key, removal and clear; compute/merge re-probe if a callback changed it
+	private TableAllocator allocator = TableAllocator.HEAP; // source and sink of table arrays
+	private final HashingStrategy<Object> strategy; // null: the keys' own hashCode/equals
 
 	public SwissSimdMap() {
 		this(16, DEFAULT_LOAD_FACTOR);
@@ -49,25 +67,102 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 	}
 
 	public SwissSimdMap(int initialCapacity, double loadFactor) {
+		this(initialCapacity, loadFactor, null);
+	}
+
+	/** Map whose keys are hashed and compared by {@code strategy} instead of their own hashCode/equals. */
+	public SwissSimdMap(HashingStrategy<? super K> strategy) {
+		this(16, DEFAULT_LOAD_FACTOR, Objects.requireNonNull(strategy));
+	}
+
+	/**
+	 * @param strategy key hashing and equality, or {@code null} for the keys' own {@code hashCode}/{@code equals}
+	 */
+	@SuppressWarnings("unchecked")
+	public SwissSimdMap(int initialCapacity, double loadFactor, HashingStrategy<? super K> strategy) {
 		super(initialCapacity, loadFactor);
+		this.strategy = (HashingStrategy<Object>) strategy; // only ever applied to keys of this map
 	}
 
+	/**
+	 * Creates a map with the mappings of {@code m}, keyed by {@code hashCode}/{@code equals} like
+	 * {@code HashMap(Map)}. A plain {@code SwissSimdMap} source (this class, no {@link HashingStrategy}) is copied
+	 * array by array with its capacity and load factor (no rehashing, no per-entry objects); any other map is
+	 * re-inserted entry by entry.
+	 */
+	@SuppressWarnings("unchecked")
+	public SwissSimdMap(Map<? extends K, ? extends V> m) {
+		this(copiesTables(m) ? ((SwissSimdMap<?, ?>) m).capacity : 16,
+			copiesTables(m) ? ((SwissSimdMap<?, ?>) m).loadFactor : DEFAULT_LOAD_FACTOR,
+			null);
+		if (copiesTables(m)) {
+			copyTablesFrom((SwissSimdMap<? extends K, ? extends V>) m);
+		} else {
+			putEntries(m);
+		}
+	}
+
+	/* Whether the copy constructor may copy m's tables: same class and the same (default) key equality. */
+	private static boolean copiesTables(Map<?, ?> m) {
+		return m.getClass() == SwissSimdMap.class && ((SwissSimdMap<?, ?>) m).strategy == null;
+	}
+
+	/**
+	 * Returns a shallow copy (keys and values are not cloned) with the same capacity, shrink policy and
+	 * allocator, made by copying the tables rather than re-inserting entries.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public SwissSimdMap<K, V> clone() {
+		SwissSimdMap<K, V> copy;
+		try {
+			copy = (SwissSimdMap<K, V>) super.clone();
+		} catch (CloneNotSupportedException e) {
+			throw new AssertionError(e);
+		}
+		copy.copyTablesFrom(this);
+		return copy;
+	}
+
+	/**
+	 * Copies the tables of a map with the same capacity and load factor. A source whose tombstones exceed a
+	 * quarter of its entries gets them purged in the copy, which then re-places every entry.
+	 */
+	private void copyTablesFrom(SwissSimdMap<? extends K, ? extends V> src) {
+		if (src.ctrl == EMPTY_CTRL) return; // nothing allocated: stay lazy
+		// Through the allocator: these arrays go back to it when dropped.
+		this.ctrl = allocator.allocateBytes(src.ctrl.length);
+		System.arraycopy(src.ctrl, 0, this.ctrl, 0, src.ctrl.length);
+		this.keys = allocator.allocateObjects(src.keys.length);
+		System.arraycopy(src.keys, 0, this.keys, 0, src.keys.length);
+		this.vals = allocator.allocateObjects(src.vals.length);
+		System.arraycopy(src.vals, 0, this.vals, 0, src.vals.length);
+		this.size = src.size;
+		this.tombstones = src.tombstones;
+		this.maxLoad = src.maxLoad;
+		this.rehashes++;
+		if (tombstones > (size >>> 2)) rehashInPlace();
+	}
+
+	/**
+	 * Records the target capacity but defers allocation to the first insert (see {@link #maybeRehash()}).
+	 */
 	@Override
 	protected void init(int desiredCapacity) {
+		if (ctrl != null && ctrl != EMPTY_CTRL) releaseArrays(ctrl, keys, vals);
+		this.rehashes++;
 		int nGroups = Math.max(1, (desiredCapacity + DEFAULT_GROUP_SIZE - 1) / DEFAULT_GROUP_SIZE);
-		nGroups = ceilPow2(nGroups);
+		nGroups = Utils.ceilPow2(nGroups);
 		this.numGroups = nGroups;
 		this.groupMask = nGroups - 1;
 		this.capacity = nGroups * DEFAULT_GROUP_SIZE;
 
-		this.ctrl = new byte[capacity + DEFAULT_GROUP_SIZE]; // extra for sentinel padding
-		Arrays.fill(this.ctrl, EMPTY);
-		Arrays.fill(this.ctrl, capacity, this.ctrl.length, SENTINEL);
-		this.keys = new Object[capacity];
-		this.vals = new Object[capacity];
+		this.ctrl = EMPTY_CTRL;
+		this.keys = EMPTY_TABLE;
+		this.vals = EMPTY_TABLE;
 		this.size = 0;
 		this.tombstones = 0;
-		this.maxLoad = calcMaxLoad(this.capacity);
+		this.maxLoad = Utils.calcMaxLoad(this.capacity, loadFactor);
 	}
 
 	/* Hash split helpers */
@@ -80,7 +175,12 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 	}
 
 	private int hash(Object key) {
-		return hashNonNull(key);
+		return (strategy == null) ? Hashing.smearedHash(requireKey(key)) : Hashing.smear(strategy.hash(requireKey(key)));
+	}
+
+	/* Key equality of the probe loops (after the identity check): equals, or the HashingStrategy's. */
+	private boolean keyEquals(Object k, Object key) {
+		return (strategy == null) ? k.equals(key) : strategy.equals(k, key);
 	}
 
 	/* Control byte inspectors */
@@ -93,17 +193,124 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 		return ByteVector.fromArray(SPECIES, ctrl, base);
 	}
 
+	/**
+	 * Removes the entry at a FULL slot. If its group still has an EMPTY slot, no probe has ever continued
+	 * past this group, so the slot can go straight back to EMPTY instead of becoming a tombstone.
+	 */
+	private void eraseAt(int idx) {
+		int base = idx & ~(DEFAULT_GROUP_SIZE - 1);
+		boolean groupHasEmpty = loadCtrlVector(base).eq(EMPTY).anyTrue();
+		ctrl[idx] = groupHasEmpty ? EMPTY : DELETED;
+		keys[idx] = null;
+		vals[idx] = null;
+		size--;
+		modCount++;
+		if (!groupHasEmpty) tombstones++;
+	}
+
 	/* Resize/rehash */
 	private void maybeRehash() {
+		if (ctrl == EMPTY_CTRL) {
+			rehash(capacity); // first insert: allocate at the requested capacity
+			return;
+		}
 		// trigger when over load or too many tombstones
 		boolean overMaxLoad = (size + tombstones) >= maxLoad;
 		boolean tooManyTombstones = tombstones > (size >>> 1);
 		if (!overMaxLoad && !tooManyTombstones) return;
 
 		// Only grow the table when we are actually over the max load threshold.
-		// If we are rehashing just to clean up tombstones, keep the capacity.
-		int newCap = overMaxLoad ? Math.max(capacity * 2, DEFAULT_GROUP_SIZE) : capacity;
-		rehash(newCap);
+		// If we are rehashing just to clean up tombstones, keep the capacity and reuse the arrays.
+		if (overMaxLoad) {
+			rehash(Math.max(capacity * 2, DEFAULT_GROUP_SIZE));
+		} else {
+			rehashInPlace();
+		}
+	}
+
+	/* Post-removal housekeeping: halve the table under the shrink policy, otherwise the usual tombstone check. */
+	private void maybeShrinkOrRehash() {
+		if (shouldShrink()) {
+			rehash(capacity >>> 1);
+		} else {
+			maybeRehash();
+		}
+	}
+
+	@Override
+	public void trimToSize() {
+		if (size == 0) {
+			init(0); // nothing to keep: drop back to the shared empty tables
+			return;
+		}
+		int target = Utils.capacityFor(size, DEFAULT_GROUP_SIZE, loadFactor);
+		if (target < capacity) {
+			rehash(target);
+		} else if (tombstones > 0) {
+			rehashInPlace();
+		}
+	}
+
+	/**
+	 * Same-capacity rehash that drops tombstones without allocating (Abseil's "drop deletes without resize").
+	 * Tombstones become EMPTY and FULL slots become DELETED, meaning "not placed yet". Each pending entry then
+	 * moves to the first free slot of its probe sequence. If that slot holds another pending entry, the two
+	 * swap and the displaced one is processed next.
+	 */
+	private void rehashInPlace() {
+		byte[] ctrl = this.ctrl;
+		Object[] keys = this.keys;
+		Object[] vals = this.vals;
+		int cap = capacity;
+		for (int i = 0; i < cap; i++) {
+			ctrl[i] = isFull(ctrl[i]) ? DELETED : EMPTY;
+		}
+
+		int mask = groupMask;
+		for (int i = 0; i < cap; i++) {
+			if (!isDeleted(ctrl[i])) continue;
+			int h = hash(keys[i]);
+			byte h2 = h2(h);
+			int g0 = h1(h) & mask;
+			int target = firstNonFull(g0);
+			// Same probe group (relative to the hash) as before: lookups already find it here.
+			if (((target / DEFAULT_GROUP_SIZE - g0) & mask) == ((i / DEFAULT_GROUP_SIZE - g0) & mask)) {
+				ctrl[i] = h2;
+				continue;
+			}
+			if (isEmpty(ctrl[target])) {
+				keys[target] = keys[i];
+				vals[target] = vals[i];
+				ctrl[target] = h2;
+				keys[i] = null;
+				vals[i] = null;
+				ctrl[i] = EMPTY;
+			} else {
+				// target is still pending: swap entries and reprocess slot i.
+				Object k = keys[target];
+				Object v = vals[target];
+				keys[target] = keys[i];
+				vals[target] = vals[i];
+				keys[i] = k;
+				vals[i] = v;
+				ctrl[target] = h2;
+				i--;
+			}
+		}
+		this.tombstones = 0;
+	}
+
+	/* First EMPTY or DELETED slot on the probe sequence starting at group g. */
+	private int firstNonFull(int g) {
+		int mask = groupMask;
+		int step = 0; // triangular probing step over groups
+		for (;;) {
+			int base = g * DEFAULT_GROUP_SIZE;
+			for (int j = 0; j < DEFAULT_GROUP_SIZE; j++) {
+				if (!isFull(ctrl[base + j])) return base + j;
+			}
+			g = (g + (++step)) & mask; // triangular (quadratic) probing over groups
+		}
 	}
 
 	private void rehash(int newCapacity) {
@@ -113,20 +320,21 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 		int oldCap = (oldCtrl == null) ? 0 : oldCtrl.length - DEFAULT_GROUP_SIZE; // exclude sentinel padding
 
 		int desiredGroups = Math.max(1, (Math.max(newCapacity, DEFAULT_GROUP_SIZE) + DEFAULT_GROUP_SIZE - 1) / DEFAULT_GROUP_SIZE);
-		desiredGroups = ceilPow2(desiredGroups);
+		desiredGroups = Utils.ceilPow2(desiredGroups);
 		this.numGroups = desiredGroups;
 		this.groupMask = desiredGroups - 1;
 		this.capacity = desiredGroups * DEFAULT_GROUP_SIZE;
-		this.ctrl = new byte[this.capacity + DEFAULT_GROUP_SIZE];
+		this.ctrl = allocator.allocateBytes(this.capacity + DEFAULT_GROUP_SIZE);
 		Arrays.fill(this.ctrl, EMPTY);
 		Arrays.fill(this.ctrl, capacity, this.ctrl.length, SENTINEL);
-		this.keys = new Object[this.capacity];
-		this.vals = new Object[this.capacity];
+		this.keys = allocator.allocateObjects(this.capacity);
+		this.vals = allocator.allocateObjects(this.capacity);
 		this.size = 0;
 		this.tombstones = 0;
-		this.maxLoad = calcMaxLoad(this.capacity);
+		this.maxLoad = Utils.calcMaxLoad(this.capacity, loadFactor);
+		this.rehashes++;
 
-		if (oldCtrl == null) return;
+		if (oldCtrl == EMPTY_CTRL) return;
 
 		for (int i = 0; i < oldCap; i++) {
 			byte c = oldCtrl[i];
@@ -138,6 +346,30 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 			int h = hash(k);
 			insertFresh(k, v, h1(h), h2(h));
 		}
+		releaseArrays(oldCtrl, oldKeys, oldVals);
+	}
+
+	private void releaseArrays(byte[] ctrl, Object[] keys, Object[] vals) {
+		allocator.release(ctrl);
+		allocator.release(keys);
+		allocator.release(vals);
+	}
+
+	/**
+	 * Routes table allocation through {@code allocator} (default {@link TableAllocator#HEAP}); arrays dropped by
+	 * later rehashes, {@link #trimToSize()}, {@link #reset(int)} and {@link #releaseTables()} go back to it.
+	 * Tables allocated before the call are released to the new allocator.
+	 */
+	public void setTableAllocator(TableAllocator allocator) {
+		this.allocator = Objects.requireNonNull(allocator);
+	}
+
+	/**
+	 * Removes all entries and hands the tables back to the allocator, e.g. when a short-lived map is done.
+	 * The map stays usable: the next insert allocates a table of the same capacity.
+	 */
+	public void releaseTables() {
+		init(capacity);
 	}
 
 	/* fresh-table insertion used only during rehash */
@@ -179,6 +411,7 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 
 	@Override
 	public boolean containsValue(Object value) {
+		if (size == 0) return false;
 		// linear scan; acceptable for now
 		for (int i = 0; i < capacity; i++) {
 			if (isFull(ctrl[i])) {
@@ -190,71 +423,369 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 
 	@Override
 	public V put(K key, V value) {
+		return putHashed(key, value, hash(key));
+	}
+
+	@Override
+	public V putHashed(K key, V value, int hash) {
+		requireKey(key);
 		maybeRehash();
-		return putVal(key, value);
+		return putVal(key, value, hash);
 	}
 
 	@Override
 	public V remove(Object key) {
-		int idx = findIndex(key);
+		return removeHashed(key, hash(key));
+	}
+
+	@Override
+	public V removeHashed(Object key, int hash) {
+		int idx = findIndex(requireKey(key), hash);
 		if (idx < 0) return null;
 		@SuppressWarnings("unchecked")
 		V old = (V) vals[idx];
-		ctrl[idx] = DELETED;
-		keys[idx] = null;
-		vals[idx] = null;
-		size--;
-		tombstones++;
-		maybeRehash();
+		eraseAt(idx);
+		maybeShrinkOrRehash();
 		return old;
 	}
 
 	/**
 	 * Testing/benchmark only: delete without leaving a tombstone.
 	 * Quadratic probing breaks the contiguity assumption required for backward-shift deletion.
-	 * This method now performs a same-capacity rehash after deletion to ensure there are no tombstones.
+	 * This method performs a same-capacity in-place rehash after deletion to ensure there are no tombstones.
 	 */
 	public V removeWithoutTombstone(Object key) {
 		int idx = findIndex(key);
 		if (idx < 0) return null;
 		@SuppressWarnings("unchecked")
 		V old = (V) vals[idx];
-		ctrl[idx] = DELETED;
-		keys[idx] = null;
-		vals[idx] = null;
-		rehash(capacity);
+		eraseAt(idx);
+		if (tombstones > 0) rehashInPlace();
 		return old;
 	}
 
     @Override
     public void putAll(Map<? extends K, ? extends V> m) {
+		putEntries(m);
+	}
+
+	private void putEntries(Map<? extends K, ? extends V> m) {
         if (m.isEmpty()) return;
+        presizeFor(m.size());
 
+        // Batch insert, avoiding checking if resizing is needed on each put
+        for (Entry<? extends K, ? extends V> e : m.entrySet()) {
+            K k = e.getKey();
+            putVal(k, e.getValue(), hash(k));
+        }
+    }
+
+	/* Grows once so that {@code incoming} new keys fit without a resize in between (putAll, mergeAll). */
+	private void presizeFor(int incoming) {
 		// Pre-check if resizing is needed, keeping consistent logic with maybeRehash
 		// account for tombstone reuse when projecting load before rehash
 		// TODO: consider overlap-heavy putAll cases to avoid overestimating pre-size
-		int projectedSize = size + tombstones + Math.max(0, m.size() - tombstones);
-        boolean overMaxLoad = projectedSize >= maxLoad;
+		int projectedSize = size + tombstones + Math.max(0, incoming - tombstones);
+        boolean overMaxLoad = projectedSize >= maxLoad || ctrl == EMPTY_CTRL;
 
         if (overMaxLoad) {
             // Directly use newSize as the new capacity, rehash method will automatically adjust to appropriate capacity
-            int newSize = this.size + m.size();
-            int newCapacity = Math.max(capacity * 2, DEFAULT_GROUP_SIZE);
+            int newSize = this.size + incoming;
+            // Unallocated tables only need the requested capacity, not twice that.
+            int newCapacity = (ctrl == EMPTY_CTRL) ? capacity : Math.max(capacity * 2, DEFAULT_GROUP_SIZE);
             // Ensure capacity is large enough to accommodate all elements
             while (((int) (newCapacity * loadFactor)) < newSize) {
                 newCapacity = Math.max(newCapacity * 2, DEFAULT_GROUP_SIZE);
             }
             rehash(newCapacity);
         }
+	}
 
-        // Batch insert, avoiding checking if resizing is needed on each put
-        for (Entry<? extends K, ? extends V> e : m.entrySet()) {
-            putVal(e.getKey(), e.getValue());
-        }
-    }
+	/* Map defaults below probe once: a hit reuses its slot, a miss inserts at the free slot the probe found. */
+
+	@Override
+	public V getOrDefault(Object key, V defaultValue) {
+		int idx = findIndex(key);
+		return (idx >= 0) ? castValue(vals[idx]) : defaultValue;
+	}
+
+	@Override
+	public V putIfAbsent(K key, V value) {
+		int h = hash(key);
+		int idx = findSlot(key, h);
+		if (idx < 0) {
+			insertAbsent(key, value, h, ~idx);
+			return null;
+		}
+		V old = castValue(vals[idx]);
+		if (old == null) vals[idx] = value;
+		return old;
+	}
+
+	@Override
+	public V replace(K key, V value) {
+		int idx = findIndex(key);
+		if (idx < 0) return null;
+		V old = castValue(vals[idx]);
+		vals[idx] = value;
+		return old;
+	}
+
+	@Override
+	public boolean replace(K key, V oldValue, V newValue) {
+		int idx = findIndex(key);
+		if (idx < 0) return false;
+		if (!Objects.equals(vals[idx], oldValue)) return false;
+		vals[idx] = newValue;
+		return true;
+	}
+
+	@Override
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+		Objects.requireNonNull(mappingFunction);
+		int h = hash(key);
+		int idx = findSlot(key, h);
+		if (idx >= 0) {
+			V old = castValue(vals[idx]);
+			if (old != null) return old;
+		}
+		int rehashesBefore = this.rehashes;
+		int modCountBefore = this.modCount;
+		V value = mappingFunction.apply(key);
+		if (value == null) return null;
+		if (rehashes != rehashesBefore || modCount != modCountBefore) return applyFresh(key, value);
+		if (idx >= 0) {
+			vals[idx] = value;
+		} else {
+			insertAbsent(key, value, h, ~idx);
+		}
+		return value;
+	}
+
+	@Override
+	public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		Objects.requireNonNull(remappingFunction);
+		int idx = findIndex(key);
+		if (idx < 0) return null;
+		V old = castValue(vals[idx]);
+		if (old == null) return null;
+		int rehashesBefore = this.rehashes;
+		int modCountBefore = this.modCount;
+		V value = remappingFunction.apply(key, old);
+		if (rehashes != rehashesBefore || modCount != modCountBefore) return applyFresh(key, value);
+		if (value == null) {
+			removeAt(idx);
+		} else {
+			vals[idx] = value;
+		}
+		return value;
+	}
+
+	@Override
+	public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		Objects.requireNonNull(remappingFunction);
+		int h = hash(key);
+		int idx = findSlot(key, h);
+		V old = (idx >= 0) ? castValue(vals[idx]) : null;
+		int rehashesBefore = this.rehashes;
+		int modCountBefore = this.modCount;
+		V value = remappingFunction.apply(key, old);
+		if (rehashes != rehashesBefore || modCount != modCountBefore) return applyFresh(key, value);
+		if (idx >= 0) {
+			if (value == null) {
+				removeAt(idx);
+			} else {
+				vals[idx] = value;
+			}
+		} else if (value != null) {
+			insertAbsent(key, value, h, ~idx);
+		}
+		return value;
+	}
+
+	@Override
+	public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+		Objects.requireNonNull(value);
+		Objects.requireNonNull(remappingFunction);
+		return mergeHashed(key, value, hash(key), remappingFunction);
+	}
+
+	private V mergeHashed(K key, V value, int h, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+		int idx = findSlot(key, h);
+		if (idx < 0) {
+			insertAbsent(key, value, h, ~idx);
+			return value;
+		}
+		V old = castValue(vals[idx]);
+		if (old == null) {
+			vals[idx] = value;
+			return value;
+		}
+		int rehashesBefore = this.rehashes;
+		int modCountBefore = this.modCount;
+		V merged = remappingFunction.apply(old, value);
+		if (rehashes != rehashesBefore || modCount != modCountBefore) return applyFresh(key, merged);
+		if (merged == null) {
+			removeAt(idx);
+		} else {
+			vals[idx] = merged;
+		}
+		return merged;
+	}
+
+	/**
+	 * {@link #merge}s every entry of {@code other} into this map: absent keys (or keys mapped to {@code null}) take
+	 * the other value, present ones {@code remappingFunction.apply(thisValue, otherValue)}, and a {@code null}
+	 * result removes the key. Walks {@code other}'s table group by group, grows this table at most once up front
+	 * and probes once per key. {@code other} must not be modified during the call.
+	 *
+	 * @throws NullPointerException if {@code other} holds a {@code null} value, as {@link #merge} would
+	 */
+	public void mergeAll(SwissSimdMap<? extends K, ? extends V> other,
+			BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+		Objects.requireNonNull(remappingFunction);
+		if (other == this) other = clone(); // remapping may remove entries from the table being walked
+		if (other.size == 0) return;
+		presizeFor(other.size);
+		byte[] otherCtrl = other.ctrl;
+		int otherCap = other.capacity;
+		for (int base = 0; base < otherCap; base += DEFAULT_GROUP_SIZE) {
+			long full = ByteVector.fromArray(SPECIES, otherCtrl, base).compare(VectorOperators.GE, (byte) 0).toLong();
+			while (full != 0) {
+				int idx = base + Long.numberOfTrailingZeros(full);
+				full &= full - 1;
+				K k = castKey(other.keys[idx]);
+				V v = Objects.requireNonNull(castValue(other.vals[idx]));
+				mergeHashed(k, v, hash(k), remappingFunction);
+			}
+		}
+	}
+
+	/*
+	 * Batched lookups: with a table far larger than the last-level cache nearly every probe misses twice (ctrl
+	 * group, then key), and a one-key-at-a-time loop pays those misses back to back. Batching issues the loads of
+	 * several independent keys before any of them is compared, so their misses overlap.
+	 */
+
+	/**
+	 * {@code out[i] = get(keys[i])} for every {@code i < keys.length}.
+	 *
+	 * @throws NullPointerException if any key is null
+	 * @throws IllegalArgumentException if {@code out} is shorter than {@code keys}
+	 */
+	public void getAll(K[] keys, V[] out) {
+		checkBatchOutput(keys.length, out.length);
+		LookupBatch batch = new LookupBatch();
+		for (int from = 0; from < keys.length; from += LOOKUP_BATCH) {
+			int n = findBatch(keys, from, batch);
+			for (int j = 0; j < n; j++) {
+				int idx = batch.slot[j];
+				out[from + j] = (idx >= 0) ? castValue(vals[idx]) : null;
+			}
+		}
+	}
+
+	/**
+	 * {@code out[i] = containsKey(keys[i])} for every {@code i < keys.length}.
+	 *
+	 * @throws NullPointerException if any key is null
+	 * @throws IllegalArgumentException if {@code out} is shorter than {@code keys}
+	 */
+	public void containsAll(K[] keys, boolean[] out) {
+		checkBatchOutput(keys.length, out.length);
+		LookupBatch batch = new LookupBatch();
+		for (int from = 0; from < keys.length; from += LOOKUP_BATCH) {
+			int n = findBatch(keys, from, batch);
+			for (int j = 0; j < n; j++) out[from + j] = batch.slot[j] >= 0;
+		}
+	}
+
+	/** Per-call scratch for {@link #findBatch}. */
+	private static final class LookupBatch {
+		final int[] hash = new int[LOOKUP_BATCH];
+		final int[] group = new int[LOOKUP_BATCH];
+		final long[] eqMask = new long[LOOKUP_BATCH];
+		final long[] emptyMask = new long[LOOKUP_BATCH];
+		final Object[] candidate = new Object[LOOKUP_BATCH];
+		final int[] slot = new int[LOOKUP_BATCH];
+	}
+
+	private static void checkBatchOutput(int keys, int out) {
+		if (out < keys) throw new IllegalArgumentException("output array too short: " + out + " < " + keys);
+	}
+
+	/**
+	 * Resolves up to {@link #LOOKUP_BATCH} keys starting at {@code from} into {@code batch.slot} (slot or -1)
+	 * and returns how many were resolved. Three passes: hash and match the first ctrl group of every key, load
+	 * the key slot of every first H2 match, then compare (continuing the probe where needed).
+	 */
+	private int findBatch(Object[] query, int from, LookupBatch batch) {
+		int n = Math.min(LOOKUP_BATCH, query.length - from);
+		int[] hash = batch.hash;
+		int[] group = batch.group;
+		long[] eqMask = batch.eqMask;
+		for (int j = 0; j < n; j++) hash[j] = hash(query[from + j]);
+		if (size == 0) {
+			Arrays.fill(batch.slot, 0, n, -1);
+			return n;
+		}
+		int mask = groupMask;
+		for (int j = 0; j < n; j++) {
+			int g = h1(hash[j]) & mask;
+			ByteVector v = loadCtrlVector(g * DEFAULT_GROUP_SIZE);
+			group[j] = g;
+			eqMask[j] = v.eq(h2(hash[j])).toLong();
+			batch.emptyMask[j] = v.eq(EMPTY).toLong();
+		}
+		Object[] keys = this.keys;
+		Object[] candidate = batch.candidate;
+		for (int j = 0; j < n; j++) {
+			// Pull in the first candidate's key slot; the compare pass below finds it in cache.
+			long eq = eqMask[j];
+			candidate[j] = (eq == 0) ? null : keys[group[j] * DEFAULT_GROUP_SIZE + Long.numberOfTrailingZeros(eq)];
+		}
+		for (int j = 0; j < n; j++) {
+			batch.slot[j] = findIndexFrom(query[from + j], hash[j], group[j], eqMask[j], batch.emptyMask[j]);
+			candidate[j] = null; // do not keep keys reachable from the scratch
+		}
+		return n;
+	}
+
+	/**
+	 * Fallback for a mapping function that inserted or removed entries itself: the probed slot may be stale,
+	 * so the result is applied with a fresh probe ({@code null} removes the key).
+	 */
+	private V applyFresh(K key, V value) {
+		if (value == null) {
+			remove(key);
+		} else {
+			put(key, value);
+		}
+		return value;
+	}
+
+	/* Removes the FULL slot idx found by a probe, with the same housekeeping as remove(Object). */
+	private void removeAt(int idx) {
+		eraseAt(idx);
+		maybeShrinkOrRehash();
+	}
 
-    private V putVal(K key, V value) {
-        int h = hash(key);
+	/**
+	 * Inserts a key that {@link #findSlot} just missed. {@code slot} stays valid unless {@link #maybeRehash()}
+	 * rebuilds the table first; only then is a free slot searched again (no {@code equals} calls, the key is
+	 * known to be absent).
+	 */
+	private void insertAbsent(K key, V value, int smearedHash, int slot) {
+		int rehashesBefore = this.rehashes;
+		int tombstonesBefore = this.tombstones;
+		maybeRehash();
+		if (rehashes != rehashesBefore || tombstones != tombstonesBefore) {
+			slot = firstNonFull(h1(smearedHash) & groupMask);
+		}
+		insertAt(slot, key, value, h2(smearedHash));
+	}
+
+    private V putVal(K key, V value, int h) {
         int h1 = h1(h);
         byte h2 = h2(h);
         int mask = groupMask;
@@ -271,7 +802,7 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
                 int idx = base + bit;
 				Object k = keys[idx];
 				// NULL-safe: an optimistic reader may observe ctrl and then see a null key while a writer is publishing.
-				if (k == key || (k != null && k.equals(key))) { // almost always true; too bad I can’t hint the compiler
+				if (k == key || (k != null && keyEquals(k, key))) { // almost always true; too bad I can’t hint the compiler
                     @SuppressWarnings("unchecked") V old = (V) vals[idx];
                     vals[idx] = value;
                     return old;
@@ -295,15 +826,97 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
         }
     }
 
+	/**
+	 * Single probe shared by the compute/merge family: returns the slot holding {@code key}, or {@code ~slot}
+	 * for the slot an insert would use (first tombstone on the probe sequence, else the terminating EMPTY).
+	 * Unallocated tables return {@code ~0}; {@link #insertAbsent} re-locates the slot after allocating.
+	 */
+	private int findSlot(Object key, int h) {
+		if (ctrl == EMPTY_CTRL) return ~0;
+		int h1 = h1(h);
+		byte h2 = h2(h);
+		int mask = groupMask;
+		int firstTombstone = -1;
+		int visitedGroups = 0;
+		int g = h1 & mask;
+		int step = 0; // triangular probing step over groups
+		for (;;) {
+			int base = g * DEFAULT_GROUP_SIZE;
+			ByteVector v = loadCtrlVector(base);
+			long eqMask = v.eq(h2).toLong();
+			while (eqMask != 0) {
+				int idx = base + Long.numberOfTrailingZeros(eqMask);
+				Object k = keys[idx];
+				if (k == key || (k != null && keyEquals(k, key))) {
+					return idx;
+				}
+				eqMask &= eqMask - 1; // clear LSB
+			}
+			if (firstTombstone < 0) {
+				long delMask = v.eq(DELETED).toLong();
+				if (delMask != 0) firstTombstone = base + Long.numberOfTrailingZeros(delMask);
+			}
+			long emptyMask = v.eq(EMPTY).toLong();
+			if (emptyMask != 0) {
+				return ~((firstTombstone >= 0) ? firstTombstone : base + Long.numberOfTrailingZeros(emptyMask));
+			}
+			if (++visitedGroups >= numGroups) {
+				if (firstTombstone >= 0) return ~firstTombstone; // every group probed: the key is absent
+				throw new IllegalStateException("Probe cycle exhausted; table appears full of tombstones");
+			}
+			g = (g + (++step)) & mask; // triangular (quadratic) probing over groups
+		}
+	}
+
 	@Override
 	public void clear() {
-		Arrays.fill(ctrl, 0, capacity, EMPTY);
-		Arrays.fill(ctrl, capacity, ctrl.length, SENTINEL);
-		Arrays.fill(keys, null);
-		Arrays.fill(vals, null);
+		if (ctrl == EMPTY_CTRL) return; // never allocated, nothing to clear
+		if (size == 0 && tombstones == 0) return; // every slot is already EMPTY with null key/value
+		if (size <= (capacity >>> 3)) {
+			clearOccupiedGroups();
+		} else {
+			Arrays.fill(ctrl, 0, capacity, EMPTY);
+			Arrays.fill(keys, null);
+			Arrays.fill(vals, null);
+		}
 		size = 0;
+		modCount++;
 		tombstones = 0;
-		maxLoad = calcMaxLoad(capacity);
+		maxLoad = Utils.calcMaxLoad(capacity, loadFactor);
+	}
+
+	/**
+	 * Clear for sparse tables (reused scratch maps): one pass over the ctrl groups, touching key/value slots only
+	 * in groups that hold entries, instead of filling arrays sized by capacity. The SENTINEL tail is untouched.
+	 */
+	private void clearOccupiedGroups() {
+		for (int base = 0; base < capacity; base += DEFAULT_GROUP_SIZE) {
+			ByteVector v = loadCtrlVector(base);
+			if (v.eq(EMPTY).allTrue()) continue;
+			long full = v.compare(VectorOperators.GE, (byte) 0).toLong();
+			while (full != 0) {
+				int idx = base + Long.numberOfTrailingZeros(full);
+				keys[idx] = null;
+				vals[idx] = null;
+				full &= full - 1;
+			}
+			Arrays.fill(ctrl, base, base + DEFAULT_GROUP_SIZE, EMPTY);
+		}
+	}
+
+	/**
+	 * Removes all entries and sizes the table for {@code expectedSize} entries, releasing a table that an earlier
+	 * burst grew far beyond that, so a reused map stays cheap to clear. A table of the same size is cleared in
+	 * place; otherwise the new one is allocated by the next insert.
+	 */
+	public void reset(int expectedSize) {
+		if (expectedSize < 0) throw new IllegalArgumentException("expectedSize must be >= 0: " + expectedSize);
+		int target = Utils.capacityFor(expectedSize, DEFAULT_GROUP_SIZE, loadFactor);
+		if (target == capacity) {
+			clear();
+			return;
+		}
+		init(target);
 	}
 
 	@Override
@@ -321,11 +934,23 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 		return new EntryView();
 	}
 
+	/**
+	 * Entries are visited in the same randomized order as the iterators.
+	 */
+	@Override
+	public MapCursor<K, V> cursor() {
+		return new Cursor();
+	}
+
 	/* lookup utilities */
 	@Override
 	protected int findIndex(Object key) {
 		// Disallow null keys even on empty maps for consistent Map semantics in this project.
-		int h = hashNonNull(key);
+		return findIndex(key, hash(key));
+	}
+
+	@Override
+	protected int findIndex(Object key, int h) {
 		if (size == 0) return -1;
 		int h1 = h1(h);
 		byte h2 = h2(h);
@@ -342,7 +967,7 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 				int idx = base + bit;
 				Object k = keys[idx];
 				// NULL-safe: an optimistic reader may observe ctrl and then see a null key while a writer is publishing.
-				if (k == key || (k != null && k.equals(key))) { // almost always true
+				if (k == key || (k != null && keyEquals(k, key))) { // almost always true
 					return idx;
 				}
 				eqMask &= eqMask - 1;
@@ -358,6 +983,37 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 		}
 	}
 
+	/**
+	 * {@link #findIndex} for a probe whose first group {@code g} has already been matched.
+	 */
+	private int findIndexFrom(Object key, int h, int g, long eqMask, long emptyMask) {
+		byte h2 = h2(h);
+		int mask = groupMask;
+		int visitedGroups = 0;
+		int step = 0;
+		for (;;) {
+			int base = g * DEFAULT_GROUP_SIZE;
+			while (eqMask != 0) {
+				int idx = base + Long.numberOfTrailingZeros(eqMask);
+				Object k = keys[idx];
+				if (k == key || (k != null && keyEquals(k, key))) {
+					return idx;
+				}
+				eqMask &= eqMask - 1;
+			}
+			if (emptyMask != 0) {
+				return -1;
+			}
+			if (++visitedGroups >= numGroups) {
+				return -1;
+			}
+			g = (g + (++step)) & mask;
+			ByteVector v = loadCtrlVector(g * DEFAULT_GROUP_SIZE);
+			eqMask = v.eq(h2).toLong();
+			emptyMask = v.eq(EMPTY).toLong();
+		}
+	}
+
 	private V insertAt(int idx, K key, V value, byte h2) {
 		if (isDeleted(ctrl[idx])) tombstones--;
 		// Publish entry first, then mark ctrl as FULL.
@@ -365,6 +1021,7 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 		vals[idx] = value;
 		ctrl[idx] = h2;
 		size++;
+		modCount++;
 		return null;
 	}
 
@@ -399,7 +1056,7 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 			this.start = cycle.start;
 			this.step = cycle.step;
 			this.mask = cycle.mask;
-			advance();
+			if (size > 0) advance(); // also keeps empty (possibly unallocated) maps off the ctrl array
 		}
 
 		private void advance() {
@@ -431,11 +1088,7 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 		public void remove() {
 			if (last < 0) throw new IllegalStateException();
 			if (isFull(ctrl[last])) {
-				ctrl[last] = DELETED;
-				keys[last] = null;
-				vals[last] = null;
-				size--;
-				tombstones++;
+				eraseAt(last);
 			}
 			last = -1;
 		}
@@ -463,6 +1116,64 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 		}
 	}
 
+	private final class Cursor implements MapCursor<K, V> {
+		private final int start;
+		private final int step;
+		private final int mask;
+		private int iter;
+		private int idx = -1;
+
+		Cursor() {
+			RandomCycle cycle = new RandomCycle(capacity, iterationSeed);
+			this.start = cycle.start;
+			this.step = cycle.step;
+			this.mask = cycle.mask;
+			if (size == 0) iter = capacity; // also keeps empty (possibly unallocated) maps off the ctrl array
+		}
+
+		@Override
+		public boolean advance() {
+			while (iter < capacity) {
+				int i = (start + (iter++ * step)) & mask;
+				if (isFull(ctrl[i])) {
+					idx = i;
+					return true;
+				}
+			}
+			idx = -1;
+			return false;
+		}
+
+		private int current() {
+			if (idx < 0) throw new IllegalStateException("cursor is not positioned on an entry");
+			return idx;
+		}
+
+		@Override
+		public K key() {
+			return castKey(keys[current()]);
+		}
+
+		@Override
+		public V value() {
+			return castValue(vals[current()]);
+		}
+
+		@Override
+		public V setValue(V value) {
+			int i = current();
+			V old = castValue(vals[i]);
+			vals[i] = value;
+			return old;
+		}
+
+		@Override
+		public void remove() {
+			eraseAt(current()); // no rehash: entries must stay where the cursor expects them
+			idx = -1;
+		}
+	}
+
 	private class EntryRef implements Entry<K, V> {
 		private final int idx;
 		EntryRef(int idx) { this.idx = idx; }
@@ -498,6 +1209,141 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 		}
 	}
 
+	/**
+	 * Spliterator over a range {@code [lo, hi)} of the group visit sequence, i.e. the iterators' randomized
+	 * group order, so parallel streams split by whole groups and sequential streams see the iterator order.
+	 * Each group's FULL slots come from one vector compare over its ctrl bytes. Sizes are exact: a split counts
+	 * the FULL lanes of the half it hands off and subtracts them from its own count.
+	 */
+	private abstract class BaseSpliterator<T> implements Spliterator<T> {
+		private final int start;
+		private final int step;
+		private final int mask;
+		private int lo;          // next position in the group visit sequence
+		private final int hi;    // end (exclusive) of this spliterator's positions
+		private long remaining;  // exact number of entries not yet visited
+		private int base;        // first slot of the current group
+		private long full;       // one bit per FULL slot of the current group not yet visited
+
+		BaseSpliterator() {
+			int nGroups = (size > 0) ? numGroups : 0;
+			RandomCycle cycle = new RandomCycle(Math.max(nGroups, 1), iterationSeed);
+			this.start = cycle.start;
+			this.step = cycle.step;
+			this.mask = cycle.mask;
+			this.hi = nGroups;
+			this.remaining = size;
+		}
+
+		BaseSpliterator(BaseSpliterator<T> parent, int lo, int hi, long count) {
+			this.start = parent.start;
+			this.step = parent.step;
+			this.mask = parent.mask;
+			this.lo = lo;
+			this.hi = hi;
+			this.remaining = count;
+		}
+
+		abstract T elementAt(int idx);
+
+		abstract BaseSpliterator<T> prefix(int lo, int hi, long count);
+
+		private long fullLanes(int pos) {
+			// FULL tags are 0..127; EMPTY, DELETED and SENTINEL are negative.
+			return loadCtrlVector(((start + (pos * step)) & mask) * DEFAULT_GROUP_SIZE).compare(VectorOperators.GE, (byte) 0).toLong();
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			Objects.requireNonNull(action);
+			while (full == 0) {
+				if (lo >= hi) return false;
+				base = ((start + (lo * step)) & mask) * DEFAULT_GROUP_SIZE;
+				full = fullLanes(lo++);
+			}
+			int idx = base + Long.numberOfTrailingZeros(full);
+			full &= full - 1; // clear LSB
+			remaining--;
+			action.accept(elementAt(idx));
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super T> action) {
+			Objects.requireNonNull(action);
+			for (;;) {
+				while (full != 0) {
+					int idx = base + Long.numberOfTrailingZeros(full);
+					full &= full - 1; // clear LSB
+					action.accept(elementAt(idx));
+				}
+				if (lo >= hi) break;
+				base = ((start + (lo * step)) & mask) * DEFAULT_GROUP_SIZE;
+				full = fullLanes(lo++);
+			}
+			remaining = 0;
+		}
+
+		@Override
+		public Spliterator<T> trySplit() {
+			int mid = (lo + hi) >>> 1;
+			if (mid <= lo) return null;
+			long count = 0;
+			for (int pos = lo; pos < mid; pos++) count += Long.bitCount(fullLanes(pos));
+			Spliterator<T> split = prefix(lo, mid, count);
+			lo = mid;
+			remaining -= count;
+			return split;
+		}
+
+		@Override
+		public long estimateSize() {
+			return remaining;
+		}
+	}
+
+	private final class KeySpliterator extends BaseSpliterator<K> {
+		KeySpliterator() {}
+		KeySpliterator(KeySpliterator parent, int lo, int hi, long count) { super(parent, lo, hi, count); }
+
+		@Override
+		K elementAt(int idx) { return castKey(keys[idx]); }
+
+		@Override
+		BaseSpliterator<K> prefix(int lo, int hi, long count) { return new KeySpliterator(this, lo, hi, count); }
+
+		@Override
+		public int characteristics() { return DISTINCT | NONNULL | SIZED | SUBSIZED; }
+	}
+
+	private final class ValueSpliterator extends BaseSpliterator<V> {
+		ValueSpliterator() {}
+		ValueSpliterator(ValueSpliterator parent, int lo, int hi, long count) { super(parent, lo, hi, count); }
+
+		@Override
+		V elementAt(int idx) { return castValue(vals[idx]); }
+
+		@Override
+		BaseSpliterator<V> prefix(int lo, int hi, long count) { return new ValueSpliterator(this, lo, hi, count); }
+
+		@Override
+		public int characteristics() { return SIZED | SUBSIZED; }
+	}
+
+	private final class EntrySpliterator extends BaseSpliterator<Entry<K, V>> {
+		EntrySpliterator() {}
+		EntrySpliterator(EntrySpliterator parent, int lo, int hi, long count) { super(parent, lo, hi, count); }
+
+		@Override
+		Entry<K, V> elementAt(int idx) { return new EntryRef(idx); }
+
+		@Override
+		BaseSpliterator<Entry<K, V>> prefix(int lo, int hi, long count) { return new EntrySpliterator(this, lo, hi, count); }
+
+		@Override
+		public int characteristics() { return DISTINCT | NONNULL | SIZED | SUBSIZED; }
+	}
+
 	private class KeyView extends java.util.AbstractSet<K> {
 		@Override
 		public int size() { return size; }
@@ -512,11 +1358,7 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 		public boolean remove(Object o) {
 			int idx = SwissSimdMap.this.findIndex(o);
 			if (idx < 0) return false;
-			ctrl[idx] = DELETED;
-			keys[idx] = null;
-			vals[idx] = null;
-			size--;
-			tombstones++;
+			eraseAt(idx);
 			// NOTE: do not rehash from iterator.remove().
 			// Some JDK algorithms (e.g. AbstractCollection.retainAll) prefetch iterator state (next index) before calling remove().
 			// Rehash would rebuild ctrl/keys and can invalidate that prefetched index, causing the iterator to yield null/empty slots.
@@ -525,6 +1367,9 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 
 		@Override
 		public Iterator<K> iterator() { return new KeyIter(); }
+
+		@Override
+		public Spliterator<K> spliterator() { return new KeySpliterator(); }
 	}
 
 	private class ValuesView extends java.util.AbstractCollection<V> {
@@ -539,6 +1384,9 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 
 		@Override
 		public Iterator<V> iterator() { return new ValueIter(); }
+
+		@Override
+		public Spliterator<V> spliterator() { return new ValueSpliterator(); }
 	}
 
 	private class EntryView extends java.util.AbstractSet<Entry<K, V>> {
@@ -560,11 +1408,7 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 			if (!(o instanceof Entry<?,?> e)) return false;
 			int idx = findIndex(e.getKey());
 			if (idx < 0 || !Objects.equals(vals[idx], e.getValue())) return false;
-			ctrl[idx] = DELETED;
-			keys[idx] = null;
-			vals[idx] = null;
-			size--;
-			tombstones++;
+			eraseAt(idx);
 			// NOTE: do not rehash from iterator.remove().
 			// Some JDK algorithms (e.g. AbstractCollection.retainAll) prefetch iterator state (next index) before calling remove().
 			// Rehash would rebuild ctrl/keys and can invalidate that prefetched index, causing the iterator to yield null/empty slots.
@@ -573,5 +1417,8 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 
 		@Override
 		public Iterator<Entry<K, V>> iterator() { return new EntryIter(); }
+
+		@Override
+		public Spliterator<Entry<K, V>> spliterator() { return new EntrySpliterator(); }
 	}
 }
@@ -0,0 +1,55 @@
+package io.github.bluuewhale.hashsmith;
+
+/**
+ * Source of the backing arrays of {@link SwissMap} and {@link SwissSimdMap}, so tables dropped by a rehash,
+ * {@code trimToSize()}, {@code reset()} or {@code releaseTables()} can be recycled by the next map that grows
+ * through the same sizes instead of becoming garbage.
+ *
+ * <pre>{@code
+ * static final TableAllocator POOL = TableAllocator.threadLocalPool(64 << 20);
+ *
+ * var m = new SwissMap<String, Integer>();
+ * m.setTableAllocator(POOL);
+ * ... build, use ...
+ * m.releaseTables();
+ * }</pre>
+ *
+ * <p>Contract: {@code long[]}/{@code byte[]} arrays may be handed out with arbitrary contents (the map
+ * initializes every element), {@code Object[]} arrays must be all {@code null}. A released array belongs to the
+ * allocator; the map never touches it again. Maps read concurrently ({@link ConcurrentSwissMap} shards) never
+ * recycle, because an optimistic reader may still be scanning a table its writer just dropped.
+ */
+public interface TableAllocator {
+
+	long[] allocateLongs(int length);
+
+	byte[] allocateBytes(int length);
+
+	Object[] allocateObjects(int length);
+
+	void release(long[] array);
+
+	void release(byte[] array);
+
+	void release(Object[] array);
+
+	/** Plain {@code new}; released arrays are left to the GC. The default of every map. */
+	TableAllocator HEAP = new TableAllocator() {
+		@Override public long[] allocateLongs(int length) { return new long[length]; }
+		@Override public byte[] allocateBytes(int length) { return new byte[length]; }
+		@Override public Object[] allocateObjects(int length) { return new Object[length]; }
+		@Override public void release(long[] array) {}
+		@Override public void release(byte[] array) {}
+		@Override public void release(Object[] array) {}
+	};
+
+	/**
+	 * Returns an allocator that keeps released arrays in a per-thread pool, keyed by exact length, holding at
+	 * most {@code maxBytesPerThread} (estimated at 4 bytes per reference). Released {@code Object[]} arrays are
+	 * nulled out before pooling, so pooled tables never keep keys or values reachable. A map may be released on
+	 * a different thread than the one that built it; its arrays then join that thread's pool.
+	 */
+	static TableAllocator threadLocalPool(long maxBytesPerThread) {
+		return new ArrayPool(maxBytesPerThread);
+	}
+}
@@ -14,6 +14,13 @@ final class Utils {
 		return Math.max(1, Math.min(ml, cap - 1));
 	}
 
+	/* Smallest power-of-two capacity (at least minCap) whose maxLoad exceeds n. */
+	static int capacityFor(int n, int minCap, double loadFactor) {
+		int cap = minCap;
+		while (calcMaxLoad(cap, loadFactor) <= n) cap <<= 1;
+		return cap;
+	}
+
 	static int ceilPow2(int x) {
 		if (x <= 1) return 1;
 		return Integer.highestOneBit(x - 1) << 1;
@@ -25,6 +32,12 @@ final class Utils {
 		}
 	}
 
+	static void validateShrinkThreshold(double fraction) {
+		if (!(fraction >= 0.0d && fraction <= 0.25d)) {
+			throw new IllegalArgumentException("shrink threshold must be in [0,0.25]: " + fraction);
+		}
+	}
+
 	/**
 	 * (start, step) generator to visit every slot in a power-of-two table.
 	 */
@@ -0,0 +1,85 @@
+package io.github.bluuewhale.hashsmith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class BigSwissMapTest {
+
+	/* hashCode() collides for every key; only hash64() tells them apart. */
+	record Fingerprint(long hi, long lo) implements Hash64 {
+		@Override public int hashCode() { return 0; }
+		@Override public long hash64() { return hi * 31 + lo; }
+	}
+
+	@Test
+	void hash64KeysDoNotCollideOnHashCode() {
+		var m = new BigSwissMap<Fingerprint, Long>();
+		for (long i = 0; i < 50_000; i++) assertNull(m.put(new Fingerprint(i, ~i), i));
+		assertEquals(50_000L, m.mappingCount());
+		for (long i = 0; i < 50_000; i++) assertEquals(i, m.get(new Fingerprint(i, ~i)));
+		assertNull(m.get(new Fingerprint(-1, 0)));
+		for (long i = 0; i < 50_000; i += 2) assertEquals(i, m.remove(new Fingerprint(i, ~i)));
+		assertEquals(25_000, m.size());
+		for (long i = 0; i < 50_000; i++) assertEquals(i % 2 == 0 ? null : i, m.get(new Fingerprint(i, ~i)));
+	}
+
+	@Test
+	void growsAcrossChunksMatchingHashMap() {
+		var m = new BigSwissMap<Integer, Integer>();
+		Map<Integer, Integer> expected = new HashMap<>();
+		var rnd = new Random(5);
+		for (int i = 0; i < 600_000; i++) {
+			int k = rnd.nextInt(400_000);
+			if (rnd.nextInt(4) == 0) {
+				assertEquals(expected.remove(k), m.remove(k));
+			} else {
+				assertEquals(expected.put(k, i), m.put(k, i));
+			}
+		}
+		assertEquals(expected.size(), m.mappingCount());
+		assertEquals(expected, m);
+
+		long[] sum = new long[2];
+		m.forEach((k, v) -> sum[0] += v);
+		MapCursor<Integer, Integer> c = m.cursor();
+		while (c.advance()) {
+			sum[1] += c.value();
+			if (c.key() % 3 == 0) c.remove();
+		}
+		assertEquals(sum[0], sum[1]);
+		expected.keySet().removeIf(k -> k % 3 == 0);
+		assertEquals(expected, m);
+
+		m.trimToSize();
+		assertEquals(expected, m);
+		m.clear();
+		assertTrue(m.isEmpty());
+		assertNull(m.get(1));
+	}
+
+	@Test
+	void capacityForAvoidsResize() {
+		var m = new BigSwissMap<Integer, Integer>(BigSwissMap.capacityFor(100_000));
+		Object chunks = getField(m, "keys");
+		for (int i = 0; i < 100_000; i++) m.put(i, i);
+		assertSame(chunks, getField(m, "keys"), "no rehash");
+		assertThrows(IllegalArgumentException.class, () -> BigSwissMap.capacityFor(-1));
+		assertThrows(IllegalStateException.class, () -> new BigSwissMap<>(1L << 50));
+	}
+
+	private static Object getField(Object target, String name) {
+		try {
+			Field f = target.getClass().getDeclaredField(name);
+			f.setAccessible(true);
+			return f.get(target);
+		} catch (ReflectiveOperationException e) {
+			throw new AssertionError("Failed to read field: " + name, e);
+		}
+	}
+}
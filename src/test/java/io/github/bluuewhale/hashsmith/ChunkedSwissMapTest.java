@@ -0,0 +1,99 @@
+package io.github.bluuewhale.hashsmith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class ChunkedSwissMapTest {
+
+	private static Object getField(Object target, String name) {
+		try {
+			Field f = target.getClass().getDeclaredField(name);
+			f.setAccessible(true);
+			return f.get(target);
+		} catch (ReflectiveOperationException e) {
+			throw new AssertionError("Failed to read field: " + name, e);
+		}
+	}
+
+	private static void assertChunked(ChunkedSwissMap<?, ?> m) {
+		long[][] ctrl = (long[][]) getField(m, "ctrl");
+		Object[][] keys = (Object[][]) getField(m, "keys");
+		assertEquals(Math.max(1, m.capacity / ChunkedTables.CHUNK_SLOTS), keys.length);
+		for (int c = 0; c < keys.length; c++) {
+			assertEquals(Math.min(m.capacity, ChunkedTables.CHUNK_SLOTS), keys[c].length);
+			assertEquals(keys[c].length / 8, ctrl[c].length);
+		}
+	}
+
+	@Test
+	void growsAcrossChunksAndShrinksBack() {
+		var m = new ChunkedSwissMap<Integer, Integer>();
+		m.setShrinkThreshold(0.25);
+		Map<Integer, Integer> expected = new HashMap<>();
+		var rnd = new Random(3);
+		for (int i = 0; i < 400_000; i++) {
+			int k = rnd.nextInt();
+			assertEquals(expected.put(k, i), m.put(k, i));
+		}
+		assertTrue(m.capacity > 4 * ChunkedTables.CHUNK_SLOTS);
+		assertChunked(m);
+		assertEquals(expected, m);
+
+		int removed = 0;
+		for (var it = expected.entrySet().iterator(); it.hasNext(); ) {
+			var e = it.next();
+			if (removed++ % 10 == 0) continue;
+			assertEquals(e.getValue(), m.remove(e.getKey()));
+			it.remove();
+		}
+		assertChunked(m);
+		assertEquals(expected, m);
+		m.trimToSize();
+		assertChunked(m);
+		assertEquals(expected, m);
+		for (Integer k : expected.keySet()) assertEquals(expected.get(k), m.get(k));
+	}
+
+	@Test
+	void rehashReusesDrainedChunks() {
+		var m = new ChunkedSwissMap<Integer, Integer>(4 * ChunkedTables.CHUNK_SLOTS);
+		Set<Object> before = java.util.Collections.newSetFromMap(new IdentityHashMap<>());
+		before.addAll(java.util.List.of((Object[][]) getField(m, "keys")));
+		int n = m.maxLoad + 1; // crosses the threshold once
+		for (int i = 0; i < n; i++) m.put(i, i);
+		assertEquals(8 * ChunkedTables.CHUNK_SLOTS, m.capacity);
+		assertChunked(m);
+
+		Object[][] after = (Object[][]) getField(m, "keys");
+		int reused = 0;
+		for (Object[] chunk : after) if (before.contains(chunk)) reused++;
+		// New chunks needed before an old one has drained are fresh allocations, so not every old chunk comes back.
+		assertTrue(reused > 0, "drained old chunks are recycled as new chunks");
+		for (int i = 0; i < n; i++) assertEquals(i, m.get(i));
+		assertEquals(n, m.size());
+	}
+
+	@Test
+	void tombstoneRehashKeepsCapacity() {
+		var m = new ChunkedSwissMap<Integer, Integer>(2 * ChunkedTables.CHUNK_SLOTS);
+		int cap = m.capacity;
+		int n = m.maxLoad - 1;
+		for (int i = 0; i < n; i++) m.put(i, i);
+		for (int round = 0; round < 5; round++) {
+			for (int i = 0; i < n; i += 2) assertEquals(i + round, m.remove(i));
+			for (int i = 0; i < n; i += 2) assertNull(m.put(i, i + round + 1));
+			for (int i = 1; i < n; i += 2) assertEquals(i, m.get(i));
+		}
+		assertEquals(cap, m.capacity);
+		assertEquals(n, m.size());
+		assertChunked(m);
+	}
+}
@@ -418,6 +418,30 @@ class ConcurrentSwissMapConcurrencyTest {
 			assertEquals(count, m.size(), "size must match snapshot entry count after quiescence");
 		});
 	}
-}
-
 
+	@Test
+	void optimisticReadOfTornTables_returnsWithoutThrowing() throws Exception {
+		// What an optimistic reader can observe mid-resize: ctrl of one table, keys/vals of the other.
+		var small = new SwissMap<Integer, Integer>(16);
+		var large = new SwissMap<Integer, Integer>(1_024);
+		for (int i = 0; i < 12; i++) {
+			small.put(i, i);
+			large.put(i, i);
+		}
+		for (String mixed : new String[] { "ctrl", "keys", "vals" }) {
+			for (var pair : new SwissMap<?, ?>[][] { { small, large }, { large, small } }) {
+				@SuppressWarnings("unchecked")
+				var torn = (SwissMap<Integer, Integer>) pair[0].clone();
+				var field = SwissMap.class.getDeclaredField(mixed);
+				field.setAccessible(true);
+				field.set(torn, field.get(pair[1]));
+				for (int i = 0; i < 64; i++) {
+					Integer k = i;
+					int h = HashSmith.hash(k);
+					torn.getConcurrent(k, h); // any result will do: the stamp check drops it; it must not throw
+					torn.containsKeyConcurrent(k, h);
+				}
+			}
+		}
+	}
+}
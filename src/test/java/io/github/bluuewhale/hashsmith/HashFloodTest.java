@@ -0,0 +1,188 @@
+package io.github.bluuewhale.hashsmith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class HashFloodTest {
+
+	private static Object getField(Class<?> type, Object target, String name) {
+		try {
+			Field f = type.getDeclaredField(name);
+			f.setAccessible(true);
+			return f.get(target);
+		} catch (ReflectiveOperationException e) {
+			throw new AssertionError("Failed to read field: " + name, e);
+		}
+	}
+
+	private static long seed(SwissMap<?, ?> m) {
+		return (long) getField(SwissMap.class, m, "seed");
+	}
+
+	private static boolean probeAlarm(SwissMap<?, ?> m) {
+		return (boolean) getField(SwissMap.class, m, "probeAlarm");
+	}
+
+	/* Multiplicative inverse of an odd int (Newton's iteration). */
+	private static int inverse(int c) {
+		int x = c;
+		for (int i = 0; i < 5; i++) x *= 2 - c * x;
+		return x;
+	}
+
+	/* The Integer whose smeared hash is h, i.e. Hashing.smear run backwards. */
+	private static int unsmear(int h) {
+		int y = h * inverse(0x1b873593);
+		return Integer.rotateRight(y, 15) * inverse(0xcc9e2d51);
+	}
+
+	/* Keys crafted against Hashing.smear: distinct hashCodes, same H1 bits in tables of up to 2^25 slots. */
+	private static int[] floodKeys(int n) {
+		int[] keys = new int[n];
+		for (int i = 0; i < n; i++) {
+			int h = ((i >>> 7) << 25) | (i & 0x7F); // vary H2 and the top bits only
+			keys[i] = unsmear(h);
+			assertEquals(h, Hashing.smear(keys[i]));
+		}
+		return keys;
+	}
+
+	@Test
+	void floodOfCraftedKeysReseeds() {
+		for (int options : new int[] { 0, SwissMap.SLOT_PROBING, SwissMap.STORE_HASHES | SwissMap.INTERLEAVED,
+				SwissMap.INCREMENTAL_RESIZE }) {
+			var m = new SwissMap<Integer, Integer>(16, 0.875, options);
+			Map<Integer, Integer> expected = new HashMap<>();
+			for (int k : floodKeys(4_096)) {
+				m.put(k, ~k);
+				expected.put(k, ~k);
+			}
+			assertNotEquals(0, seed(m), "options " + options);
+			assertEquals(expected, m);
+
+			// Under the seed the crafted keys no longer share a probe chain.
+			long seed = seed(m);
+			for (int k : floodKeys(4_096)) assertEquals(~k, m.get(k));
+			assertFalse(probeAlarm(m));
+			for (int k : floodKeys(4_096)) {
+				if ((k & 1) == 0) m.remove(k);
+			}
+			for (int i = 0; i < 4_096; i++) m.put(i, i);
+			assertEquals(seed, seed(m), "no further reseed");
+		}
+	}
+
+	@Test
+	void randomKeysDoNotReseed() {
+		var rnd = new Random(7);
+		var m = new SwissMap<Integer, Integer>();
+		for (int i = 0; i < 500_000; i++) m.put(rnd.nextInt(), i);
+		for (int i = 0; i < 500_000; i++) m.get(rnd.nextInt());
+		m.put(rnd.nextInt(), 0);
+		assertEquals(0, seed(m));
+	}
+
+	/* Equal hashCodes, distinct keys: no seed separates them. */
+	private record Colliding(int id) {
+		@Override
+		public int hashCode() {
+			return 42;
+		}
+	}
+
+	@Test
+	void equalHashCodesReseedOnlyAsTheMapDoubles() {
+		var m = new SwissMap<Colliding, Integer>();
+		Set<Long> seeds = new HashSet<>();
+		for (int i = 0; i < 3_000; i++) {
+			m.put(new Colliding(i), i);
+			seeds.add(seed(m));
+		}
+		assertTrue(seeds.size() <= 1 + 4, "reseeds: " + (seeds.size() - 1)); // 0, then at most once per doubling
+		for (int i = 0; i < 3_000; i++) assertEquals(i, m.get(new Colliding(i)));
+	}
+
+	@Test
+	void reseedDuringProbeOnceInsertsKeepsEveryKey() {
+		// These inserts probe before the reseed that may run as they insert, and must not reuse that slot.
+		int[] crafted = floodKeys(4_096);
+		for (int op = 0; op < 5; op++) {
+			var m = new SwissMap<Object, Integer>();
+			var colliding = new SwissMap<Object, Integer>(16, 0.875, SwissMap.STORE_HASHES);
+			for (int i = 0; i < crafted.length; i++) {
+				insert(m, op, crafted[i], i);
+				if (i < 2_000) insert(colliding, op, new Colliding(i), i);
+			}
+			assertNotEquals(0, seed(m), "op " + op);
+			assertNotEquals(0, seed(colliding), "op " + op);
+			assertEquals(crafted.length, m.size(), "op " + op);
+			assertEquals(2_000, colliding.size(), "op " + op);
+			for (int i = 0; i < crafted.length; i++) assertEquals(i, m.get(crafted[i]), "op " + op);
+			for (int i = 0; i < 2_000; i++) assertEquals(i, colliding.get(new Colliding(i)), "op " + op);
+		}
+	}
+
+	private static void insert(SwissMap<Object, Integer> m, int op, Object key, int value) {
+		switch (op) {
+			case 0 -> m.merge(key, value, Integer::sum);
+			case 1 -> m.computeIfAbsent(key, k -> value);
+			case 2 -> m.compute(key, (k, v) -> value);
+			case 3 -> m.setValueAtSlot(m.slotFor(key), value);
+			default -> {
+				var one = new SwissMap<Object, Integer>();
+				one.put(key, value);
+				m.mergeAll(one, Integer::sum);
+			}
+		}
+	}
+
+	@Test
+	void copiesKeepTheSeed() {
+		var m = new SwissMap<Integer, Integer>(16, 0.875, SwissMap.STORE_HASHES);
+		for (int k : floodKeys(2_048)) m.put(k, k);
+		long seed = seed(m);
+		assertNotEquals(0, seed);
+		for (SwissMap<Integer, Integer> copy : List.of(new SwissMap<>(m), m.clone())) {
+			assertEquals(seed, seed(copy));
+			for (int k : floodKeys(2_048)) assertEquals(k, copy.get(k));
+		}
+	}
+
+	@Test
+	void concurrentMapSpreadsAndReseedsShards() {
+		var m = new ConcurrentSwissMap<Integer, Integer>(4, 16, 0.875);
+		int[] keys = floodKeys(8_192);
+		for (int k : keys) m.put(k, k);
+		for (int k : keys) assertEquals(k, m.get(k));
+		assertEquals(keys.length, m.size());
+
+		SwissMap<?, ?>[] shards = (SwissMap<?, ?>[]) getField(ConcurrentSwissMap.class, m, "maps");
+		for (SwissMap<?, ?> shard : shards) {
+			assertTrue(shard.size() > keys.length / 8, "seeded routing spreads the keys");
+			assertNotEquals(0, seed(shard), "each shard reseeds on its own");
+		}
+	}
+
+	@Test
+	void concurrentRoutingIgnoresSharedTopBits() {
+		// Same top 7 bits of the smeared hash: unseeded routing would send every key to shard 0.
+		var m = new ConcurrentSwissMap<Integer, Integer>(128, 16, 0.875);
+		for (int i = 0; i < 10_000; i++) m.put(unsmear(i), i);
+		SwissMap<?, ?>[] shards = (SwissMap<?, ?>[]) getField(ConcurrentSwissMap.class, m, "maps");
+		int used = 0;
+		for (SwissMap<?, ?> shard : shards) {
+			if (shard.size() > 0) used++;
+		}
+		assertTrue(used > 100, "shards used: " + used);
+		for (int i = 0; i < 10_000; i++) assertEquals(i, m.get(unsmear(i)));
+	}
+}
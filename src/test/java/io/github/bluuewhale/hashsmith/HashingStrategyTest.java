@@ -0,0 +1,145 @@
+package io.github.bluuewhale.hashsmith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+class HashingStrategyTest {
+
+	private static byte[] bytes(String s) {
+		return s.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static void byteArrayKeysByContent(Supplier<Map<byte[], Integer>> factory) {
+		Map<byte[], Integer> m = factory.get();
+		for (int i = 0; i < 1_000; i++) assertNull(m.put(bytes("key-" + i), i));
+		assertEquals(1_000, m.size());
+		for (int i = 0; i < 1_000; i++) {
+			byte[] probe = bytes("key-" + i); // equal content, different array
+			assertEquals(i, m.get(probe));
+			assertTrue(m.containsKey(probe));
+		}
+		assertEquals(7, m.put(bytes("key-7"), -7));
+		assertEquals(1_000, m.size());
+		for (int i = 0; i < 1_000; i += 2) assertEquals(i, m.remove(bytes("key-" + i)));
+		assertEquals(500, m.size());
+		assertNull(m.get(bytes("key-0")));
+		assertEquals(1, m.merge(bytes("key-1"), 0, Integer::sum));
+		assertEquals(-1, m.computeIfAbsent(bytes("fresh"), k -> -1));
+		assertEquals(-1, m.get(bytes("fresh")));
+	}
+
+	@Test
+	void byteArrayKeysInEveryMap() {
+		byteArrayKeysByContent(() -> new SwissMap<>(HashingStrategy.BYTE_ARRAYS));
+		byteArrayKeysByContent(() -> new SwissMap<>(16, 0.875,
+			SwissMap.STORE_HASHES | SwissMap.INTERLEAVED | SwissMap.TINY_LINEAR_SCAN, HashingStrategy.BYTE_ARRAYS));
+		byteArrayKeysByContent(() -> new SwissMap<>(16, 0.875, SwissMap.INCREMENTAL_RESIZE, HashingStrategy.BYTE_ARRAYS));
+		byteArrayKeysByContent(() -> new SwissSimdMap<>(HashingStrategy.BYTE_ARRAYS));
+		byteArrayKeysByContent(() -> new ConcurrentSwissMap<>(HashingStrategy.BYTE_ARRAYS));
+	}
+
+	@Test
+	void caseInsensitiveKeys() {
+		var m = new SwissMap<String, Integer>(HashingStrategy.CASE_INSENSITIVE);
+		m.put("Content-Type", 1);
+		assertEquals(1, m.get("content-type"));
+		assertEquals(1, m.put("CONTENT-TYPE", 2));
+		assertEquals(1, m.size());
+		assertEquals("Content-Type", m.keySet().iterator().next(), "the first key stays");
+
+		// Pairs that only match after upper- then lower-casing, or only as code points, still hash alike.
+		for (String[] pair : new String[][] { { "straße", "STRAßE" }, { "Σ", "ς" }, { "𐐀", "𐐨" } }) {
+			if (pair[0].equalsIgnoreCase(pair[1])) {
+				assertEquals(HashingStrategy.CASE_INSENSITIVE.hash(pair[0]), HashingStrategy.CASE_INSENSITIVE.hash(pair[1]), pair[0]);
+			}
+		}
+	}
+
+	@Test
+	void objectArrayKeysInSet() {
+		var s = new SwissSet<Object[]>(HashingStrategy.OBJECT_ARRAYS);
+		assertTrue(s.add(new Object[] { "a", 1 }));
+		assertFalse(s.add(new Object[] { "a", 1 }));
+		assertTrue(s.contains(new Object[] { "a", 1 }));
+		assertFalse(s.contains(new Object[] { "a", 2 }));
+		assertTrue(s.add(null));
+		assertTrue(s.contains(null));
+		assertEquals(2, s.size());
+		assertTrue(s.remove(new Object[] { "a", 1 }));
+		assertTrue(s.remove(null));
+		assertTrue(s.isEmpty());
+	}
+
+	@Test
+	void hashedOverloadsTakeTheStrategyHash() {
+		var m = new SwissMap<byte[], Integer>(HashingStrategy.BYTE_ARRAYS);
+		var s = new SwissSet<byte[]>(HashingStrategy.BYTE_ARRAYS);
+		byte[] k = bytes("k");
+		int h = HashSmith.hash(k, HashingStrategy.BYTE_ARRAYS);
+		assertNull(m.putHashed(k, 1, h));
+		assertTrue(s.addHashed(k, h));
+		assertEquals(1, m.get(bytes("k")));
+		assertTrue(s.contains(bytes("k")));
+		assertEquals(1, m.getHashed(bytes("k"), h));
+		assertEquals(HashSmith.hash(k), HashSmith.hash(k, null));
+	}
+
+	@Test
+	void cloneKeepsTheStrategyCopyConstructorsDoNot() {
+		var m = new SwissMap<byte[], Integer>(16, 0.875, SwissMap.STORE_HASHES, HashingStrategy.BYTE_ARRAYS);
+		for (int i = 0; i < 100; i++) m.put(bytes("k" + i), i);
+		SwissMap<byte[], Integer> clone = m.clone();
+		assertEquals(50, clone.get(bytes("k50")));
+		clone.put(bytes("k50"), -1);
+		assertEquals(100, clone.size());
+
+		// Like HashMap(Map): the copy compares keys with their own equals, here by reference.
+		byte[] k = bytes("k");
+		m.put(k, 7);
+		var copy = new SwissMap<>(m);
+		assertEquals(101, copy.size());
+		assertEquals(7, copy.get(k));
+		assertNull(copy.get(bytes("k")));
+
+		var simd = new SwissSimdMap<byte[], Integer>(HashingStrategy.BYTE_ARRAYS);
+		simd.put(k, 1);
+		assertEquals(1, simd.clone().get(bytes("k")));
+		assertNull(new SwissSimdMap<>(simd).get(bytes("k")));
+		assertEquals(1, new SwissSimdMap<>(simd).get(k));
+		var set = new SwissSet<byte[]>(HashingStrategy.BYTE_ARRAYS);
+		set.add(k);
+		assertTrue(set.clone().contains(bytes("k")));
+		assertFalse(new SwissSet<>(set).contains(bytes("k")));
+		assertTrue(new SwissSet<>(set).contains(k));
+	}
+
+	@Test
+	void mergeAllRehashesWhenStrategiesDiffer() {
+		// Same keys, different hashes: the other map's stored hashes must not be reused.
+		HashingStrategy<Integer> reversed = new HashingStrategy<>() {
+			@Override public int hash(Integer key) { return Integer.reverse(key); }
+			@Override public boolean equals(Integer a, Integer b) { return a.equals(b); }
+		};
+		var target = new SwissMap<Integer, Integer>(16, 0.875, SwissMap.STORE_HASHES, reversed);
+		var other = new SwissMap<Integer, Integer>(16, 0.875, SwissMap.STORE_HASHES);
+		Map<Integer, Integer> expected = new HashMap<>();
+		var rnd = new Random(9);
+		for (int i = 0; i < 2_000; i++) {
+			int k = rnd.nextInt(3_000);
+			target.put(k, 1);
+			expected.put(k, 1);
+			other.put(rnd.nextInt(3_000), 1);
+		}
+		other.forEach((k, v) -> expected.merge(k, v, Integer::sum));
+		target.mergeAll(other, Integer::sum);
+		assertEquals(expected, target);
+		for (var e : expected.entrySet()) assertEquals(e.getValue(), target.get(e.getKey()));
+	}
+}
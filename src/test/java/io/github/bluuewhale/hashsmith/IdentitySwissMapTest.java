@@ -0,0 +1,154 @@
+package io.github.bluuewhale.hashsmith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class IdentitySwissMapTest {
+
+	/* Equal to every other instance with the same id; counts hashCode and equals calls. */
+	private static final class Node {
+		static int calls;
+		final int id;
+		final List<Node> children = new ArrayList<>();
+
+		Node(int id) { this.id = id; }
+
+		@Override
+		public int hashCode() {
+			calls++;
+			return id;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			calls++;
+			return o instanceof Node other && other.id == id;
+		}
+	}
+
+	@Test
+	void equalKeysAreDistinctEntries() {
+		for (int options : new int[] { 0, SwissMap.INTERLEAVED | SwissMap.STORE_HASHES, SwissMap.TINY_LINEAR_SCAN }) {
+			var m = new IdentitySwissMap<Node, Integer>(16, 0.875, options);
+			Node a = new Node(1), b = new Node(1);
+			Node.calls = 0;
+			assertNull(m.put(a, 1));
+			assertNull(m.put(b, 2));
+			assertEquals(2, m.size());
+			assertEquals(1, m.get(a));
+			assertEquals(2, m.get(b));
+			assertNull(m.get(new Node(1)));
+			assertEquals(1, m.remove(a));
+			assertFalse(m.containsKey(a));
+			assertTrue(m.containsKey(b));
+			assertEquals(0, Node.calls, "no hashCode/equals calls");
+		}
+	}
+
+	@Test
+	void matchesIdentityHashMapUnderChurn() {
+		var m = new IdentitySwissMap<Node, Integer>();
+		Map<Node, Integer> expected = new IdentityHashMap<>();
+		Node[] pool = new Node[20_000];
+		for (int i = 0; i < pool.length; i++) pool[i] = new Node(i % 100); // many equal, never identical
+		Random rnd = new Random(5);
+		for (int i = 0; i < 200_000; i++) {
+			Node k = pool[rnd.nextInt(pool.length)];
+			Integer v = i; // one box for both: IdentityHashMap.equals compares values by reference too
+			switch (rnd.nextInt(4)) {
+				case 0, 1 -> assertEquals(expected.put(k, v), m.put(k, v));
+				case 2 -> assertEquals(expected.remove(k), m.remove(k));
+				default -> assertEquals(expected.get(k), m.get(k));
+			}
+		}
+		assertEquals(expected.size(), m.size());
+		assertEquals(expected, m);
+		assertEquals(m, expected);
+		int hash = 0;
+		for (var e : expected.entrySet()) hash += System.identityHashCode(e.getKey()) ^ e.getValue().hashCode();
+		assertEquals(hash, m.hashCode());
+		for (Node k : pool) assertEquals(expected.get(k), m.get(k));
+	}
+
+	@Test
+	void copiesStayIdentityMaps() {
+		var m = new IdentitySwissMap<Node, Integer>(16, 0.875, SwissMap.INTERLEAVED);
+		Node a = new Node(7), b = new Node(7);
+		m.put(a, 1);
+		m.put(b, 2);
+		for (Map<Node, Integer> copy : List.of(new IdentitySwissMap<>(m), m.clone(),
+				new IdentitySwissMap<>(new IdentityHashMap<>(m)))) {
+			assertTrue(copy instanceof IdentitySwissMap);
+			assertEquals(2, copy.size());
+			assertEquals(1, copy.get(a));
+			assertEquals(2, copy.get(b));
+			assertNull(copy.get(new Node(7)));
+		}
+		assertEquals(2, m.getHashed(b, HashSmith.hash(b, HashingStrategy.IDENTITY)));
+		assertEquals(1, new SwissMap<>(m).size(), "a plain SwissMap copy compares keys with equals");
+	}
+
+	@Test
+	void visitedSetWalk() {
+		// A graph whose nodes are all equal to each other: only references tell them apart.
+		Node[] nodes = new Node[5_000];
+		for (int i = 0; i < nodes.length; i++) nodes[i] = new Node(0);
+		Random rnd = new Random(11);
+		for (Node n : nodes) {
+			for (int j = 0; j < 3; j++) n.children.add(nodes[rnd.nextInt(nodes.length)]);
+		}
+		Set<Node> expected = Collections.newSetFromMap(new IdentityHashMap<>());
+		var visited = new IdentitySwissSet<Node>();
+		Node.calls = 0;
+		for (Set<Node> set : List.<Set<Node>>of(expected, visited)) {
+			var stack = new ArrayList<Node>(List.of(nodes[0]));
+			while (!stack.isEmpty()) {
+				Node n = stack.remove(stack.size() - 1);
+				if (set.add(n)) stack.addAll(n.children);
+			}
+		}
+		assertEquals(0, Node.calls);
+		assertEquals(expected.size(), visited.size());
+		assertEquals(expected, visited);
+		assertEquals(expected.hashCode(), visited.hashCode());
+		for (Node n : nodes) assertEquals(expected.contains(n), visited.contains(n));
+	}
+
+	@Test
+	void setBasics() {
+		var s = new IdentitySwissSet<String>();
+		String a = new String("x"), b = new String("x");
+		assertTrue(s.add(a));
+		assertFalse(s.add(a));
+		assertTrue(s.add(b));
+		assertEquals(2, s.size());
+		assertFalse(s.contains("y"));
+		assertTrue(s.remove(a));
+		assertFalse(s.remove(a));
+		assertTrue(s.contains(b));
+		assertThrows(NullPointerException.class, () -> s.add(null));
+
+		IdentitySwissSet<String> copy = s.clone();
+		copy.add(a);
+		assertEquals(1, s.size());
+		assertEquals(2, copy.size());
+		assertEquals(2, new IdentitySwissSet<>(copy).size());
+		assertEquals(2, new IdentitySwissSet<>(List.of(a, b, a)).size());
+
+		var it = copy.iterator();
+		it.next();
+		it.remove();
+		assertEquals(1, copy.size());
+		copy.clear();
+		assertTrue(copy.isEmpty());
+	}
+}
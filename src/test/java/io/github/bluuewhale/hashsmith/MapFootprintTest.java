@@ -85,6 +85,47 @@ public class MapFootprintTest {
 	}
 
 
+	/**
+	 * Empty and singleton instances: tables are allocated lazily, so an empty map only retains its header
+	 * (plus the shared empty sentinels, which JOL counts once per graph).
+	 */
+	private static void measureSmall(Map<Integer, Object> map, String mapName) {
+		long empty = GraphLayout.parseInstance(map).totalSize();
+		map.put(1, Boolean.TRUE);
+		long singleton = GraphLayout.parseInstance(map).totalSize();
+		System.out.printf("map=%-24s empty=%-,8dB singleton=%-,8dB%n", mapName, empty, singleton);
+	}
+
+//	@ParameterizedTest(name = "{0} - empty/singleton footprint")
+//	@MethodSource("mapSpecs")
+	void printSmallFootprint(MapSpec mapSpec) {
+		measureSmall(mapSpec.newMap(), mapSpec.name());
+	}
+
+	/**
+	 * Retained size at 0 to 16 entries, default tables vs {@link SwissMap#TINY_LINEAR_SCAN} (Integer keys, one
+	 * shared Boolean value; the keys are counted in both).
+	 */
+	private static void measureTiny(Supplier<Map<Integer, Object>> supplier, String mapName) {
+		Map<Integer, Object> map = supplier.get();
+		for (int n = 0; n <= 16; n++) {
+			if (n > 0) map.put(n, Boolean.TRUE);
+			System.out.printf("map=%-24s n=%-3d size=%-,8dB%n", mapName, n, GraphLayout.parseInstance(map).totalSize());
+		}
+	}
+
+//	@Test
+	void printTinyFootprint() {
+		measureTiny(SwissMap::new, "SwissMap");
+		measureTiny(() -> new SwissMap<>(16, 0.875, SwissMap.TINY_LINEAR_SCAN), "SwissMap(TINY_LINEAR_SCAN)");
+		measureTiny(() -> new SwissMap<>(16, 0.875, SwissMap.TINY_LINEAR_SCAN | SwissMap.INTERLEAVED),
+			"SwissMap(TINY|INTERLEAVED)");
+	}
+
+	private static Stream<MapSpec> mapSpecs() {
+		return Stream.concat(Stream.of(new MapSpec("HashMap", HashMap::new)), MAP_SPECS.stream());
+	}
+
 //	@ParameterizedTest(name = "{0} - {1} footprint growth")
 //	@MethodSource("payloadsAndMaps")
 	void printFootprint(MapSpec mapSpec, Payload payload) {
@@ -22,6 +22,12 @@ class MapTest {
 		@Override public String toString() { return name; }
 	}
 
+	/* The keys' own hashCode/equals, routed through a strategy to exercise that path. */
+	private static final HashingStrategy<Object> PLAIN = new HashingStrategy<>() {
+		@Override public int hash(Object key) { return key.hashCode(); }
+		@Override public boolean equals(Object a, Object b) { return a.equals(b); }
+	};
+
 	private static Stream<MapSpec> mapSpecs() {
 		return Stream.of(
 			new MapSpec(
@@ -31,6 +37,62 @@ class MapTest {
 				false,
 				true
 			),
+			new MapSpec(
+				"SwissMap(SLOT_PROBING)",
+				() -> new SwissMap<>(16, 0.875, SwissMap.SLOT_PROBING),
+				cap -> new SwissMap<>(cap, 0.875, SwissMap.SLOT_PROBING),
+				false,
+				true
+			),
+			new MapSpec(
+				"SwissMap(STORE_HASHES)",
+				() -> new SwissMap<>(16, 0.875, SwissMap.STORE_HASHES),
+				cap -> new SwissMap<>(cap, 0.875, SwissMap.STORE_HASHES),
+				false,
+				true
+			),
+			new MapSpec(
+				"SwissMap(INTERLEAVED)",
+				() -> new SwissMap<>(16, 0.875, SwissMap.INTERLEAVED),
+				cap -> new SwissMap<>(cap, 0.875, SwissMap.INTERLEAVED),
+				false,
+				true
+			),
+			new MapSpec(
+				"SwissMap(TINY_LINEAR_SCAN)",
+				() -> new SwissMap<>(16, 0.875, SwissMap.TINY_LINEAR_SCAN),
+				cap -> new SwissMap<>(cap, 0.875, SwissMap.TINY_LINEAR_SCAN),
+				false,
+				true
+			),
+			new MapSpec(
+				"SwissMap(TINY_LINEAR_SCAN|STORE_HASHES|INTERLEAVED)",
+				() -> new SwissMap<>(16, 0.875, SwissMap.TINY_LINEAR_SCAN | SwissMap.STORE_HASHES | SwissMap.INTERLEAVED),
+				cap -> new SwissMap<>(cap, 0.875, SwissMap.TINY_LINEAR_SCAN | SwissMap.STORE_HASHES | SwissMap.INTERLEAVED),
+				false,
+				true
+			),
+			new MapSpec(
+				"SwissMap(HashingStrategy)",
+				() -> new SwissMap<>(16, 0.875, 0, PLAIN),
+				cap -> new SwissMap<>(cap, 0.875, 0, PLAIN),
+				false,
+				true
+			),
+			new MapSpec(
+				"SwissMap(INCREMENTAL_RESIZE)",
+				() -> new SwissMap<>(16, 0.875, SwissMap.INCREMENTAL_RESIZE),
+				cap -> new SwissMap<>(cap, 0.875, SwissMap.INCREMENTAL_RESIZE),
+				false,
+				true
+			),
+			new MapSpec(
+				"SwissMap(INCREMENTAL_RESIZE|STORE_HASHES|INTERLEAVED)",
+				() -> new SwissMap<>(16, 0.875, SwissMap.INCREMENTAL_RESIZE | SwissMap.STORE_HASHES | SwissMap.INTERLEAVED),
+				cap -> new SwissMap<>(cap, 0.875, SwissMap.INCREMENTAL_RESIZE | SwissMap.STORE_HASHES | SwissMap.INTERLEAVED),
+				false,
+				true
+			),
 			new MapSpec(
 				"ConcurrentSwissMap",
 				ConcurrentSwissMap::new,
@@ -45,6 +107,20 @@ class MapTest {
 				false,
 				true
 			),
+			new MapSpec(
+				"ChunkedSwissMap",
+				ChunkedSwissMap::new,
+				ChunkedSwissMap::new,
+				false,
+				true
+			),
+			new MapSpec(
+				"BigSwissMap",
+				BigSwissMap::new,
+				BigSwissMap::new,
+				false,
+				true
+			),
 			new MapSpec(
 				"RobinHoodMap",
 				RobinHoodMap::new,
@@ -376,4 +452,632 @@ class MapTest {
 		assertEquals(n, m.size());
 		assertEquals(expectedSum, actualSum);
 	}
+
+	@ParameterizedTest(name = "{0} shrinkKeepsEntriesReachable")
+	@MethodSource("mapSpecs")
+	void shrinkKeepsEntriesReachable(MapSpec spec) {
+		Map<Integer, Integer> base = newMap(spec, 16);
+		if (!(base instanceof AbstractArrayMap<Integer, Integer> m)) return; // no shrink API
+		m.setShrinkThreshold(0.25);
+		for (int i = 0; i < 4096; i++) m.put(i, i);
+		int bigCap = m.capacity;
+
+		// Halving folds two old home slots onto one; every survivor must still be found.
+		for (int i = 0; i < 4000; i++) assertEquals(i, m.remove(i));
+		assertTrue(m.capacity < bigCap);
+		for (int i = 4000; i < 4096; i++) assertEquals(i, m.get(i));
+
+		m.trimToSize();
+		assertTrue(m.maxLoad > m.size());
+		for (int i = 4000; i < 4096; i++) assertEquals(i, m.get(i));
+		for (int i = 0; i < 4000; i++) assertNull(m.get(i));
+	}
+
+	@ParameterizedTest(name = "{0} computeFamilySemantics")
+	@MethodSource("mapSpecs")
+	void computeFamilySemantics(MapSpec spec) {
+		Map<String, Integer> m = newMap(spec);
+
+		assertNull(m.putIfAbsent("a", 1));
+		assertEquals(1, m.putIfAbsent("a", 2));
+		assertEquals(1, m.getOrDefault("a", -1));
+		assertEquals(-1, m.getOrDefault("z", -1));
+
+		assertEquals(1, m.replace("a", 3));
+		assertNull(m.replace("z", 3));
+		assertFalse(m.containsKey("z"));
+		assertFalse(m.replace("a", 1, 4));
+		assertTrue(m.replace("a", 3, 4));
+
+		assertEquals(4, m.computeIfAbsent("a", k -> 5));
+		assertNull(m.computeIfAbsent("b", k -> null));
+		assertFalse(m.containsKey("b"));
+		assertEquals(6, m.computeIfAbsent("b", k -> 6));
+
+		assertNull(m.computeIfPresent("c", (k, v) -> 7));
+		assertEquals(7, m.computeIfPresent("b", (k, v) -> v + 1));
+		assertNull(m.computeIfPresent("b", (k, v) -> null));
+		assertFalse(m.containsKey("b"));
+
+		assertEquals(8, m.compute("c", (k, v) -> v == null ? 8 : v + 1));
+		assertEquals(9, m.compute("c", (k, v) -> v == null ? 8 : v + 1));
+		assertNull(m.compute("c", (k, v) -> null));
+		assertNull(m.compute("d", (k, v) -> null));
+		assertFalse(m.containsKey("c"));
+		assertFalse(m.containsKey("d"));
+
+		assertEquals(1, m.merge("e", 1, Integer::sum));
+		assertEquals(3, m.merge("e", 2, Integer::sum));
+		assertNull(m.merge("e", 2, (a, b) -> null));
+		assertFalse(m.containsKey("e"));
+
+		// A null value counts as absent for putIfAbsent / computeIfAbsent / merge.
+		m.put("n", null);
+		assertNull(m.putIfAbsent("n", 1));
+		assertEquals(1, m.get("n"));
+		m.put("n", null);
+		assertEquals(2, m.computeIfAbsent("n", k -> 2));
+		m.put("n", null);
+		assertEquals(3, m.merge("n", 3, Integer::sum));
+
+		assertEquals(2, m.size());
+		assertEquals(4, m.get("a"));
+		assertEquals(3, m.get("n"));
+	}
+
+	@ParameterizedTest(name = "{0} mergeCountsAcrossResizeAndRemoval")
+	@MethodSource("mapSpecs")
+	void mergeCountsAcrossResizeAndRemoval(MapSpec spec) {
+		Map<Integer, Integer> m = newMap(spec, 4);
+		Map<Integer, Integer> expected = new java.util.HashMap<>();
+		var rnd = new java.util.Random(42);
+		for (int i = 0; i < 20_000; i++) {
+			int k = rnd.nextInt(2_000);
+			if (rnd.nextInt(4) == 0) {
+				// Dropping to zero removes the entry, leaving tombstones for later merges to reuse.
+				assertEquals(expected.merge(k, -1, (a, b) -> a + b == 0 ? null : a + b), m.merge(k, -1, (a, b) -> a + b == 0 ? null : a + b));
+			} else {
+				assertEquals(expected.merge(k, 1, Integer::sum), m.merge(k, 1, Integer::sum));
+			}
+			if (i % 7 == 0) {
+				assertEquals(expected.computeIfAbsent(k + 5_000, x -> x), m.computeIfAbsent(k + 5_000, x -> x));
+			}
+		}
+		assertEquals(expected, m);
+	}
+
+	@ParameterizedTest(name = "{0} computeFunctionThatModifiesMap")
+	@MethodSource("mapSpecs")
+	void computeFunctionThatModifiesMap(MapSpec spec) {
+		Map<Integer, Integer> m = newMap(spec, 4);
+		if (!(m instanceof SwissMap<?, ?>) && !(m instanceof SwissSimdMap<?, ?>)) return; // probe-once overrides only
+		// The function grows the table behind the probe; the result must still land correctly.
+		assertEquals(-1, m.computeIfAbsent(-1, k -> {
+			for (int i = 0; i < 100; i++) m.put(i, i);
+			return -1;
+		}));
+		assertEquals(101, m.size());
+		assertEquals(-1, m.get(-1));
+		for (int i = 0; i < 100; i++) assertEquals(i, m.get(i));
+	}
+
+	@ParameterizedTest(name = "{0} computeFunctionThatRemovesAndPuts")
+	@MethodSource("mapSpecs")
+	void computeFunctionThatRemovesAndPuts(MapSpec spec) {
+		Map<Integer, Integer> probe = newMap(spec);
+		if (!(probe instanceof SwissMap<?, ?>) && !(probe instanceof SwissSimdMap<?, ?>)) return; // probe-once overrides only
+		// remove + put leaves size and table unchanged but can reuse the slot the probe handed out.
+		java.util.List<java.util.function.Function<Map<Integer, Integer>, Integer>> ops = java.util.List.of(
+			m -> m.computeIfAbsent(100, k -> { m.remove(0); m.put(200, 200); return k; }),
+			m -> m.compute(100, (k, v) -> { m.remove(0); m.put(200, 200); return k; }),
+			m -> m.compute(1, (k, v) -> { m.remove(1); m.put(200, 200); return null; }),
+			m -> m.computeIfPresent(1, (k, v) -> { m.remove(0); m.put(200, 200); return 100; }),
+			m -> m.merge(1, 100, (a, b) -> { m.remove(1); m.put(200, 200); return b; }));
+		for (var op : ops) {
+			Map<Integer, Integer> m = newMap(spec);
+			Map<Integer, Integer> expected = new java.util.concurrent.ConcurrentSkipListMap<>(); // HashMap throws CME here
+			for (int i = 0; i < 5; i++) {
+				m.put(i, i);
+				expected.put(i, i);
+			}
+			assertEquals(op.apply(expected), op.apply(m));
+			assertEquals(expected, m);
+			assertEquals(m.size(), m.keySet().stream().filter(m::containsKey).count());
+		}
+	}
+
+	@ParameterizedTest(name = "{0} computeFamilyHashesOnce")
+	@MethodSource("mapSpecs")
+	void computeFamilyHashesOnce(MapSpec spec) {
+		Map<CountingKey, Integer> m = newMap(spec);
+		if (!(m instanceof SwissMap<?, ?>) && !(m instanceof SwissSimdMap<?, ?>)) return; // probe-once overrides only
+		var key = new CountingKey(7);
+
+		m.merge(key, 1, Integer::sum);
+		m.merge(key, 1, Integer::sum);
+		m.computeIfAbsent(key, k -> 0);
+		m.compute(key, (k, v) -> v + 1);
+		m.putIfAbsent(key, 0);
+		assertEquals(5, key.hashCalls);
+		assertEquals(3, m.get(key));
+	}
+
+	@ParameterizedTest(name = "{0} cursorVisitsUpdatesAndRemoves")
+	@MethodSource("mapSpecs")
+	void cursorVisitsUpdatesAndRemoves(MapSpec spec) {
+		Map<Integer, Integer> base = newMap(spec);
+		if (!(base instanceof AbstractArrayMap<Integer, Integer> m)) return; // no cursor API
+		var empty = m.cursor();
+		assertFalse(empty.advance());
+		assertThrows(IllegalStateException.class, empty::key);
+
+		int n = 5_000;
+		for (int i = 0; i < n; i++) m.put(i, i);
+
+		// Double every value and drop multiples of 3 in one pass; each key must be seen exactly once.
+		var seen = new java.util.BitSet(n);
+		var c = m.cursor();
+		while (c.advance()) {
+			int k = c.key();
+			assertFalse(seen.get(k), "visited twice: " + k);
+			seen.set(k);
+			assertEquals(k, c.value());
+			if (k % 3 == 0) {
+				c.remove();
+				assertThrows(IllegalStateException.class, c::remove);
+			} else {
+				assertEquals(k, c.setValue(k * 2));
+			}
+		}
+		assertEquals(n, seen.cardinality());
+		assertFalse(c.advance());
+
+		assertEquals(n - (n + 2) / 3, m.size());
+		for (int i = 0; i < n; i++) {
+			if (i % 3 == 0) assertFalse(m.containsKey(i));
+			else assertEquals(i * 2, m.get(i));
+		}
+	}
+
+	@ParameterizedTest(name = "{0} forEachAndReplaceAllFollowIteratorOrder")
+	@MethodSource("mapSpecs")
+	void forEachAndReplaceAllFollowIteratorOrder(MapSpec spec) {
+		Map<Integer, Integer> m = newMap(spec, 1 << 14); // sparse: most groups are empty
+		for (int i = 0; i < 300; i++) m.put(i * 7, i);
+
+		var iterated = new java.util.ArrayList<Integer>();
+		for (var e : m.entrySet()) iterated.add(e.getKey());
+		var visited = new java.util.ArrayList<Integer>();
+		m.forEach((k, v) -> {
+			assertEquals(k / 7, v);
+			visited.add(k);
+		});
+		assertEquals(iterated, visited);
+		assertEquals(300, new java.util.HashSet<>(visited).size());
+
+		m.replaceAll((k, v) -> v + k);
+		for (int i = 0; i < 300; i++) assertEquals(i + i * 7, m.get(i * 7));
+		assertEquals(300, m.size());
+
+		Map<Integer, Integer> empty = newMap(spec);
+		empty.forEach((k, v) -> fail("empty map visited " + k));
+		empty.replaceAll((k, v) -> fail("empty map visited " + k));
+	}
+
+	@ParameterizedTest(name = "{0} parallelStreamsMatchSequential")
+	@MethodSource("mapSpecs")
+	void parallelStreamsMatchSequential(MapSpec spec) {
+		Map<Integer, Integer> m = newMap(spec);
+		int n = 50_000;
+		for (int i = 0; i < n; i++) m.put(i, i + 1);
+		for (int i = 0; i < n; i += 3) m.remove(i); // leave tombstones / holes behind
+		long expectedCount = m.size();
+		long expectedKeySum = m.keySet().stream().mapToLong(Integer::longValue).sum();
+
+		assertEquals(expectedCount, m.keySet().parallelStream().count());
+		assertEquals(expectedKeySum, m.keySet().parallelStream().mapToLong(Integer::longValue).sum());
+		assertEquals(expectedKeySum + expectedCount, m.values().parallelStream().mapToLong(Integer::longValue).sum());
+		assertEquals(expectedCount, m.entrySet().parallelStream().filter(e -> e.getValue() == e.getKey() + 1).count());
+
+		// Split all the way down: SUBSIZED spliterators must report exact sizes at every level.
+		var root = m.keySet().spliterator();
+		if (!root.hasCharacteristics(java.util.Spliterator.SUBSIZED)) return;
+		var pending = new java.util.ArrayDeque<java.util.Spliterator<Integer>>();
+		pending.push(root);
+		long visited = 0;
+		while (!pending.isEmpty()) {
+			var sp = pending.pop();
+			long est = sp.estimateSize();
+			var prefix = sp.trySplit();
+			if (prefix != null) {
+				assertEquals(est, prefix.estimateSize() + sp.estimateSize());
+				pending.push(prefix);
+				pending.push(sp);
+				continue;
+			}
+			long[] count = new long[1];
+			sp.forEachRemaining(k -> count[0]++);
+			assertEquals(est, count[0]);
+			visited += count[0];
+		}
+		assertEquals(expectedCount, visited);
+	}
+
+	@ParameterizedTest(name = "{0} getAllAndContainsAllMatchSingleLookups")
+	@MethodSource("mapSpecs")
+	void getAllAndContainsAllMatchSingleLookups(MapSpec spec) {
+		Map<Integer, Integer> m = newMap(spec);
+		if (!(m instanceof SwissMap<?, ?>) && !(m instanceof SwissSimdMap<?, ?>)) return; // batched lookups only
+		Integer[] query = new Integer[1_003]; // not a multiple of the batch size
+		Integer[] values = new Integer[query.length];
+		boolean[] present = new boolean[query.length];
+
+		for (int i = 0; i < query.length; i++) query[i] = i * 3;
+		assertBatchLookups(m, query, values, present); // unallocated table: everything misses
+
+		for (int i = 0; i < 20_000; i++) m.put(i, -i);
+		for (int i = 0; i < 20_000; i += 5) m.remove(i);
+		for (int i = 0; i < query.length; i++) query[i] = (i % 7 == 0) ? 30_000 + i : i * 17;
+		assertBatchLookups(m, query, values, present);
+
+		Integer[] withNull = {1, null, 2};
+		assertThrows(NullPointerException.class, () -> batchGet(m, withNull, new Integer[3]));
+		assertThrows(IllegalArgumentException.class, () -> batchGet(m, query, new Integer[query.length - 1]));
+	}
+
+	@ParameterizedTest(name = "{0} batchLookupsWhileGrowing")
+	@MethodSource("mapSpecs")
+	void batchLookupsWhileGrowing(MapSpec spec) {
+		Map<Integer, Integer> m = newMap(spec, 4);
+		if (!(m instanceof SwissMap<?, ?>) && !(m instanceof SwissSimdMap<?, ?>)) return; // batched lookups only
+		// Batches land at every stage of the growth, so incremental resizes are caught half done. Each key is
+		// asked for twice in a row: the first lookup may move it out of the drained table.
+		for (int n = 1; n <= 40_000; n++) {
+			m.put(n, -n);
+			if (n % 997 != 0) continue;
+			Integer[] query = new Integer[2 * n + 8];
+			for (int i = 0; i < query.length; i++) query[i] = (i >> 1) + 1;
+			Integer[] out = new Integer[query.length];
+			batchGet(m, query, out);
+			for (int i = 0; i < query.length; i++) assertEquals(query[i] <= n ? -query[i] : null, out[i], "getAll at " + i);
+			assertEquals(n, m.size());
+		}
+	}
+
+	private static void assertBatchLookups(Map<Integer, Integer> m, Integer[] query, Integer[] values, boolean[] present) {
+		java.util.Arrays.fill(values, 42);
+		batchGet(m, query, values);
+		if (m instanceof SwissMap<Integer, Integer> swiss) swiss.containsAll(query, present);
+		else ((SwissSimdMap<Integer, Integer>) m).containsAll(query, present);
+		for (int i = 0; i < query.length; i++) {
+			assertEquals(m.get(query[i]), values[i], "getAll at " + i);
+			assertEquals(m.containsKey(query[i]), present[i], "containsAll at " + i);
+		}
+	}
+
+	private static void batchGet(Map<Integer, Integer> m, Integer[] query, Integer[] out) {
+		if (m instanceof SwissMap<Integer, Integer> swiss) swiss.getAll(query, out);
+		else ((SwissSimdMap<Integer, Integer>) m).getAll(query, out);
+	}
+
+	@ParameterizedTest(name = "{0} hashedOverloadsMatchPlainOnes")
+	@MethodSource("mapSpecs")
+	void hashedOverloadsMatchPlainOnes(MapSpec spec) {
+		Map<Integer, Integer> m = newMap(spec);
+		if (m instanceof BigSwissMap<?, ?>) return; // hashes to 64 bits: no int-hash overloads
+		var expected = new java.util.HashMap<Integer, Integer>();
+		for (int i = 0; i < 5_000; i++) {
+			Integer k = i * 31;
+			int h = HashSmith.hash(k);
+			if (i % 4 == 3) {
+				assertEquals(expected.remove(k - 93), hashed(m).remove(k - 93, HashSmith.hash(k - 93)));
+			}
+			assertEquals(expected.put(k, i), hashed(m).put(k, i, h));
+			assertEquals(expected.put(k, -i), hashed(m).put(k, -i, h)); // overwrite
+		}
+		assertEquals(expected, m);
+		for (int i = -10; i < 5_000 * 31; i += 7) {
+			Integer k = i;
+			assertEquals(m.get(k), hashed(m).get(k, HashSmith.hash(k)));
+			assertEquals(m.containsKey(k), hashed(m).contains(k, HashSmith.hash(k)));
+		}
+		assertThrows(NullPointerException.class, () -> hashed(m).get(null, HashSmith.hash(null)));
+		assertThrows(NullPointerException.class, () -> hashed(m).put(null, 1, HashSmith.hash(null)));
+	}
+
+	/* Uniform view of the *Hashed overloads (ConcurrentSwissMap does not extend AbstractArrayMap). */
+	private interface HashedOps {
+		Integer get(Integer key, int hash);
+		boolean contains(Integer key, int hash);
+		Integer put(Integer key, Integer value, int hash);
+		Integer remove(Integer key, int hash);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static HashedOps hashed(Map<Integer, Integer> m) {
+		if (m instanceof ConcurrentSwissMap<?, ?>) {
+			var c = (ConcurrentSwissMap<Integer, Integer>) m;
+			return new HashedOps() {
+				public Integer get(Integer k, int h) { return c.getHashed(k, h); }
+				public boolean contains(Integer k, int h) { return c.containsHashed(k, h); }
+				public Integer put(Integer k, Integer v, int h) { return c.putHashed(k, v, h); }
+				public Integer remove(Integer k, int h) { return c.removeHashed(k, h); }
+			};
+		}
+		var a = (AbstractArrayMap<Integer, Integer>) m;
+		return new HashedOps() {
+			public Integer get(Integer k, int h) { return a.getHashed(k, h); }
+			public boolean contains(Integer k, int h) { return a.containsHashed(k, h); }
+			public Integer put(Integer k, Integer v, int h) { return a.putHashed(k, v, h); }
+			public Integer remove(Integer k, int h) { return a.removeHashed(k, h); }
+		};
+	}
+
+	@ParameterizedTest(name = "{0} sparseClearAndReset")
+	@MethodSource("mapSpecs")
+	void sparseClearAndReset(MapSpec spec) {
+		Map<Integer, Integer> m = newMap(spec);
+		if (!(m instanceof SwissMap<?, ?>) && !(m instanceof SwissSimdMap<?, ?>)) return; // reset() is Swiss-only
+		var a = (AbstractArrayMap<Integer, Integer>) m;
+		for (int i = 0; i < 100_000; i++) m.put(i, i);
+		int grown = a.capacity;
+		for (int i = 0; i < 100_000; i++) if (i % 1000 != 0) m.remove(i); // few entries, many tombstones
+
+		for (int round = 0; round < 3; round++) {
+			m.clear(); // sparse path
+			assertTrue(m.isEmpty());
+			assertEquals(grown, a.capacity);
+			for (int i = 0; i < 100_000; i += 1000) assertFalse(m.containsKey(i));
+			for (int i = 0; i < 50; i++) m.put(i * 7, i);
+			for (int i = 0; i < 50; i++) assertEquals(i, m.get(i * 7));
+			assertEquals(50, m.size());
+			var cur = ((AbstractArrayMap<Integer, Integer>) m).cursor();
+			int seen = 0;
+			while (cur.advance()) seen++;
+			assertEquals(50, seen);
+		}
+
+		if (m instanceof SwissMap<Integer, Integer> swiss) swiss.reset(100);
+		else ((SwissSimdMap<Integer, Integer>) m).reset(100);
+		assertTrue(m.isEmpty());
+		assertTrue(a.capacity < grown, "reset drops the grown table");
+		assertTrue(a.capacity * 7 / 8 > 100, "sized for the expected entries");
+		for (int i = 0; i < 1_000; i++) m.put(i, -i); // grows again from the small table
+		for (int i = 0; i < 1_000; i++) assertEquals(-i, m.get(i));
+		assertThrows(IllegalArgumentException.class,
+			() -> { if (m instanceof SwissMap<?, ?> swiss) swiss.reset(-1); else ((SwissSimdMap<?, ?>) m).reset(-1); });
+	}
+
+	@ParameterizedTest(name = "{0} copyConstructorAndCloneAreIndependent")
+	@MethodSource("mapSpecs")
+	void copyConstructorAndCloneAreIndependent(MapSpec spec) {
+		Map<Integer, Integer> m = newMap(spec);
+		if (!(m instanceof SwissMap<?, ?>) && !(m instanceof SwissSimdMap<?, ?>)) return; // table copies only
+		assertEquals(m, copies(m)[0]); // unallocated source
+		for (int i = 0; i < 10_000; i++) m.put(i, i);
+		for (int i = 0; i < 10_000; i += 10) m.remove(i); // few tombstones: copied as is
+		var expected = new java.util.HashMap<>(m);
+		for (Map<Integer, Integer> copy : copies(m)) {
+			assertEquals(expected, copy);
+			copy.put(-1, -1);
+			copy.remove(11);
+			for (int i = 0; i < 10_000; i += 3) copy.put(i, -i);
+			assertEquals(expected, m, "source is unaffected by writes to the copy");
+			assertEquals(-3, copy.get(3));
+			assertNull(copy.get(11));
+		}
+		for (int i = 0; i < 10_000; i++) if (i % 3 != 0) m.remove(i); // tombstone-heavy: purged in the copy
+		expected = new java.util.HashMap<>(m);
+		for (Map<Integer, Integer> copy : copies(m)) {
+			assertEquals(expected, copy);
+			for (int i = 0; i < 10_000; i++) assertEquals(expected.get(i), copy.get(i));
+		}
+		Map<Integer, Integer> fromHashMap = (m instanceof SwissMap<?, ?>) ? new SwissMap<>(expected) : new SwissSimdMap<>(expected);
+		assertEquals(expected, fromHashMap);
+	}
+
+	private static Map<Integer, Integer>[] copies(Map<Integer, Integer> m) {
+		@SuppressWarnings("unchecked")
+		Map<Integer, Integer>[] out = new Map[2];
+		if (m instanceof SwissMap<Integer, Integer> swiss) {
+			out[0] = new SwissMap<>(swiss);
+			out[1] = swiss.clone();
+		} else {
+			var simd = (SwissSimdMap<Integer, Integer>) m;
+			out[0] = new SwissSimdMap<>(simd);
+			out[1] = simd.clone();
+		}
+		return out;
+	}
+
+	@ParameterizedTest(name = "{0} mergeAllMatchesPerEntryMerge")
+	@MethodSource("mapSpecs")
+	void mergeAllMatchesPerEntryMerge(MapSpec spec) {
+		Map<Integer, Integer> target = newMap(spec);
+		Map<Integer, Integer> partial = newMap(spec);
+		if (!(target instanceof SwissMap<?, ?>) && !(target instanceof SwissSimdMap<?, ?>)) return; // Swiss-only API
+		var rnd = new java.util.Random(17);
+		for (int i = 0; i < 3_000; i++) target.merge(rnd.nextInt(4_000), 1, Integer::sum);
+		for (int i = 0; i < 20_000; i++) partial.merge(rnd.nextInt(8_000), 1, Integer::sum); // forces growth
+		target.put(-1, null); // null current value: takes the other value
+		partial.put(-1, 5);
+
+		// Sums, except that keys whose merged count is divisible by 5 are removed.
+		java.util.function.BiFunction<Integer, Integer, Integer> fn = (a, b) -> (a + b) % 5 == 0 ? null : a + b;
+		var expected = new java.util.HashMap<>(target);
+		partial.forEach((k, v) -> expected.merge(k, v, fn));
+		var partialBefore = new java.util.HashMap<>(partial);
+
+		mergeAll(target, partial, fn);
+		assertEquals(expected, target);
+		assertEquals(partialBefore, partial, "other map is not modified");
+
+		var doubled = new java.util.HashMap<Integer, Integer>();
+		target.forEach((k, v) -> doubled.put(k, v * 2));
+		mergeAll(target, target, Integer::sum); // self-merge
+		assertEquals(doubled, target);
+
+		partial.put(123_456, null);
+		assertThrows(NullPointerException.class, () -> mergeAll(target, partial, Integer::sum));
+	}
+
+	@ParameterizedTest(name = "{0} mergeAllFromSmallMaps")
+	@MethodSource("mapSpecs")
+	void mergeAllFromSmallMaps(MapSpec spec) {
+		Map<Integer, Integer> target = newMap(spec);
+		Map<Integer, Integer> small = newMap(spec);
+		if (!(target instanceof SwissMap<?, ?>) && !(target instanceof SwissSimdMap<?, ?>)) return; // Swiss-only API
+		for (int i = 0; i < 3; i++) small.put(i, i + 1); // stays in tiny mode where enabled
+		target.put(1, 10);
+
+		mergeAll(target, small, Integer::sum);
+		assertEquals(Map.of(0, 1, 1, 12, 2, 3), target);
+
+		mergeAll(small, small, Integer::sum); // self-merge of a small map
+		assertEquals(Map.of(0, 2, 1, 4, 2, 6), small);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void mergeAll(Map<Integer, Integer> target, Map<Integer, Integer> other,
+			java.util.function.BiFunction<Integer, Integer, Integer> fn) {
+		if (target instanceof SwissMap<Integer, Integer> swiss) swiss.mergeAll((SwissMap<Integer, Integer>) other, fn);
+		else ((SwissSimdMap<Integer, Integer>) target).mergeAll((SwissSimdMap<Integer, Integer>) other, fn);
+	}
+
+	@ParameterizedTest(name = "{0} equalsHashCodeAndDiff")
+	@MethodSource("mapSpecs")
+	void equalsHashCodeAndDiff(MapSpec spec) {
+		Map<Integer, Integer> older = newMap(spec);
+		if (!(older instanceof AbstractArrayMap<Integer, Integer> base)) return; // no diff API
+		Map<Integer, Integer> newer = newMap(spec);
+		for (int i = 0; i < 5_000; i++) {
+			older.put(i, i % 3 == 0 ? null : i);
+			newer.put(i, i % 3 == 0 ? null : i);
+		}
+		var plain = new java.util.HashMap<>(older);
+		assertEquals(older, newer);
+		assertEquals(plain, older);
+		assertEquals(older, plain);
+		assertEquals(plain.hashCode(), older.hashCode());
+		assertEquals(new SwissSimdMap<>(plain), older); // across HashSmith implementations
+		var robinHood = new RobinHoodMap<Integer, Integer>();
+		robinHood.putAll(plain);
+		assertEquals(older, robinHood);
+
+		var added = new java.util.TreeSet<Integer>();
+		var removed = new java.util.TreeSet<Integer>();
+		var changed = new java.util.TreeSet<Integer>();
+		base.diff(newer, added::add, removed::add, changed::add);
+		assertTrue(added.isEmpty() && removed.isEmpty() && changed.isEmpty());
+
+		newer.remove(10);            // removed
+		newer.put(11, -11);          // changed
+		newer.put(12, 5);            // changed (null -> value)
+		newer.put(13, null);         // changed (value -> null)
+		newer.put(20_000, 1);        // added
+		newer.put(20_001, null);     // added, null value
+		assertNotEquals(older, newer);
+		assertNotEquals(newer, older);
+		var expectedAdded = java.util.Set.of(20_000, 20_001);
+		var expectedRemoved = java.util.Set.of(10);
+		var expectedChanged = java.util.Set.of(11, 12, 13);
+		for (Map<Integer, Integer> other : java.util.List.of(newer, new java.util.HashMap<>(newer))) {
+			added.clear();
+			removed.clear();
+			changed.clear();
+			base.diff(other, added::add, removed::add, changed::add);
+			assertEquals(expectedAdded, added);
+			assertEquals(expectedRemoved, removed);
+			assertEquals(expectedChanged, changed);
+		}
+
+		var withNullKey = new java.util.HashMap<>(plain);
+		withNullKey.remove(0);
+		withNullKey.put(null, 0);
+		assertNotEquals(older, withNullKey);
+		added.clear();
+		removed.clear();
+		java.util.List<Integer> addedKeys = new java.util.ArrayList<>();
+		base.diff(withNullKey, addedKeys::add, removed::add, k -> {});
+		assertEquals(java.util.Collections.singletonList(null), addedKeys);
+		assertEquals(java.util.Set.of(0), removed);
+	}
+
+	@ParameterizedTest(name = "{0} mixedOpsWhileGrowingMatchHashMap")
+	@MethodSource("mapSpecs")
+	void mixedOpsWhileGrowingMatchHashMap(MapSpec spec) {
+		// Growth is interleaved with every kind of access, so incremental resizes are observed half done.
+		Map<Integer, Integer> m = newMap(spec, 4);
+		Map<Integer, Integer> expected = new java.util.HashMap<>();
+		var rnd = new java.util.Random(11);
+		for (int i = 0; i < 60_000; i++) {
+			int k = rnd.nextInt(20_000);
+			switch (rnd.nextInt(8)) {
+				case 0 -> assertEquals(expected.remove(k), m.remove(k));
+				case 1 -> assertEquals(expected.get(k), m.get(k));
+				case 2 -> assertEquals(expected.containsKey(k), m.containsKey(k));
+				case 3 -> assertEquals(expected.merge(k, 1, Integer::sum), m.merge(k, 1, Integer::sum));
+				case 4 -> assertEquals(expected.computeIfAbsent(k, x -> -x), m.computeIfAbsent(k, x -> -x));
+				case 5 -> assertEquals(expected.putIfAbsent(k, i), m.putIfAbsent(k, i));
+				default -> assertEquals(expected.put(k, i), m.put(k, i));
+			}
+			if (i % 5_000 == 0) assertEquals(expected, m); // iteration mid-growth
+		}
+		assertEquals(expected.size(), m.size());
+		assertEquals(expected, m);
+		for (int k = 0; k < 20_000; k++) assertEquals(expected.get(k), m.get(k));
+	}
+
+	@ParameterizedTest(name = "{0} smallMapChurnMatchesHashMap")
+	@MethodSource("mapSpecs")
+	void smallMapChurnMatchesHashMap(MapSpec spec) {
+		// Sizes hover around 8, so small-mode maps keep crossing into a table and (via trimToSize) back.
+		Map<Integer, Integer> m = newMap(spec);
+		Map<Integer, Integer> expected = new java.util.HashMap<>();
+		var rnd = new java.util.Random(5);
+		for (int i = 0; i < 20_000; i++) {
+			int k = rnd.nextInt(12);
+			switch (rnd.nextInt(9)) {
+				case 0, 1 -> assertEquals(expected.remove(k), m.remove(k));
+				case 2 -> assertEquals(expected.get(k), m.get(k));
+				case 3 -> assertEquals(expected.merge(k, 1, Integer::sum), m.merge(k, 1, Integer::sum));
+				case 4 -> assertEquals(expected.computeIfAbsent(k, x -> -x), m.computeIfAbsent(k, x -> -x));
+				case 5 -> {
+					for (var it = m.entrySet().iterator(); it.hasNext(); ) {
+						if (it.next().getKey() % 3 == k % 3) it.remove();
+					}
+					expected.keySet().removeIf(x -> x % 3 == k % 3);
+				}
+				case 6 -> {
+					if (m instanceof AbstractArrayMap<Integer, Integer> a) a.trimToSize();
+				}
+				default -> assertEquals(expected.put(k, i), m.put(k, i));
+			}
+			assertEquals(expected.size(), m.size());
+			if (i % 100 == 0) {
+				assertEquals(expected, m);
+				assertEquals(expected.containsValue(i - 1), m.containsValue(i - 1));
+				if (m instanceof SwissMap<Integer, Integer> swiss) assertEquals(expected, swiss.clone());
+			}
+		}
+		assertEquals(expected, m);
+	}
+
+	static final class CountingKey {
+		final int id;
+		int hashCalls;
+
+		CountingKey(int id) { this.id = id; }
+
+		@Override
+		public int hashCode() {
+			hashCalls++;
+			return id;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof CountingKey other && other.id == id;
+		}
+	}
 }
@@ -67,6 +67,24 @@ public class SetFootprintTest {
 		return new java.util.UUID(rnd.nextLong(), rnd.nextLong()).toString();
 	}
 
+	/* Empty and singleton instances: tables are allocated lazily, so an empty set only retains its header. */
+	private static void measureSmall(Set<Integer> set, String setName) {
+		long empty = GraphLayout.parseInstance(set).totalSize();
+		set.add(1);
+		long singleton = GraphLayout.parseInstance(set).totalSize();
+		System.out.printf("set=%-18s empty=%-,8dB singleton=%-,8dB%n", setName, empty, singleton);
+	}
+
+//	@ParameterizedTest(name = "{0} - empty/singleton footprint")
+//	@MethodSource("setSpecs")
+	void printSmallFootprint(SetSpec setSpec) {
+		measureSmall(setSpec.newSet(), setSpec.name());
+	}
+
+	private static Stream<SetSpec> setSpecs() {
+		return Stream.of(HASH_SET, SWISS_SET, OBJECT_OPEN_HASH_SET, UNIFIED_SET);
+	}
+
 //	@ParameterizedTest(name = "{0} - {1} footprint growth")
 //	@MethodSource("payloadsAndSets")
 	void printFootprint(SetSpec setSpec, Payload payload) {
@@ -18,6 +18,21 @@ class SwissMapRehashResizeTest {
         }
     }
 
+    private static Object getField(Object target, String name) {
+        try {
+            Field f = target.getClass().getDeclaredField(name);
+            f.setAccessible(true);
+            return f.get(target);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError("Failed to read field: " + name, e);
+        }
+    }
+
+	// Every key shares one probe sequence, so the groups it fills have no EMPTY slot left.
+	record Collide(int v) {
+		@Override public int hashCode() { return 0; }
+	}
+
 	@Test
 	void tombstoneRehashDoesNotResize() {
 		var m = new SwissMap<Integer, Integer>(64);
@@ -53,25 +68,25 @@ class SwissMapRehashResizeTest {
 	@Test
 	void putAllReusesTombstonesSoNoResizeNeeded() {
 		// capacity=32, loadFactor=0.875 => maxLoad=28
-		var m = new SwissMap<Integer, Integer>(32);
+		var m = new SwissMap<Collide, Integer>(32);
 		int cap0 = m.capacity;
 		assertEquals(32, cap0);
 		assertEquals(28, m.maxLoad);
 
-		// Fill close to maxLoad without resizing.
-		for (int i = 0; i < 27; i++) m.put(i, i);
+		// Fill close to maxLoad without resizing: three full groups plus three slots of the last one.
+		for (int i = 0; i < 27; i++) m.put(new Collide(i), i);
 		assertEquals(27, m.size());
 		assertEquals(cap0, m.capacity);
 
-		// Create 9 tombstones without triggering maybeRehash()
-		for (int i = 0; i < 9; i++) assertNotNull(m.remove(i));
+		// Create 9 tombstones (removed from full groups) without triggering maybeRehash()
+		for (int i = 0; i < 9; i++) assertNotNull(m.remove(new Collide(i)));
 		assertEquals(18, m.size());
 		assertEquals(9, getIntField(m, "tombstones"));
 		assertEquals(cap0, m.capacity);
 
 		// Batch re-insert 8 of the removed keys: this should mostly reuse tombstones.
-		var batch = new HashMap<Integer, Integer>();
-		for (int i = 0; i < 8; i++) batch.put(i, i * 2);
+		var batch = new HashMap<Collide, Integer>();
+		for (int i = 0; i < 8; i++) batch.put(new Collide(i), i * 2);
 
 		// If we pessimistically assume no tombstone reuse, we'd exceed maxLoad and would resize.
 		int tombstonesBefore = getIntField(m, "tombstones");
@@ -92,8 +107,152 @@ class SwissMapRehashResizeTest {
 		assertEquals(1, getIntField(m, "tombstones"));
 
 		// Values updated for reinserted keys; key 8 stays absent.
-		for (int i = 0; i < 8; i++) assertEquals(i * 2, m.get(i));
-		assertNull(m.get(8));
+		for (int i = 0; i < 8; i++) assertEquals(i * 2, m.get(new Collide(i)));
+		assertNull(m.get(new Collide(8)));
+	}
+
+	@Test
+	void tombstoneRehashReusesArrays() {
+		var m = new SwissMap<Collide, Integer>(64);
+		// 40 colliding keys fill five groups completely, so removals leave real tombstones.
+		for (int i = 0; i < 40; i++) m.put(new Collide(i), i);
+		int cap0 = m.capacity;
+		Object ctrl0 = getField(m, "ctrl");
+		Object keys0 = getField(m, "keys");
+		Object vals0 = getField(m, "vals");
+
+		for (int i = 0; i < 24; i++) assertEquals(i, m.remove(new Collide(i)));
+
+		// The tombstone purge ran in place: same capacity and the very same arrays.
+		assertEquals(cap0, m.capacity);
+		assertSame(ctrl0, getField(m, "ctrl"));
+		assertSame(keys0, getField(m, "keys"));
+		assertSame(vals0, getField(m, "vals"));
+		assertTrue(getIntField(m, "tombstones") <= m.size() / 2);
+		assertEquals(16, m.size());
+		for (int i = 0; i < 40; i++) {
+			if (i < 24) assertNull(m.get(new Collide(i)));
+			else assertEquals(i, m.get(new Collide(i)));
+		}
+	}
+
+	@Test
+	void storeHashesRehashDoesNotCallHashCode() {
+		final class CountingKey {
+			static int hashCalls;
+			final int v;
+			CountingKey(int v) { this.v = v; }
+			@Override public int hashCode() { hashCalls++; return v; }
+			@Override public boolean equals(Object o) { return o instanceof CountingKey k && k.v == v; }
+		}
+		var m = new SwissMap<CountingKey, Integer>(16, 0.875, SwissMap.STORE_HASHES);
+		int cap0 = m.capacity;
+
+		// Each put hashes its key exactly once; the resizes along the way reuse the stored hashes.
+		for (int i = 0; i < 1000; i++) m.put(new CountingKey(i), i);
+		assertTrue(m.capacity > cap0);
+		assertEquals(1000, CountingKey.hashCalls);
+
+		// Tombstone purge also reuses stored hashes.
+		for (int i = 0; i < 900; i++) m.remove(new CountingKey(i));
+		assertEquals(1900, CountingKey.hashCalls);
+		for (int i = 900; i < 1000; i++) assertEquals(i, m.get(new CountingKey(i)));
+	}
+
+	@Test
+	void interleavedLayoutSharesOneTableAcrossResize() {
+		var m = new SwissMap<Integer, Integer>(16, 0.875, SwissMap.INTERLEAVED);
+		for (int i = 0; i < 1000; i++) m.put(i, -i);
+
+		Object[] keys = (Object[]) getField(m, "keys");
+		assertSame(keys, getField(m, "vals"));
+		assertEquals(m.capacity * 2, keys.length);
+		for (int i = 0; i < 1000; i++) assertEquals(-i, m.get(i));
+
+		for (int i = 0; i < 900; i++) m.remove(i);
+		for (int i = 900; i < 1000; i++) assertEquals(-i, m.get(i));
+	}
+
+	@Test
+	void emptyMapsShareSentinelTablesUntilFirstPut() {
+		var a = new SwissMap<Integer, Integer>(64);
+		var b = new SwissMap<Integer, Integer>();
+		assertSame(getField(a, "ctrl"), getField(b, "ctrl"));
+		assertSame(getField(a, "keys"), getField(b, "keys"));
+
+		// Reads, removes, iteration and clear() leave the sentinels in place.
+		assertNull(a.get(1));
+		assertNull(a.remove(1));
+		assertFalse(a.containsValue(1));
+		assertFalse(a.entrySet().iterator().hasNext());
+		a.clear();
+		assertSame(getField(a, "ctrl"), getField(b, "ctrl"));
+
+		// First put allocates at the requested capacity.
+		int cap0 = a.capacity;
+		a.put(1, 1);
+		assertNotSame(getField(a, "ctrl"), getField(b, "ctrl"));
+		assertEquals(cap0, a.capacity);
+		assertEquals(cap0, ((Object[]) getField(a, "keys")).length);
+		assertEquals(1, a.get(1));
+	}
+
+	@Test
+	void trimToSizeShrinksToFitAndKeepsEntries() {
+		var m = new SwissMap<Integer, Integer>(16);
+		for (int i = 0; i < 10_000; i++) m.put(i, i);
+		for (int i = 100; i < 10_000; i++) m.remove(i);
+		int bigCap = m.capacity;
+
+		m.trimToSize();
+		assertTrue(m.capacity < bigCap);
+		assertTrue(m.maxLoad > m.size(), "next insert must not grow the trimmed table");
+		assertTrue(m.maxLoad / 2 <= m.size(), "trimmed table should be the smallest that fits");
+		assertEquals(0, getIntField(m, "tombstones"));
+		for (int i = 0; i < 100; i++) assertEquals(i, m.get(i));
+
+		// An empty map drops back to the shared empty tables and still works afterwards.
+		m.clear();
+		m.trimToSize();
+		assertSame(getField(m, "ctrl"), getField(new SwissMap<Integer, Integer>(), "ctrl"));
+		m.put(1, 1);
+		assertEquals(1, m.get(1));
+	}
+
+	@Test
+	void shrinkPolicyHalvesWithHysteresis() {
+		var m = new SwissMap<Integer, Integer>(16);
+		assertThrows(IllegalArgumentException.class, () -> m.setShrinkThreshold(0.5));
+		m.setShrinkThreshold(0.25);
+		for (int i = 0; i < 4096; i++) m.put(i, i);
+		int bigCap = m.capacity;
+
+		// Removing down to a quarter of maxLoad halves the table once, not repeatedly.
+		int i = 0;
+		while (m.capacity == bigCap) m.remove(i++);
+		int halfCap = m.capacity;
+		assertEquals(bigCap / 2, halfCap);
+		assertTrue(m.size() < m.maxLoad / 2 + 1);
+
+		// Re-adding the last removed keys does not immediately grow it back.
+		for (int j = i - 16; j < i; j++) m.put(j, j);
+		assertEquals(halfCap, m.capacity);
+
+		// Draining the map never goes below the construction-time capacity.
+		for (int j = 0; j < 4096; j++) m.remove(j);
+		assertEquals(16, m.capacity);
+		for (int j = 0; j < 4096; j++) assertNull(m.get(j));
+	}
+
+	@Test
+	void removeFromGroupWithEmptySlotLeavesNoTombstone() {
+		for (var m : java.util.List.of(new SwissMap<Integer, Integer>(64), new SwissMap<Integer, Integer>(64, 0.875, SwissMap.SLOT_PROBING))) {
+			for (int i = 0; i < 8; i++) m.put(i, i);
+			for (int i = 0; i < 8; i++) assertEquals(i, m.remove(i));
+
+			assertEquals(0, getIntField(m, "tombstones"));
+			assertTrue(m.isEmpty());
+		}
 	}
 }
 
@@ -0,0 +1,51 @@
+package io.github.bluuewhale.hashsmith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class SwissMapSlotHandleTest {
+
+	@Test
+	void slotForInsertsOnceThenFindsExisting() {
+		var m = new SwissMap<String, Integer>();
+		assertEquals(-1, m.slotOf("a"));
+
+		int s = m.slotFor("a");
+		assertTrue(s < 0, "fresh insert is reported as ~slot");
+		assertEquals(1, m.size());
+		assertTrue(m.containsKey("a"));
+		assertNull(m.valueAtSlot(s));
+		assertEquals("a", m.keyAtSlot(s));
+
+		assertNull(m.setValueAtSlot(s, 10));
+		assertEquals(10, m.get("a"));
+
+		int again = m.slotFor("a");
+		assertEquals(~s, again);
+		assertEquals(again, m.slotOf("a"));
+		assertEquals(10, m.setValueAtSlot(again, 11));
+		assertEquals(11, m.get("a"));
+		assertEquals(1, m.size());
+	}
+
+	@Test
+	void countingLoopMatchesHashMapAcrossResizes() {
+		for (int options : new int[] {0, SwissMap.SLOT_PROBING, SwissMap.STORE_HASHES, SwissMap.INTERLEAVED}) {
+			var m = new SwissMap<Integer, Integer>(0, 0.875, options);
+			var expected = new HashMap<Integer, Integer>();
+			var rnd = new Random(options);
+			for (int i = 0; i < 50_000; i++) {
+				int k = rnd.nextInt(5_000);
+				int s = m.slotFor(k);
+				m.setValueAtSlot(s, s < 0 ? 1 : m.valueAtSlot(s) + 1);
+				expected.merge(k, 1, Integer::sum);
+				if (i % 11 == 0) m.remove(rnd.nextInt(5_000) + 10_000); // misses: no structural change
+			}
+			assertEquals(expected, m);
+		}
+	}
+}
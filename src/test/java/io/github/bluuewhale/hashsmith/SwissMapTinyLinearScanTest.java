@@ -0,0 +1,108 @@
+package io.github.bluuewhale.hashsmith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class SwissMapTinyLinearScanTest {
+
+	private static Object getField(Object target, String name) {
+		try {
+			Field f = SwissMap.class.getDeclaredField(name);
+			f.setAccessible(true);
+			return f.get(target);
+		} catch (ReflectiveOperationException e) {
+			throw new AssertionError("Failed to read field: " + name, e);
+		}
+	}
+
+	private static boolean isSmall(SwissMap<?, ?> m) {
+		return getField(m, "ctrl") == getField(null, "TINY_CTRL");
+	}
+
+	@Test
+	void staysSmallUpToEightEntriesThenBuildsTable() {
+		var m = new SwissMap<Integer, String>(16, 0.875, SwissMap.TINY_LINEAR_SCAN);
+		for (int i = 0; i < 8; i++) {
+			assertNull(m.put(i, "v" + i));
+			assertTrue(isSmall(m), "entry " + i);
+			assertEquals(8, ((Object[]) getField(m, "keys")).length);
+		}
+		assertEquals("v3", m.put(3, "w3"));
+		assertTrue(isSmall(m), "overwriting does not grow");
+
+		m.put(8, "v8");
+		assertFalse(isSmall(m));
+		assertEquals(16, m.capacity);
+		assertEquals(9, m.size());
+		for (int i = 0; i < 9; i++) assertEquals(i == 3 ? "w3" : "v" + i, m.get(i));
+	}
+
+	@Test
+	void getDoesNotHashInSmallMode() {
+		var m = new SwissMap<MapTest.CountingKey, Integer>(16, 0.875, SwissMap.TINY_LINEAR_SCAN);
+		var keys = new MapTest.CountingKey[6];
+		for (int i = 0; i < keys.length; i++) m.put(keys[i] = new MapTest.CountingKey(i), i);
+		for (var k : keys) k.hashCalls = 0;
+
+		for (int i = 0; i < keys.length; i++) {
+			assertEquals(i, m.get(new MapTest.CountingKey(i)));
+			assertTrue(m.containsKey(keys[i]));
+		}
+		assertFalse(m.containsKey(new MapTest.CountingKey(99)));
+		for (var k : keys) assertEquals(0, k.hashCalls);
+	}
+
+	@Test
+	void removalsLeaveHolesThatInsertsReuse() {
+		var m = new SwissMap<Integer, Integer>(16, 0.875, SwissMap.TINY_LINEAR_SCAN);
+		for (int i = 0; i < 8; i++) m.put(i, i);
+		int slot = m.slotOf(5);
+		assertEquals(5, m.remove(5));
+		assertEquals(7, m.size());
+		assertEquals(~slot, m.slotFor(42), "the freed slot is taken first");
+		assertTrue(isSmall(m));
+		assertEquals(8, m.size());
+	}
+
+	@Test
+	void trimToSizeReturnsToSmallMode() {
+		var m = new SwissMap<Integer, Integer>(16, 0.875, SwissMap.TINY_LINEAR_SCAN | SwissMap.STORE_HASHES);
+		Map<Integer, Integer> expected = new HashMap<>();
+		for (int i = 0; i < 1_000; i++) {
+			m.put(i, i);
+			expected.put(i, i);
+		}
+		for (int i = 5; i < 1_000; i++) {
+			m.remove(i);
+			expected.remove(i);
+		}
+		assertFalse(isSmall(m));
+		m.trimToSize();
+		assertTrue(isSmall(m));
+		assertEquals(expected, m);
+
+		// Growing again starts from the smallest table, not from the trimmed one.
+		for (int i = 5; i < 9; i++) m.put(i, i);
+		assertFalse(isSmall(m));
+		assertEquals(16, m.capacity);
+		for (int i = 0; i < 9; i++) assertEquals(i, m.get(i));
+	}
+
+	@Test
+	void putAllStaysSmallWhenItFits() {
+		var m = new SwissMap<String, Integer>(16, 0.875, SwissMap.TINY_LINEAR_SCAN | SwissMap.INTERLEAVED);
+		m.putAll(Map.of("a", 1, "b", 2, "c", 3));
+		assertTrue(isSmall(m));
+		assertEquals(Map.of("a", 1, "b", 2, "c", 3), m);
+
+		m.putAll(Map.of("d", 4, "e", 5, "f", 6, "g", 7, "h", 8, "i", 9));
+		assertFalse(isSmall(m));
+		assertEquals(9, m.size());
+		assertEquals(5, m.get("e"));
+	}
+}
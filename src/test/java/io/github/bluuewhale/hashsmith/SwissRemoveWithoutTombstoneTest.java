@@ -42,6 +42,22 @@ class SwissRemoveWithoutTombstoneTest {
 		}
 	}
 
+	@Test
+	void swissSimdMap_tombstonePurgeKeepsEntries() {
+		var m = new SwissSimdMap<Collide, Integer>(256);
+		for (int i = 0; i < 200; i++) m.put(new Collide(i), i);
+
+		// Enough removals from full groups to trigger the in-place tombstone purge.
+		for (int i = 0; i < 150; i++) assertEquals(i, m.remove(new Collide(i)));
+		assertTrue(tombstonesOf(m) <= m.size() / 2);
+
+		for (int i = 0; i < 200; i++) {
+			Integer v = m.get(new Collide(i));
+			if (i < 150) assertNull(v);
+			else assertEquals(i, v);
+		}
+	}
+
 	@Test
 	void swissSimdMap_removeWithoutTombstone_rehashesAndClearsTombstones() {
 		var m = new SwissSimdMap<Collide, Integer>(64);
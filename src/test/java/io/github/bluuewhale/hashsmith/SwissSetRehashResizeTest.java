@@ -18,6 +18,43 @@ class SwissSetRehashResizeTest {
 		}
 	}
 
+	@Test
+	void tablesAreAllocatedOnFirstAdd() throws ReflectiveOperationException {
+		Field ctrl = SwissSet.class.getDeclaredField("ctrl");
+		ctrl.setAccessible(true);
+		var a = new SwissSet<Integer>(64);
+		var b = new SwissSet<Integer>();
+		assertSame(ctrl.get(a), ctrl.get(b)); // shared empty sentinel
+		assertFalse(a.contains(1));
+		assertFalse(a.iterator().hasNext());
+
+		int cap0 = getIntField(a, "capacity");
+		assertTrue(a.add(null));
+		assertNotSame(ctrl.get(a), ctrl.get(b));
+		assertEquals(cap0, getIntField(a, "capacity"));
+		assertTrue(a.contains(null));
+	}
+
+	@Test
+	void trimToSizeAndShrinkPolicy() {
+		var s = new SwissSet<Integer>(16);
+		for (int i = 0; i < 4096; i++) assertTrue(s.add(i));
+		for (int i = 64; i < 4096; i++) assertTrue(s.remove(i));
+		int bigCap = getIntField(s, "capacity");
+		s.trimToSize();
+		assertTrue(getIntField(s, "capacity") < bigCap);
+		assertTrue(getIntField(s, "maxLoad") > s.size());
+		for (int i = 0; i < 64; i++) assertTrue(s.contains(i));
+
+		var t = new SwissSet<Integer>(16);
+		t.setShrinkThreshold(0.25);
+		for (int i = 0; i < 4096; i++) assertTrue(t.add(i));
+		int cap0 = getIntField(t, "capacity");
+		for (int i = 0; i < 4000; i++) assertTrue(t.remove(i));
+		assertTrue(getIntField(t, "capacity") < cap0);
+		for (int i = 4000; i < 4096; i++) assertTrue(t.contains(i));
+	}
+
 	@Test
 	void tombstoneRehashDoesNotResize() {
 		var s = new SwissSet<Integer>(64);
@@ -147,5 +147,90 @@ class SwissSetTest {
 		assertEquals(n, count);
 		assertEquals((long) (n - 1) * n / 2, sum);
 	}
-}
 
+	@Test
+	void parallelStreamWithNull() {
+		var s = new SwissSet<Integer>();
+		int n = 20_000;
+		for (int i = 0; i < n; i++) s.add(i);
+		s.add(null);
+
+		assertEquals(n + 1, s.parallelStream().count());
+		assertEquals((long) (n - 1) * n / 2, s.parallelStream().filter(v -> v != null).mapToLong(Integer::longValue).sum());
+		assertEquals(n + 1, s.spliterator().getExactSizeIfKnown());
+	}
+
+	@Test
+	void hashedOverloadsIncludingNull() {
+		var s = new SwissSet<String>();
+		for (String e : new String[] {"a", "b", null}) {
+			int h = HashSmith.hash(e);
+			assertFalse(s.containsHashed(e, h));
+			assertTrue(s.addHashed(e, h));
+			assertFalse(s.addHashed(e, h));
+			assertTrue(s.contains(e));
+			assertTrue(s.containsHashed(e, h));
+		}
+		assertEquals(3, s.size());
+		assertTrue(s.removeHashed(null, HashSmith.hash(null)));
+		assertFalse(s.removeHashed(null, HashSmith.hash(null)));
+		assertTrue(s.removeHashed("a", HashSmith.hash("a")));
+		assertEquals(Set.of("b"), s);
+	}
+
+	@Test
+	void sparseClearAndReset() {
+		var s = new SwissSet<Integer>();
+		for (int i = 0; i < 50_000; i++) s.add(i);
+		for (int i = 0; i < 50_000; i++) if (i % 500 != 0) s.remove(i);
+		s.add(null);
+
+		s.clear();
+		assertTrue(s.isEmpty());
+		assertFalse(s.contains(null));
+		assertFalse(s.contains(0));
+		for (int i = 0; i < 20; i++) assertTrue(s.add(i));
+		assertEquals(20, s.size());
+
+		s.reset(10);
+		assertTrue(s.isEmpty());
+		for (int i = 0; i < 1_000; i++) assertTrue(s.add(i));
+		assertEquals(1_000, s.size());
+		assertTrue(s.contains(999));
+	}
+
+	@Test
+	void copyConstructorAndClone() {
+		var s = new SwissSet<Integer>();
+		for (int i = 0; i < 5_000; i++) s.add(i);
+		s.add(null);
+		for (int pass = 0; pass < 2; pass++) {
+			var expected = new java.util.HashSet<>(s);
+			for (SwissSet<Integer> copy : List.of(new SwissSet<>(s), s.clone())) {
+				assertEquals(expected, copy);
+				copy.remove(null);
+				copy.add(-1);
+				assertEquals(expected, s, "source is unaffected by writes to the copy");
+			}
+			for (int i = 0; i < 5_000; i++) if (i % 4 != 0) s.remove(i); // second pass copies a tombstone-heavy set
+		}
+		assertEquals(Set.of(1, 2, 3), new SwissSet<>(List.of(1, 2, 3)));
+	}
+
+	@Test
+	void equalsAndHashCodeMatchHashSet() {
+		var s = new SwissSet<Integer>();
+		assertEquals(Set.of(), s);
+		for (int i = 0; i < 3_000; i++) s.add(i);
+		s.add(null);
+		var plain = new java.util.HashSet<>(s);
+		assertEquals(plain, s);
+		assertEquals(s, plain);
+		assertEquals(plain.hashCode(), s.hashCode());
+		assertEquals(s, s.clone());
+		plain.remove(7);
+		plain.add(-7);
+		assertNotEquals(s, plain);
+		assertNotEquals(s, new java.util.ArrayList<>(plain)); // not a Set
+	}
+}
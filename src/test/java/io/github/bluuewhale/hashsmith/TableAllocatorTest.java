@@ -0,0 +1,159 @@
+package io.github.bluuewhale.hashsmith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class TableAllocatorTest {
+
+	@Test
+	void poolHandsBackReleasedArraysCleared() {
+		TableAllocator pool = TableAllocator.threadLocalPool(1 << 20);
+		Object[] objects = pool.allocateObjects(64);
+		objects[3] = "stale";
+		pool.release(objects);
+		Object[] again = pool.allocateObjects(64);
+		assertSame(objects, again);
+		assertNull(again[3], "pooled Object[] must not keep entries reachable");
+		assertNotSame(again, pool.allocateObjects(64), "bucket is empty again");
+
+		long[] longs = pool.allocateLongs(9);
+		pool.release(longs);
+		assertNotSame(longs, pool.allocateLongs(8), "buckets are keyed by exact length");
+		assertSame(longs, pool.allocateLongs(9));
+	}
+
+	@Test
+	void poolRespectsByteBudget() {
+		TableAllocator pool = TableAllocator.threadLocalPool(1024);
+		long[] big = new long[200]; // 1600 bytes: over budget
+		pool.release(big);
+		assertNotSame(big, pool.allocateLongs(200));
+
+		byte[] a = new byte[600];
+		byte[] b = new byte[600];
+		pool.release(a);
+		pool.release(b); // would exceed 1024 bytes: dropped
+		assertSame(a, pool.allocateBytes(600));
+		assertNotSame(b, pool.allocateBytes(600));
+	}
+
+	@Test
+	void pooledMapsMatchHashMap() {
+		TableAllocator pool = TableAllocator.threadLocalPool(64 << 20);
+		Random rnd = new Random(7);
+		for (int round = 0; round < 20; round++) {
+			SwissMap<Integer, Integer> swiss = new SwissMap<>(0, 0.875, round % 2 == 0 ? 0 : SwissMap.INTERLEAVED);
+			SwissSimdMap<Integer, Integer> simd = new SwissSimdMap<>();
+			swiss.setTableAllocator(pool);
+			simd.setTableAllocator(pool);
+			swiss.setShrinkThreshold(0.25);
+			simd.setShrinkThreshold(0.25);
+			Map<Integer, Integer> expected = new HashMap<>();
+			for (int i = 0; i < 20_000; i++) {
+				int k = rnd.nextInt(10_000);
+				Integer old = expected.get(k);
+				if (rnd.nextInt(3) == 0) {
+					expected.remove(k);
+					assertEquals(old, swiss.remove(k));
+					assertEquals(old, simd.remove(k));
+				} else {
+					expected.put(k, i);
+					assertEquals(old, swiss.put(k, i));
+					assertEquals(old, simd.put(k, i));
+				}
+			}
+			assertEquals(expected, swiss);
+			assertEquals(expected, simd);
+			swiss.trimToSize();
+			simd.reset(100);
+			assertEquals(expected, swiss);
+			assertTrue(simd.isEmpty());
+			swiss.releaseTables();
+			simd.releaseTables();
+			assertTrue(swiss.isEmpty());
+			swiss.put(1, 1); // usable after release
+			assertEquals(1, swiss.get(1));
+			swiss.releaseTables();
+		}
+	}
+
+	@Test
+	void computeSeesRecycledTablesAsChanged() {
+		TableAllocator pool = TableAllocator.threadLocalPool(64 << 20);
+		SwissMap<Integer, Integer> swiss = new SwissMap<>();
+		SwissSimdMap<Integer, Integer> simd = new SwissSimdMap<>();
+		for (Map<Integer, Integer> m : java.util.List.<Map<Integer, Integer>>of(swiss, simd)) {
+			((AbstractArrayMap<Integer, Integer>) m).setShrinkThreshold(0.25);
+			for (int i = 0; i < 10; i++) m.put(-i - 1, i);
+		}
+		swiss.setTableAllocator(pool);
+		simd.setTableAllocator(pool);
+
+		for (Map<Integer, Integer> m : java.util.List.<Map<Integer, Integer>>of(swiss, simd)) {
+			// Grow and shrink back inside the mapping function: the table ends up the same size, possibly even the
+			// same (pooled) arrays, with entries in different slots than the probe before the call saw.
+			Integer v = m.computeIfAbsent(42, k -> {
+				for (int i = 0; i < 5_000; i++) m.put(i + 100, i);
+				for (int i = 0; i < 5_000; i++) m.remove(i + 100);
+				return 7;
+			});
+			assertEquals(7, v);
+			assertEquals(7, m.get(42));
+			assertEquals(11, m.size());
+			for (int i = 0; i < 10; i++) assertEquals(i, m.get(-i - 1));
+		}
+	}
+
+	/* Hands out plain arrays and fails on the release of any array it did not allocate. */
+	private static final class OwnershipCheckingAllocator implements TableAllocator {
+		final java.util.Set<Object> handedOut = java.util.Collections.newSetFromMap(new java.util.IdentityHashMap<>());
+		int released;
+
+		private <T> T track(T array) {
+			handedOut.add(array);
+			return array;
+		}
+
+		private void check(Object array) {
+			assertTrue(handedOut.remove(array), "released an array this allocator did not hand out");
+			released++;
+		}
+
+		@Override public long[] allocateLongs(int length) { return track(new long[length]); }
+		@Override public byte[] allocateBytes(int length) { return track(new byte[length]); }
+		@Override public Object[] allocateObjects(int length) { return track(new Object[length]); }
+		@Override public void release(long[] array) { check(array); }
+		@Override public void release(byte[] array) { check(array); }
+		@Override public void release(Object[] array) { check(array); }
+	}
+
+	@Test
+	void clonedTablesComeFromTheAllocator() {
+		for (int options : new int[] { 0, SwissMap.INTERLEAVED | SwissMap.STORE_HASHES, SwissMap.TINY_LINEAR_SCAN }) {
+			var alloc = new OwnershipCheckingAllocator();
+			var swiss = new SwissMap<Integer, Integer>(16, 0.875, options);
+			var simd = new SwissSimdMap<Integer, Integer>();
+			swiss.setTableAllocator(alloc);
+			simd.setTableAllocator(alloc);
+			for (int n : new int[] { 5, 1_000 }) { // small mode, then a table
+				for (int i = 0; i < n; i++) {
+					swiss.put(i, i);
+					simd.put(i, i);
+				}
+				SwissMap<Integer, Integer> swissCopy = swiss.clone();
+				SwissSimdMap<Integer, Integer> simdCopy = simd.clone();
+				assertEquals(swiss, swissCopy);
+				assertEquals(simd, simdCopy);
+				int before = alloc.released;
+				swissCopy.releaseTables();
+				simdCopy.releaseTables();
+				assertTrue(alloc.released > before);
+			}
+		}
+	}
+}